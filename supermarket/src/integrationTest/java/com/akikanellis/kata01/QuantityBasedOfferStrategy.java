@@ -2,11 +2,11 @@ package com.akikanellis.kata01;
 
 import com.akikanellis.kata01.item.Item;
 import com.akikanellis.kata01.item.Items;
-import com.akikanellis.kata01.item.QuantifiedItem;
-import com.akikanellis.kata01.offer.Offer;
+import com.akikanellis.kata01.offer.CollectingOfferSink;
+import com.akikanellis.kata01.offer.OfferScope;
+import com.akikanellis.kata01.offer.OfferSink;
 import com.akikanellis.kata01.offer.OfferStrategy;
 import com.akikanellis.kata01.offer.Offers;
-import com.akikanellis.kata01.offer.QuantifiedOffer;
 import com.akikanellis.kata01.price.Price;
 
 /**
@@ -26,21 +26,19 @@ class QuantityBasedOfferStrategy extends OfferStrategy {
         this.baseDiscount = baseDiscount;
     }
 
-    @Override public Offers calculateOffers(Items items) {
-        int quantityOfApplicableItems = getQuantityOfApplicableItems(items);
-        int timesToApplyOffer = quantityOfApplicableItems / quantityToDiscount;
+    @Override public OfferScope scope() { return OfferScope.barcodes(applicableItem.barcode()); }
 
-        Offer baseOffer = Offer.create(description(), baseDiscount);
-        QuantifiedOffer quantifiedOffer = QuantifiedOffer.create(baseOffer, timesToApplyOffer);
+    @Override public Offers calculateOffers(Items items) {
+        CollectingOfferSink sink = new CollectingOfferSink();
+        calculateOffers(items, sink);
 
-        return Offers.fromSingle(quantifiedOffer);
+        return sink.offers();
     }
 
-    private int getQuantityOfApplicableItems(Items items) {
-        return items.stream()
-                .filter(quantifiedItem -> quantifiedItem.item().equals(applicableItem))
-                .map(QuantifiedItem::quantity)
-                .reduce((firstQuantity, secondQuantity) -> firstQuantity + secondQuantity)
-                .orElse(0);
+    @Override public void calculateOffers(Items items, OfferSink sink) {
+        int quantityOfApplicableItems = items.quantityOf(applicableItem.barcode());
+        int timesToApplyOffer = quantityOfApplicableItems / quantityToDiscount;
+
+        sink.accept(description(), baseDiscount, timesToApplyOffer);
     }
 }
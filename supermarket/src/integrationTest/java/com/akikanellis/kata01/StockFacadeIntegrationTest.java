@@ -11,6 +11,8 @@ import com.akikanellis.kata01.offer.Offers;
 import com.akikanellis.kata01.price.Price;
 import com.akikanellis.kata01.stock.AddNewItemIfNotExistsUseCase;
 import com.akikanellis.kata01.stock.AddOfferStrategyUseCase;
+import com.akikanellis.kata01.stock.ApplyStockMovementsUseCase;
+import com.akikanellis.kata01.stock.CachingGetApplicableOffersUseCase;
 import com.akikanellis.kata01.stock.FillStockUseCase;
 import com.akikanellis.kata01.stock.FindItemByBarcodeUseCase;
 import com.akikanellis.kata01.stock.FindOfferStrategyByIdUseCase;
@@ -18,13 +20,18 @@ import com.akikanellis.kata01.stock.GetActiveOfferStrategiesUseCase;
 import com.akikanellis.kata01.stock.GetApplicableOffersUseCase;
 import com.akikanellis.kata01.stock.GetOffersValueUseCase;
 import com.akikanellis.kata01.stock.GetStockUseCase;
+import com.akikanellis.kata01.stock.GetStockValuationUseCase;
 import com.akikanellis.kata01.stock.GetStockValueAfterOffersUseCase;
 import com.akikanellis.kata01.stock.GetStockValueBeforeOffersUseCase;
 import com.akikanellis.kata01.stock.InMemoryStockRepository;
 import com.akikanellis.kata01.stock.ReduceStockUseCase;
 import com.akikanellis.kata01.stock.RemoveOfferStrategyUseCase;
 import com.akikanellis.kata01.stock.StockFacade;
+import com.akikanellis.kata01.stock.StockMovement;
+import com.akikanellis.kata01.stock.StockMovementFailure;
+import com.akikanellis.kata01.stock.StockMovementsReport;
 import com.akikanellis.kata01.stock.StockRepository;
+import com.akikanellis.kata01.stock.StockValuation;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -41,6 +48,7 @@ public class StockFacadeIntegrationTest {
         FindItemByBarcodeUseCase findItemByBarcode = new FindItemByBarcodeUseCase(stock);
         FillStockUseCase fillStock = new FillStockUseCase(stock, addNewItemIfNotExists);
         ReduceStockUseCase reduceStock = new ReduceStockUseCase(stock, addNewItemIfNotExists);
+        ApplyStockMovementsUseCase applyStockMovements = new ApplyStockMovementsUseCase(stock);
         GetStockUseCase getStock = new GetStockUseCase(stock);
 
         OfferStrategyRepository offerStrategies = new InMemoryOfferStrategyRepository();
@@ -49,15 +57,18 @@ public class StockFacadeIntegrationTest {
         AddOfferStrategyUseCase addOfferStrategy = new AddOfferStrategyUseCase(offerStrategies);
         RemoveOfferStrategyUseCase removeOfferStrategy = new RemoveOfferStrategyUseCase(offerStrategies);
         GetActiveOfferStrategiesUseCase getActiveOfferStrategies = new GetActiveOfferStrategiesUseCase(offerStrategies);
-        GetApplicableOffersUseCase getApplicableOffers = new GetApplicableOffersUseCase(stock, offerStrategies);
+        GetApplicableOffersUseCase getApplicableOffers
+                = CachingGetApplicableOffersUseCase.create(stock, offerStrategies);
         GetOffersValueUseCase getOffersValue = new GetOffersValueUseCase(getApplicableOffers);
-        GetStockValueBeforeOffersUseCase getStockValueBeforeOffers = new GetStockValueBeforeOffersUseCase(getStock);
+        GetStockValueBeforeOffersUseCase getStockValueBeforeOffers = new GetStockValueBeforeOffersUseCase(stock);
         GetStockValueAfterOffersUseCase getStockValueAfterOffers
                 = new GetStockValueAfterOffersUseCase(getStockValueBeforeOffers, getOffersValue);
+        GetStockValuationUseCase getStockValuation = new GetStockValuationUseCase(stock, offerStrategies);
 
         StockFacade stockFacade = new StockFacade(addNewItemIfNotExists, findItemByBarcode, fillStock, reduceStock,
-                getStock, findOfferStrategyById, addOfferStrategy, removeOfferStrategy, getActiveOfferStrategies,
-                getApplicableOffers, getOffersValue, getStockValueBeforeOffers, getStockValueAfterOffers);
+                applyStockMovements, getStock, findOfferStrategyById, addOfferStrategy, removeOfferStrategy,
+                getActiveOfferStrategies, getApplicableOffers, getOffersValue, getStockValueBeforeOffers,
+                getStockValueAfterOffers, getStockValuation);
 
         stockManager = new StockManagerPageObject(stockFacade);
     }
@@ -107,6 +118,21 @@ public class StockFacadeIntegrationTest {
                 .isThrownBy(() -> stockManager.decreaseAppleQuantity(30));
     }
 
+    @Test public void applyingMovements_withKnownAndUnknownItems_appliesKnownAndReportsUnknown() {
+        stockManager.createApple();
+        stockManager.increaseAppleQuantity(50);
+        QuantifiedItem expectedQuantifiedApple = QuantifiedItem.create(stockManager.apple(), 40);
+
+        StockMovementsReport report = stockManager.applyMovements(
+                StockMovement.reduce(stockManager.apple().barcode(), 20),
+                StockMovement.fill(stockManager.beans().barcode(), 10),
+                StockMovement.fill(stockManager.apple().barcode(), 10));
+
+        assertThat(report.appliedCount()).isEqualTo(2);
+        assertThat(report.failures()).extracting(StockMovementFailure::line).containsExactly(1);
+        assertThat(stockManager.getStock().asList()).containsOnly(expectedQuantifiedApple);
+    }
+
     @Test public void gettingStock_withoutItems_returnsEmptyStock() {
         Items stock = stockManager.getStock();
 
@@ -253,4 +279,28 @@ public class StockFacadeIntegrationTest {
 
         assertThat(value).isEqualTo(Price.ZERO);
     }
+
+    @Test public void gettingStockValuation_withItemsAndOffers_returnsSameValuesAsSeparateCalls() {
+        stockManager.createAndAddAllItems();
+        stockManager.createAllOffers();
+
+        StockValuation valuation = stockManager.getStockValuation();
+
+        assertThat(valuation.valueBeforeOffers()).isEqualTo(stockManager.getStockValueBeforeOffers());
+        assertThat(valuation.offersValue()).isEqualTo(stockManager.getOffersValue());
+        assertThat(valuation.valueAfterOffers()).isEqualTo(stockManager.getStockValueAfterOffers());
+        assertThat(valuation.offersValueByStrategy()).containsOnlyKeys(
+                stockManager.appleOfferStrategy().id(),
+                stockManager.beansOfferStrategy().id(),
+                stockManager.tenPercentOffEverythingOfferStrategy().id());
+    }
+
+    @Test public void gettingStockValuation_withNoItemsButWithOffers_returnsZeroValues() {
+        stockManager.createAllOffers();
+
+        StockValuation valuation = stockManager.getStockValuation();
+
+        assertThat(valuation.valueBeforeOffers()).isEqualTo(Price.ZERO);
+        assertThat(valuation.valueAfterOffers()).isEqualTo(Price.ZERO);
+    }
 }
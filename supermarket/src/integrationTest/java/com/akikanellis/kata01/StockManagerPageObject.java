@@ -7,6 +7,12 @@ import com.akikanellis.kata01.offer.OfferStrategy;
 import com.akikanellis.kata01.offer.Offers;
 import com.akikanellis.kata01.price.Price;
 import com.akikanellis.kata01.stock.StockFacade;
+import com.akikanellis.kata01.stock.StockMovement;
+import com.akikanellis.kata01.stock.StockMovements;
+import com.akikanellis.kata01.stock.StockMovementsReport;
+import com.akikanellis.kata01.stock.StockValuation;
+
+import java.util.Arrays;
 
 /**
  * A simulation of a Stock Manager user through the usage of the Page Object Pattern.
@@ -83,6 +89,10 @@ public class StockManagerPageObject {
 
     public void increaseCheeseQuantity(int quantity) { stockFacade.fillStock(cheese.barcode(), quantity); }
 
+    public StockMovementsReport applyMovements(StockMovement... movements) {
+        return stockFacade.applyMovements(StockMovements.fromCollection(Arrays.asList(movements)));
+    }
+
     public Items getStock() { return stockFacade.getStock(); }
 
     public void createAllOffers() {
@@ -110,4 +120,6 @@ public class StockManagerPageObject {
     public Price getStockValueBeforeOffers() { return stockFacade.getStockValueBeforeOffers(); }
 
     public Price getStockValueAfterOffers() { return stockFacade.getStockValueAfterOffers(); }
+
+    public StockValuation getStockValuation() { return stockFacade.getStockValuation(); }
 }
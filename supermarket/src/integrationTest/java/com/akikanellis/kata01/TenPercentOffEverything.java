@@ -7,6 +7,7 @@ import com.akikanellis.kata01.offer.OfferStrategy;
 import com.akikanellis.kata01.offer.Offers;
 import com.akikanellis.kata01.offer.QuantifiedOffer;
 import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.price.PriceAccumulator;
 
 /**
  * An example offer strategy used for testing where all of our items are discounted by 10%.
@@ -31,7 +32,6 @@ public class TenPercentOffEverything extends OfferStrategy {
     private Price calculateItemsTotalPrice(Items items) {
         return items.stream()
                 .map(QuantifiedItem::totalPrice)
-                .reduce(Price::add)
-                .orElse(Price.ZERO);
+                .collect(PriceAccumulator.summing());
     }
 }
@@ -0,0 +1,66 @@
+package com.akikanellis.kata01.benchmark_utils;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.Offer;
+import com.akikanellis.kata01.offer.OfferScope;
+import com.akikanellis.kata01.offer.OfferStrategy;
+import com.akikanellis.kata01.offer.Offers;
+import com.akikanellis.kata01.offer.QuantifiedOffer;
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.stock.InMemoryStockRepository;
+
+/**
+ * The items, stock and offer strategies the benchmarks run against.
+ */
+public final class Fixtures {
+    public static final int DEFAULT_QUANTITY = 10;
+
+    private Fixtures() { throw new AssertionError("No instances."); }
+
+    public static Item[] createItems(int count) {
+        Item[] items = new Item[count];
+        for (int i = 0; i < count; i++) {
+            items[i] = Item.builder()
+                    .barcode(i)
+                    .name("Item-" + i)
+                    .price(Price.of(50 + i % 100))
+                    .build();
+        }
+
+        return items;
+    }
+
+    public static InMemoryStockRepository createStock(Item[] items) {
+        InMemoryStockRepository stock = new InMemoryStockRepository();
+        for (Item item : items) {
+            stock.create(item);
+            stock.replaceQuantity(item, DEFAULT_QUANTITY);
+        }
+
+        return stock;
+    }
+
+    /**
+     * Creates a "buy 3, pay 2" offer strategy for the given item, scoped to its barcode.
+     *
+     * @param id   the id of the strategy
+     * @param item the item the strategy is for
+     * @return the offer strategy
+     */
+    public static OfferStrategy createThreeForTwoOfferStrategy(long id, Item item) {
+        return new OfferStrategy(id, "3 for 2 on " + item.name()) {
+            private final OfferScope scope = OfferScope.barcodes(item.barcode());
+
+            @Override public OfferScope scope() { return scope; }
+
+            @Override public Offers calculateOffers(Items items) {
+                int freeItems = items.quantityOf(item.barcode()) / 3;
+                if (freeItems == 0) return Offers.empty();
+
+                Offer offer = Offer.create(description(), item.price().negate());
+                return Offers.fromSingle(QuantifiedOffer.create(offer, freeItems));
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.akikanellis.kata01.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.DEFAULT_QUANTITY;
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createItems;
+
+/**
+ * Packaging the entries of an item to quantity map as {@link com.akikanellis.kata01.item.Items}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemsBenchmark {
+    @Param({"100", "10000"})
+    private int size;
+
+    private Set<Map.Entry<Item, Integer>> entries;
+
+    @Setup public void setUp() {
+        Map<Item, Integer> quantities = new LinkedHashMap<>();
+        for (Item item : createItems(size)) quantities.put(item, DEFAULT_QUANTITY);
+
+        entries = quantities.entrySet();
+    }
+
+    @Benchmark public Items creatingFromEntries() { return Items.fromEntries(entries); }
+}
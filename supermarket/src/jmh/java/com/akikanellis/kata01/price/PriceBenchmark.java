@@ -0,0 +1,53 @@
+package com.akikanellis.kata01.price;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * The arithmetic of whole, compact prices against fractional prices backed by a {@link java.math.BigDecimal}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class PriceBenchmark {
+    private Price wholePrice;
+    private Price fractionalPrice;
+    private long multiplier;
+    private List<Price> prices;
+
+    @Setup public void setUp() {
+        wholePrice = Price.of(80);
+        fractionalPrice = Price.of(new BigDecimal("0.5"));
+        multiplier = 12;
+        prices = LongStream.range(0, 1000)
+                .mapToObj(Price::of)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark public Price addingWholePrices() { return wholePrice.add(wholePrice); }
+
+    @Benchmark public Price addingFractionalPrices() { return fractionalPrice.add(fractionalPrice); }
+
+    @Benchmark public Price multiplyingWholePrice() { return wholePrice.multiplyBy(multiplier); }
+
+    @Benchmark public Price multiplyingFractionalPrice() { return fractionalPrice.multiplyBy(multiplier); }
+
+    @Benchmark public Price summingThousandPrices() { return prices.stream().collect(PriceAccumulator.summing()); }
+}
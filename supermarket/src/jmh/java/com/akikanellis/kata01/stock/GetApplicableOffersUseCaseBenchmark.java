@@ -0,0 +1,64 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.offer.InMemoryOfferStrategyRepository;
+import com.akikanellis.kata01.offer.Offers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createItems;
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createStock;
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createThreeForTwoOfferStrategy;
+
+/**
+ * Finding the applicable offers of a stock with a growing number of offer strategies, each scoped to a single item,
+ * one after the other, in parallel and through the cache of an unchanged stock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetApplicableOffersUseCaseBenchmark {
+    private static final int STOCK_SIZE = 10_000;
+
+    @Param({"10", "100", "1000"})
+    private int strategyCount;
+
+    private GetApplicableOffersUseCase getApplicableOffers;
+    private GetApplicableOffersUseCase getApplicableOffersInParallel;
+    private GetApplicableOffersUseCase getCachedApplicableOffers;
+
+    @Setup public void setUp() {
+        Item[] items = createItems(STOCK_SIZE);
+        StockRepository stock = createStock(items);
+        InMemoryOfferStrategyRepository offerStrategies = new InMemoryOfferStrategyRepository();
+        for (int id = 0; id < strategyCount; id++) {
+            offerStrategies.add(createThreeForTwoOfferStrategy(id, items[id * (STOCK_SIZE / strategyCount)]));
+        }
+
+        getApplicableOffers = new GetApplicableOffersUseCase(stock, offerStrategies);
+        getApplicableOffersInParallel
+                = new GetApplicableOffersUseCase(stock, offerStrategies, ForkJoinPool.commonPool());
+        getCachedApplicableOffers = CachingGetApplicableOffersUseCase.create(stock, offerStrategies);
+    }
+
+    @Benchmark public Offers executing() { return getApplicableOffers.execute(); }
+
+    @Benchmark public Offers executingInParallel() { return getApplicableOffersInParallel.execute(); }
+
+    @Benchmark public Offers executingWithUnchangedStock() { return getCachedApplicableOffers.execute(); }
+}
@@ -0,0 +1,55 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.offer.InMemoryOfferStrategyRepository;
+import com.akikanellis.kata01.price.Price;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createItems;
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createStock;
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createThreeForTwoOfferStrategy;
+
+/**
+ * The value of a growing stock after a fixed number of offer strategies, as {@code StockFacade} calculates it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GetStockValueAfterOffersUseCaseBenchmark {
+    private static final int STRATEGY_COUNT = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    private int skuCount;
+
+    private GetStockValueAfterOffersUseCase getStockValueAfterOffers;
+
+    @Setup public void setUp() {
+        Item[] items = createItems(skuCount);
+        StockRepository stock = createStock(items);
+        InMemoryOfferStrategyRepository offerStrategies = new InMemoryOfferStrategyRepository();
+        for (int id = 0; id < STRATEGY_COUNT; id++) {
+            offerStrategies.add(createThreeForTwoOfferStrategy(id, items[id * (skuCount / STRATEGY_COUNT)]));
+        }
+
+        GetApplicableOffersUseCase getApplicableOffers = new GetApplicableOffersUseCase(stock, offerStrategies);
+        getStockValueAfterOffers = new GetStockValueAfterOffersUseCase(new GetStockValueBeforeOffersUseCase(stock),
+                new GetOffersValueUseCase(getApplicableOffers));
+    }
+
+    @Benchmark public Price executing() { return getStockValueAfterOffers.execute(); }
+}
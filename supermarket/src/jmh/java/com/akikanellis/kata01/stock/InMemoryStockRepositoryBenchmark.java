@@ -0,0 +1,62 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createItems;
+import static com.akikanellis.kata01.benchmark_utils.Fixtures.createStock;
+
+/**
+ * Creating items in, looking them up from and changing their quantities in an
+ * {@link com.akikanellis.kata01.stock.InMemoryStockRepository}. The lookups and changes cycle through every item of a
+ * large stock, so they are not all served from the same cache lines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class InMemoryStockRepositoryBenchmark {
+    private static final int STOCK_SIZE = 100_000;
+    private static final int CREATED_ITEMS = 1000;
+
+    private Item[] items;
+    private Item[] itemsToCreate;
+    private InMemoryStockRepository stock;
+    private int next;
+
+    @Setup public void setUp() {
+        items = createItems(STOCK_SIZE);
+        itemsToCreate = createItems(CREATED_ITEMS);
+        stock = createStock(items);
+        next = 0;
+    }
+
+    private Item nextItem() {
+        next = next + 1 == STOCK_SIZE ? 0 : next + 1;
+        return items[next];
+    }
+
+    @Benchmark public InMemoryStockRepository creatingThousandItems() {
+        InMemoryStockRepository newStock = new InMemoryStockRepository();
+        for (Item item : itemsToCreate) newStock.create(item);
+
+        return newStock;
+    }
+
+    @Benchmark public Item gettingByBarcode() { return stock.getByBarcode(nextItem().barcode()); }
+
+    @Benchmark public void replacingQuantity() { stock.replaceQuantity(nextItem(), next); }
+}
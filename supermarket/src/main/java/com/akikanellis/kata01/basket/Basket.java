@@ -0,0 +1,98 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkArgument;
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
+/**
+ * The lines of a customer's basket at the checkout, each being an {@link com.akikanellis.kata01.item.Item} along with
+ * its quantity. An item scanned more than once has a single line with the sum of its quantities, in the order it was
+ * first scanned.
+ * <p>
+ * A basket is built once with a {@link Basket.Builder} and is immutable afterwards. Its lines are kept as
+ * {@link com.akikanellis.kata01.item.Items}, so offer strategies can be run against them without any copying.
+ */
+public final class Basket {
+    private static final Basket EMPTY = new Basket(Items.empty());
+
+    private final Items items;
+
+    Basket(Items items) { this.items = items; }
+
+    public static Builder builder() { return new Builder(); }
+
+    public static Basket empty() { return EMPTY; }
+
+    public boolean isEmpty() { return items.isEmpty(); }
+
+    public int size() { return items.size(); }
+
+    /**
+     * @return the lines of the basket as {@code Items}
+     */
+    public Items items() { return items; }
+
+    /**
+     * Builds a {@link com.akikanellis.kata01.basket.Basket} one scan at a time.
+     * <p>
+     * Note: This class is not thread-safe and can't be used after building.
+     */
+    public static final class Builder {
+        private final List<QuantifiedItem> lines;
+        private final Map<Long, Integer> lineOfBarcode;
+        private boolean built;
+
+        Builder() {
+            this.lines = new ArrayList<>();
+            this.lineOfBarcode = new HashMap<>();
+            this.built = false;
+        }
+
+        /**
+         * Adds the given quantity of an item to the basket.
+         *
+         * @param item     the item to add
+         * @param quantity the quantity of the item, must be positive
+         * @return this builder
+         */
+        public Builder add(Item item, int quantity) {
+            checkNotBuilt();
+            checkNotNull(item);
+            checkArgument(quantity > 0, "Quantity must be positive. Was [%s]", quantity);
+
+            Integer line = lineOfBarcode.putIfAbsent(item.barcode(), lines.size());
+            if (line == null) {
+                lines.add(QuantifiedItem.create(item, quantity));
+            } else {
+                QuantifiedItem existing = lines.get(line);
+                lines.set(line, QuantifiedItem.create(existing.item(), Math.addExact(existing.quantity(), quantity)));
+            }
+
+            return this;
+        }
+
+        /**
+         * Builds the basket. The builder can't be used afterwards.
+         *
+         * @return the basket
+         */
+        public Basket build() {
+            checkNotBuilt();
+            built = true;
+
+            return lines.isEmpty() ? EMPTY : new Basket(lines.stream().collect(Items.collector()));
+        }
+
+        private void checkNotBuilt() {
+            if (built) throw new IllegalStateException("The basket has already been built");
+        }
+    }
+}
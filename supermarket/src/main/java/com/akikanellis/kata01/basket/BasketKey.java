@@ -0,0 +1,58 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.price.Price;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The canonical form of the lines of a {@link com.akikanellis.kata01.basket.Basket}: its barcodes in ascending order
+ * along with the quantity and price of each, so baskets with the same lines scanned in a different order have equal
+ * keys. The hash is calculated once, when the key is created.
+ */
+final class BasketKey {
+    private final long[] barcodes;
+    private final int[] quantities;
+    private final Price[] prices;
+    private final int hash;
+
+    @SuppressWarnings("PMD.UseVarargs")
+    private BasketKey(long[] barcodes, int[] quantities, Price[] prices) {
+        this.barcodes = barcodes;
+        this.quantities = quantities;
+        this.prices = prices;
+        this.hash = 31 * (31 * Arrays.hashCode(barcodes) + Arrays.hashCode(quantities)) + Arrays.hashCode(prices);
+    }
+
+    static BasketKey of(Basket basket) {
+        QuantifiedItem[] lines = basket.items().asList().toArray(new QuantifiedItem[0]);
+        Arrays.sort(lines, Comparator.comparingLong(line -> line.item().barcode()));
+
+        long[] barcodes = new long[lines.length];
+        int[] quantities = new int[lines.length];
+        Price[] prices = new Price[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            Item item = lines[i].item();
+            barcodes[i] = item.barcode();
+            quantities[i] = lines[i].quantity();
+            prices[i] = item.price();
+        }
+
+        return new BasketKey(barcodes, quantities, prices);
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BasketKey other = (BasketKey) o;
+        return hash == other.hash
+                && Arrays.equals(barcodes, other.barcodes)
+                && Arrays.equals(quantities, other.quantities)
+                && Arrays.equals(prices, other.prices);
+    }
+
+    @Override public int hashCode() { return hash; }
+}
@@ -0,0 +1,55 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.Offers;
+import com.akikanellis.kata01.price.Price;
+import com.google.auto.value.AutoValue;
+
+/**
+ * The price of a {@link com.akikanellis.kata01.basket.Basket} at the checkout: the total of each line, the offers
+ * applied to the basket and the total to pay.
+ */
+@AutoValue
+public abstract class BasketPrice {
+
+    /**
+     * Creates the price of a basket, calculating the total to pay from the subtotal and the offers.
+     *
+     * @param lines       the lines of the basket
+     * @param subtotal    the total of the lines before the offers
+     * @param offers      the offers applied to the basket
+     * @param offersValue the total value of the offers, never positive
+     * @return the price of the basket
+     */
+    public static BasketPrice create(Items lines, Price subtotal, Offers offers, Price offersValue) {
+        return new AutoValue_BasketPrice(lines, subtotal, offers, offersValue, subtotal.add(offersValue));
+    }
+
+    /**
+     * The lines of the basket. The total of each line is its
+     * {@link com.akikanellis.kata01.item.QuantifiedItem#totalPrice()}.
+     *
+     * @return the lines of the basket
+     */
+    public abstract Items lines();
+
+    /**
+     * @return the total of the lines before the offers
+     */
+    public abstract Price subtotal();
+
+    /**
+     * @return the offers applied to the basket, in the order of their strategy ids
+     */
+    public abstract Offers offers();
+
+    /**
+     * @return the total value of the offers, never positive
+     */
+    public abstract Price offersValue();
+
+    /**
+     * @return the total to pay for the basket
+     */
+    public abstract Price total();
+}
@@ -0,0 +1,89 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkArgument;
+
+/**
+ * A {@link com.akikanellis.kata01.basket.PriceBasketUseCase} which keeps the prices of the most recently priced
+ * baskets, so that identical baskets, such as meal deals or single item purchases, are priced by the strategies only
+ * once. Baskets are identical when they have the same items, quantities and prices, whatever order they were scanned
+ * in; the lines of a cached price are in the order of the basket that was priced first.
+ * <p>
+ * The cache holds up to a maximum number of prices and evicts the least recently used one when full. The prices are
+ * only valid for the version of the strategies they were calculated with, so the whole cache is dropped as soon as a
+ * strategy is added or removed, and prices calculated while the strategies change are not cached. The hits and misses
+ * are counted so the cache can be sized.
+ */
+public class CachingPriceBasketUseCase extends PriceBasketUseCase {
+    private final OfferStrategyRepository offerStrategies;
+    private final Map<BasketKey, BasketPrice> prices;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private long version;
+
+    public CachingPriceBasketUseCase(OfferStrategyRepository offerStrategies, int maximumSize) {
+        super(offerStrategies);
+        checkArgument(maximumSize > 0, "Maximum size must be positive. Was [%s]", maximumSize);
+
+        this.offerStrategies = offerStrategies;
+        this.prices = new LinkedHashMap<BasketKey, BasketPrice>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<BasketKey, BasketPrice> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.version = offerStrategies.getVersion();
+    }
+
+    @Override public BasketPrice execute(Basket basket) {
+        if (basket.isEmpty()) return super.execute(basket);
+
+        BasketKey key = BasketKey.of(basket);
+        long currentVersion = offerStrategies.getVersion();
+        synchronized (prices) {
+            if (currentVersion > version) {
+                prices.clear();
+                version = currentVersion;
+            }
+
+            BasketPrice price = currentVersion == version ? prices.get(key) : null;
+            if (price != null) {
+                hits.increment();
+                return price;
+            }
+        }
+
+        misses.increment();
+        BasketPrice price = super.execute(basket);
+        synchronized (prices) {
+            if (version == currentVersion && offerStrategies.getVersion() == currentVersion) prices.put(key, price);
+        }
+
+        return price;
+    }
+
+    /**
+     * @return the number of baskets whose price was found in the cache
+     */
+    public long hitCount() { return hits.sum(); }
+
+    /**
+     * @return the number of baskets which had to be priced by the strategies
+     */
+    public long missCount() { return misses.sum(); }
+
+    /**
+     * @return the number of prices currently cached
+     */
+    public int size() {
+        synchronized (prices) {
+            return prices.size();
+        }
+    }
+}
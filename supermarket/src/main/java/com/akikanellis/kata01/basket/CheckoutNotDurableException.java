@@ -0,0 +1,16 @@
+package com.akikanellis.kata01.basket;
+
+/**
+ * Signals that a basket was checked out and the stock was reduced by it, but the group commit making the change
+ * durable failed, so the checkout may not survive a crash. The basket should not be treated as rejected.
+ */
+public class CheckoutNotDurableException extends RuntimeException {
+    private final BasketPrice price;
+
+    public CheckoutNotDurableException(BasketPrice price, Throwable cause) {
+        super(String.format("The checkout was applied but could not be made durable. Price was [%s]", price), cause);
+        this.price = price;
+    }
+
+    public BasketPrice price() { return price; }
+}
@@ -0,0 +1,252 @@
+package com.akikanellis.kata01.basket;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkArgument;
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
+/**
+ * Checks baskets out through a {@link com.akikanellis.kata01.basket.CheckoutUseCase} from a single dedicated writer
+ * thread. Each basket is priced on the thread submitting it and queued in a bounded queue, and the writer takes
+ * everything queued up to a maximum size and commits it as one group: the baskets are checked out in the order they
+ * were submitted, each one atomically, and the group commit action, such as
+ * {@link com.akikanellis.kata01.stock.JournaledStockRepository#sync()}, runs once for the whole group. The more
+ * checkouts arrive at once, the larger the groups and the less each one costs.
+ * <p>
+ * Every submitted basket gets a future which completes with its price once it has been committed, or exceptionally
+ * with the reason it was rejected. If the group commit action fails after the stock has been reduced, the baskets of
+ * the group are not rejected: their futures complete exceptionally with a
+ * {@link com.akikanellis.kata01.basket.CheckoutNotDurableException} carrying their price, and the stock is not rolled
+ * back. The futures are completed by the writer thread, so slow actions depending on them should run asynchronously.
+ * <p>
+ * When the queue is full the submitting thread waits for room. Closing the pipeline commits everything already queued
+ * before returning. If the writer thread stops early, for example because it was interrupted, every basket still
+ * queued fails with an {@code IllegalStateException} and so does every later submission.
+ */
+public class CheckoutPipeline implements Closeable {
+    private final CheckoutUseCase checkout;
+    private final Runnable groupCommit;
+    private final Queue<PendingCheckout> queue;
+    private final int queueCapacity;
+    private final int maxGroupSize;
+    private final Lock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+    private final Thread writer;
+    private boolean closed;
+
+    private CheckoutPipeline(CheckoutUseCase checkout, int queueCapacity, int maxGroupSize, Runnable groupCommit) {
+        this.checkout = checkout;
+        this.groupCommit = groupCommit;
+        this.queue = new ArrayDeque<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.maxGroupSize = maxGroupSize;
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+        this.writer = new Thread(this::commitGroups, "checkouts");
+        this.writer.setDaemon(true);
+        this.closed = false;
+    }
+
+    /**
+     * Creates and starts a pipeline for a stock which doesn't need to be committed, such as an in-memory one.
+     *
+     * @param checkout      the checkout to commit the baskets through
+     * @param queueCapacity the maximum number of baskets waiting to be committed
+     * @param maxGroupSize  the maximum number of baskets committed together
+     * @return the started pipeline
+     */
+    public static CheckoutPipeline start(CheckoutUseCase checkout, int queueCapacity, int maxGroupSize) {
+        return start(checkout, queueCapacity, maxGroupSize, () -> { });
+    }
+
+    /**
+     * Creates and starts a pipeline which makes every group of checkouts durable with the given action before
+     * completing their futures.
+     *
+     * @param checkout      the checkout to commit the baskets through
+     * @param queueCapacity the maximum number of baskets waiting to be committed
+     * @param maxGroupSize  the maximum number of baskets committed together
+     * @param groupCommit   the action making the changes of a group durable
+     * @return the started pipeline
+     */
+    public static CheckoutPipeline start(CheckoutUseCase checkout, int queueCapacity, int maxGroupSize,
+                                         Runnable groupCommit) {
+        checkNotNull(checkout);
+        checkNotNull(groupCommit);
+        checkArgument(queueCapacity > 0, "Queue capacity must be positive. Was [%s]", queueCapacity);
+        checkArgument(maxGroupSize > 0, "Max group size must be positive. Was [%s]", maxGroupSize);
+
+        CheckoutPipeline pipeline = new CheckoutPipeline(checkout, queueCapacity, maxGroupSize, groupCommit);
+        pipeline.writer.start();
+
+        return pipeline;
+    }
+
+    /**
+     * Prices the given basket and queues it to be checked out.
+     *
+     * @param basket the basket to check out
+     * @return a future of the price of the basket, completing once the basket has been checked out
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public CompletableFuture<BasketPrice> submit(Basket basket) {
+        CompletableFuture<BasketPrice> future = new CompletableFuture<>();
+        PendingCheckout pending;
+        try {
+            pending = new PendingCheckout(basket, checkout.price(basket), future);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        lock.lock();
+        try {
+            while (!closed && queue.size() == queueCapacity) {
+                notFull.await();
+            }
+            if (closed) throw new IllegalStateException("The pipeline is closed");
+
+            queue.add(pending);
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        } finally {
+            lock.unlock();
+        }
+
+        return future;
+    }
+
+    private void commitGroups() {
+        List<PendingCheckout> group = new ArrayList<>(maxGroupSize);
+        try {
+            while (takeGroup(group)) {
+                commit(group);
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stop(group);
+        }
+    }
+
+    private boolean takeGroup(List<PendingCheckout> group) throws InterruptedException {
+        lock.lock();
+        try {
+            while (queue.isEmpty()) {
+                if (closed) return false;
+                notEmpty.await();
+            }
+
+            while (!queue.isEmpty() && group.size() < maxGroupSize) {
+                group.add(queue.poll());
+            }
+            notFull.signalAll();
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void commit(List<PendingCheckout> group) {
+        List<Basket> baskets = new ArrayList<>(group.size());
+        group.forEach(pending -> baskets.add(pending.basket));
+
+        List<RuntimeException> failures;
+        try {
+            failures = checkout.commit(baskets);
+        } catch (RuntimeException e) {
+            group.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        RuntimeException groupCommitFailure = null;
+        if (failures.contains(null)) {
+            try {
+                groupCommit.run();
+            } catch (RuntimeException e) {
+                groupCommitFailure = e;
+            }
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            PendingCheckout pending = group.get(i);
+            RuntimeException failure = failures.get(i);
+            if (failure == null && groupCommitFailure == null) {
+                pending.future.complete(pending.price);
+            } else if (failure == null) {
+                pending.future.completeExceptionally(
+                        new CheckoutNotDurableException(pending.price, groupCommitFailure));
+            } else {
+                pending.future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Marks the pipeline as closed and fails the given and all the queued checkouts, which only exist if the writer
+     * stopped before committing them.
+     *
+     * @param unfinished the checkouts taken by the writer but not yet committed
+     */
+    private void stop(List<PendingCheckout> unfinished) {
+        lock.lock();
+        try {
+            closed = true;
+            unfinished.addAll(queue);
+            queue.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        IllegalStateException failure
+                = new IllegalStateException("The pipeline stopped before the basket was committed");
+        unfinished.forEach(pending -> pending.future.completeExceptionally(failure));
+    }
+
+    /**
+     * Stops accepting baskets and waits until all the queued ones have been committed.
+     */
+    @Override public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PendingCheckout {
+        private final Basket basket;
+        private final BasketPrice price;
+        private final CompletableFuture<BasketPrice> future;
+
+        PendingCheckout(Basket basket, BasketPrice price, CompletableFuture<BasketPrice> future) {
+            this.basket = basket;
+            this.price = price;
+            this.future = future;
+        }
+    }
+}
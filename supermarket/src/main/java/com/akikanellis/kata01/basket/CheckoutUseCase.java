@@ -0,0 +1,77 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.stock.StockMovement;
+import com.akikanellis.kata01.stock.StockMovementFailure;
+import com.akikanellis.kata01.stock.StockMovements;
+import com.akikanellis.kata01.stock.StockMovementsReport;
+import com.akikanellis.kata01.stock.StockRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks a {@link com.akikanellis.kata01.basket.Basket} out: validates that every line is in stock, prices the basket
+ * with the current offer strategies and reduces the stock by every line, all or nothing. A basket with an item that is
+ * not in the stock fails with an {@link com.akikanellis.kata01.item.ItemNotFoundException} and a basket with more of
+ * an item than there is in stock fails with an {@link com.akikanellis.kata01.basket.InsufficientStockException},
+ * leaving the stock unchanged either way.
+ * <p>
+ * The basket is priced first, since pricing doesn't read the stock. Its lines are then validated and reduced through a
+ * single {@link com.akikanellis.kata01.stock.StockRepository#applyMovementsIfAvailable(StockMovements)} call, so the
+ * repository checks and reduces the stock as one step and no other change of the stock can sell it in between.
+ * <p>
+ * Many checkouts can be committed together through a {@link com.akikanellis.kata01.basket.CheckoutPipeline}.
+ */
+public class CheckoutUseCase {
+    private final StockRepository stock;
+    private final PriceBasketUseCase priceBasket;
+
+    public CheckoutUseCase(StockRepository stock, PriceBasketUseCase priceBasket) {
+        this.stock = stock;
+        this.priceBasket = priceBasket;
+    }
+
+    public BasketPrice execute(Basket basket) {
+        BasketPrice price = priceBasket.execute(basket);
+
+        RuntimeException failure = commit(basket);
+        if (failure != null) throw failure;
+
+        return price;
+    }
+
+    BasketPrice price(Basket basket) { return priceBasket.execute(basket); }
+
+    /**
+     * Reduces the stock by the lines of every basket which is available, each basket as a single change of the stock.
+     * The baskets are committed in order, so a basket is only available if there is enough stock left by the baskets
+     * before it.
+     *
+     * @param baskets the baskets to check out
+     * @return the reason each basket was rejected, in the same order as the baskets, or null for every basket that was
+     * checked out
+     */
+    List<RuntimeException> commit(List<Basket> baskets) {
+        List<RuntimeException> failures = new ArrayList<>(baskets.size());
+        baskets.forEach(basket -> failures.add(commit(basket)));
+
+        return failures;
+    }
+
+    private RuntimeException commit(Basket basket) {
+        List<QuantifiedItem> lines = basket.items().asList();
+        List<StockMovement> reductions = new ArrayList<>(lines.size());
+        lines.forEach(line -> reductions.add(StockMovement.reduce(line.item().barcode(), line.quantity())));
+
+        StockMovementsReport report = stock.applyMovementsIfAvailable(StockMovements.fromCollection(reductions));
+        if (!report.hasFailures()) return null;
+
+        StockMovementFailure failure = report.failures().get(0);
+        QuantifiedItem line = lines.get(failure.line());
+        return failure.type() == StockMovementFailure.Type.ITEM_NOT_FOUND
+                ? new ItemNotFoundException(line.item())
+                : new InsufficientStockException(line.item(), line.quantity(), failure.availableQuantity());
+    }
+}
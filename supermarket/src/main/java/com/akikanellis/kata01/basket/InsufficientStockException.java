@@ -0,0 +1,11 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(Item item, int requestedQuantity, int availableQuantity) {
+        super(String.format("There is not enough stock of the item. Item was [%s], requested [%s], available [%s]",
+                item, requestedQuantity, availableQuantity));
+    }
+}
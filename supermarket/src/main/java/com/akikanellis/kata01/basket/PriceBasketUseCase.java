@@ -0,0 +1,60 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.offer.CollectingOfferSink;
+import com.akikanellis.kata01.offer.OfferStrategies;
+import com.akikanellis.kata01.offer.OfferStrategy;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+import com.akikanellis.kata01.offer.Offers;
+import com.akikanellis.kata01.offer.QuantifiedOffer;
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.price.PriceAccumulator;
+
+import java.util.Comparator;
+
+/**
+ * Prices a {@link com.akikanellis.kata01.basket.Basket} at the checkout by running the registered offer strategies
+ * against its lines, the same way the applicable offers of the stock are found. Only the strategies whose scope
+ * contains an item of the basket are evaluated, in the order of their ids.
+ * <p>
+ * The stock is not read at all, so pricing a basket neither waits for nor slows down the changes of the stock.
+ */
+public class PriceBasketUseCase {
+    private final OfferStrategyRepository offerStrategies;
+
+    public PriceBasketUseCase(OfferStrategyRepository offerStrategies) { this.offerStrategies = offerStrategies; }
+
+    public BasketPrice execute(Basket basket) {
+        if (basket.isEmpty()) return price(basket, OfferStrategies.empty());
+
+        return price(basket, offerStrategies.getApplicableTo(basket.items()));
+    }
+
+    /**
+     * Prices the given basket with the given strategies, which must be the ones applicable to it.
+     *
+     * @param basket     the basket to price
+     * @param strategies the strategies applicable to the basket
+     * @return the price of the basket
+     */
+    static BasketPrice price(Basket basket, OfferStrategies strategies) {
+        Items lines = basket.items();
+        if (lines.isEmpty()) return BasketPrice.create(lines, Price.ZERO, Offers.empty(), Price.ZERO);
+
+        CollectingOfferSink sink = new CollectingOfferSink();
+        strategies.stream()
+                .sorted(Comparator.comparingLong(OfferStrategy::id))
+                .forEachOrdered(strategy -> strategy.calculateOffers(lines, sink));
+        Offers offers = sink.offers();
+
+        Price subtotal = lines.stream()
+                .map(QuantifiedItem::totalPrice)
+                .collect(PriceAccumulator.summing());
+        Price offersValue = offers.stream()
+                .map(QuantifiedOffer::totalPrice)
+                .collect(PriceAccumulator.summing());
+
+        return BasketPrice.create(lines, subtotal, offers, offersValue);
+    }
+}
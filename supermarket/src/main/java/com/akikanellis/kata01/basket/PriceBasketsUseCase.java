@@ -0,0 +1,117 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.offer.OfferStrategies;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkArgument;
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
+/**
+ * Prices many {@link com.akikanellis.kata01.basket.Basket} elements in parallel, such as when re-pricing past
+ * transactions or simulating a promotion. All the baskets of an execution are priced against the same strategies,
+ * taken once from the repository when the execution starts, so strategies added or removed in the meantime don't
+ * affect it.
+ * <p>
+ * The baskets are read in chunks which are split in batches and priced on the given
+ * {@link java.util.concurrent.Executor}, such as a {@link java.util.concurrent.ForkJoinPool}. The baskets of a batch
+ * are priced one after the other on the same thread, so nothing is shared between the threads apart from the immutable
+ * strategies. The prices are returned in the same order as the baskets, whatever order the batches finish in. The
+ * strategies must be safe to call from any thread.
+ */
+public class PriceBasketsUseCase {
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int BATCHES_PER_CHUNK = 64;
+
+    private final OfferStrategyRepository offerStrategies;
+    private final Executor executor;
+    private final int batchSize;
+
+    public PriceBasketsUseCase(OfferStrategyRepository offerStrategies, Executor executor) {
+        this(offerStrategies, executor, DEFAULT_BATCH_SIZE);
+    }
+
+    public PriceBasketsUseCase(OfferStrategyRepository offerStrategies, Executor executor, int batchSize) {
+        checkArgument(batchSize > 0, "Batch size must be positive. Was [%s]", batchSize);
+
+        this.offerStrategies = offerStrategies;
+        this.executor = checkNotNull(executor);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Prices the given baskets.
+     *
+     * @param baskets the baskets to price
+     * @return the price of each basket, in the same order as the baskets
+     */
+    public List<BasketPrice> execute(List<Basket> baskets) {
+        List<BasketPrice> prices = new ArrayList<>(baskets.size());
+        execute(baskets.iterator(), prices::add);
+
+        return prices;
+    }
+
+    /**
+     * Prices the baskets of the given iterator, handing each price to the given consumer as soon as the prices of all
+     * the baskets before it have been handed. Only a chunk of baskets is held in memory at any time, so any number of
+     * baskets can be priced. The consumer is always called from the calling thread.
+     *
+     * @param baskets the baskets to price
+     * @param prices  the consumer of the price of each basket, in the same order as the baskets
+     */
+    public void execute(Iterator<Basket> baskets, Consumer<BasketPrice> prices) {
+        OfferStrategies strategies = offerStrategies.getAll();
+        int chunkSize = batchSize * BATCHES_PER_CHUNK;
+        Basket[] chunk = new Basket[chunkSize];
+        BasketPrice[] chunkPrices = new BasketPrice[chunkSize];
+
+        while (baskets.hasNext()) {
+            int size = 0;
+            while (size < chunkSize && baskets.hasNext()) {
+                chunk[size++] = baskets.next();
+            }
+
+            priceChunk(strategies, chunk, chunkPrices, size);
+            for (int i = 0; i < size; i++) {
+                prices.accept(chunkPrices[i]);
+            }
+        }
+    }
+
+    private void priceChunk(OfferStrategies strategies, Basket[] chunk, BasketPrice[] chunkPrices, int size) {
+        CompletableFuture<?>[] batches = new CompletableFuture<?>[(size + batchSize - 1) / batchSize];
+        for (int batch = 0; batch < batches.length; batch++) {
+            int from = batch * batchSize;
+            int to = Math.min(from + batchSize, size);
+            batches[batch] = CompletableFuture.runAsync(
+                    () -> priceBatch(strategies, chunk, chunkPrices, from, to), executor);
+        }
+
+        try {
+            CompletableFuture.allOf(batches).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw e;
+        } finally {
+            Arrays.fill(chunk, 0, size, null);
+        }
+    }
+
+    private static void priceBatch(OfferStrategies strategies, Basket[] chunk, BasketPrice[] chunkPrices,
+                                   int from, int to) {
+        for (int i = from; i < to; i++) {
+            Basket basket = chunk[i];
+            chunkPrices[i] = PriceBasketUseCase.price(basket, strategies.applicableTo(basket.items()));
+        }
+    }
+}
@@ -1,47 +1,119 @@
 package com.akikanellis.kata01.item;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * A representation of a collection of {@link com.akikanellis.kata01.item.Item} along with their quantities.
+ * <p>
+ * The items are immutable and can be shared freely. They are copied only once, when created from a collection the
+ * caller may still change, while {@link #collector()} hands its collected list over without copying it and the
+ * accessors return unmodifiable views.
+ * <p>
+ * Looking up an item by its barcode goes through an index from each barcode to its item, which is built on the first
+ * lookup and reused by every lookup after it. An item appearing more than once is indexed with the sum of its
+ * quantities.
  */
 public final class Items {
+    private static final Items EMPTY = new Items(Collections.emptyList());
+
     private final List<QuantifiedItem> quantifiedItems;
+    private volatile Map<Long, QuantifiedItem> barcodeIndex;
 
-    private Items(Collection<QuantifiedItem> quantifiedItems) {
-        this.quantifiedItems = new ArrayList<>(quantifiedItems);
-    }
+    private Items(List<QuantifiedItem> quantifiedItems) { this.quantifiedItems = quantifiedItems; }
 
     public static Items fromCollection(Collection<QuantifiedItem> quantifiedItems) {
-        return new Items(quantifiedItems);
+        return new Items(new ArrayList<>(quantifiedItems));
     }
 
     public static Items fromEntries(Set<Map.Entry<Item, Integer>> entries) {
-        List<QuantifiedItem> quantifiedItems = entries.stream()
+        return entries.stream()
                 .map(entry -> QuantifiedItem.create(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
+                .collect(collector());
+    }
 
-        return fromCollection(quantifiedItems);
+    /**
+     * Returns a {@code Collector} that packages the elements of a stream as {@code Items}, in encounter order.
+     *
+     * @return a {@code Collector} of {@code Items}
+     */
+    public static Collector<QuantifiedItem, ?, Items> collector() {
+        return Collectors.collectingAndThen(Collectors.toCollection(ArrayList::new), Items::new);
     }
 
-    public static Items empty() { return fromCollection(Collections.emptyList()); }
+    public static Items empty() { return EMPTY; }
 
     public boolean isEmpty() { return quantifiedItems.isEmpty(); }
 
-    public List<QuantifiedItem> asList() { return new ArrayList<>(quantifiedItems); }
+    public int size() { return quantifiedItems.size(); }
 
-    public List<Item> asItemsList() {
-        return quantifiedItems.stream()
-                .map(QuantifiedItem::item)
-                .collect(Collectors.toList());
-    }
+    public List<QuantifiedItem> asList() { return Collections.unmodifiableList(quantifiedItems); }
+
+    public List<Item> asItemsList() { return new ItemsView(quantifiedItems); }
 
     public Stream<QuantifiedItem> stream() { return quantifiedItems.stream(); }
+
+    /**
+     * Finds the item with the given barcode.
+     *
+     * @param barcode the barcode of the item
+     * @return the item along with its total quantity, or an empty {@code Optional} if there is no such item
+     */
+    public Optional<QuantifiedItem> find(long barcode) { return Optional.ofNullable(barcodeIndex().get(barcode)); }
+
+    /**
+     * Returns the total quantity of the item with the given barcode.
+     *
+     * @param barcode the barcode of the item
+     * @return the total quantity of the item, 0 if there is no such item
+     */
+    public int quantityOf(long barcode) {
+        QuantifiedItem quantifiedItem = barcodeIndex().get(barcode);
+
+        return quantifiedItem == null ? 0 : quantifiedItem.quantity();
+    }
+
+    private Map<Long, QuantifiedItem> barcodeIndex() {
+        Map<Long, QuantifiedItem> index = barcodeIndex;
+        if (index != null) return index;
+
+        synchronized (this) {
+            if (barcodeIndex == null) barcodeIndex = buildBarcodeIndex();
+            return barcodeIndex;
+        }
+    }
+
+    private Map<Long, QuantifiedItem> buildBarcodeIndex() {
+        Map<Long, QuantifiedItem> index = new HashMap<>(quantifiedItems.size() * 4 / 3 + 1);
+        for (QuantifiedItem quantifiedItem : quantifiedItems) {
+            index.merge(quantifiedItem.item().barcode(), quantifiedItem, (first, second)
+                    -> QuantifiedItem.create(first.item(), first.quantity() + second.quantity()));
+        }
+
+        return index;
+    }
+
+    /**
+     * An unmodifiable view of the items of a list of {@link com.akikanellis.kata01.item.QuantifiedItem} elements.
+     */
+    private static final class ItemsView extends AbstractList<Item> implements RandomAccess {
+        private final List<QuantifiedItem> quantifiedItems;
+
+        ItemsView(List<QuantifiedItem> quantifiedItems) { this.quantifiedItems = quantifiedItems; }
+
+        @Override public Item get(int index) { return quantifiedItems.get(index).item(); }
+
+        @Override public int size() { return quantifiedItems.size(); }
+    }
 }
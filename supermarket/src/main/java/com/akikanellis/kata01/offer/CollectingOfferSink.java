@@ -0,0 +1,28 @@
+package com.akikanellis.kata01.offer;
+
+import com.akikanellis.kata01.price.Price;
+
+/**
+ * An {@link com.akikanellis.kata01.offer.OfferSink} that collects the offers it accepts as
+ * {@link com.akikanellis.kata01.offer.Offers}, in the order they were accepted.
+ * <p>
+ * Note: This class is not thread-safe.
+ */
+public final class CollectingOfferSink implements OfferSink {
+    private final Offers.Builder offers;
+
+    public CollectingOfferSink() { this.offers = Offers.builder(); }
+
+    @Override public void accept(String description, Price price, int quantity) {
+        offers.add(QuantifiedOffer.create(Offer.create(description, price), quantity));
+    }
+
+    @Override public void accept(QuantifiedOffer quantifiedOffer) { offers.add(quantifiedOffer); }
+
+    /**
+     * Returns the collected offers. The sink can't accept any more offers afterwards.
+     *
+     * @return the collected offers
+     */
+    public Offers offers() { return offers.build(); }
+}
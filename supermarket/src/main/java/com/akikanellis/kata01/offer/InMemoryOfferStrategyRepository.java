@@ -1,29 +1,59 @@
 package com.akikanellis.kata01.offer;
 
-import java.util.HashSet;
-import java.util.Set;
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
 
 /**
- * An in-memory implementation of an {@link com.akikanellis.kata01.offer.OfferStrategyRepository}. All the strategies
- * are unique and there can't be any duplicates.
+ * A thread-safe, in-memory implementation of an {@link com.akikanellis.kata01.offer.OfferStrategyRepository}. All the
+ * strategies are unique and there can't be any duplicates; adding a strategy whose id is already there keeps the
+ * existing strategy.
+ * <p>
+ * The strategies are held in an immutable snapshot which is replaced on every change, copy-on-write. Reads are
+ * lock-free reads of the current snapshot and are never blocked by writers, {@link #getById(long)} is a constant time
+ * lookup by the primitive id and {@link #getAll()} returns the snapshot's strategies without copying them. Writers
+ * are serialized with each other and pay for copying the strategies, which suits strategies changing far less often
+ * than they are read.
+ * <p>
+ * Each snapshot also indexes the strategies by the barcodes of their scope, so {@link #getApplicableTo(Items)} only
+ * checks the strategies of the given barcodes along with the strategies which are not scoped by barcode.
  */
 public class InMemoryOfferStrategyRepository implements OfferStrategyRepository {
-    private final Set<OfferStrategy> offerStrategies;
+    private final Object writeLock;
+    private volatile OfferStrategySnapshot snapshot;
 
-    public InMemoryOfferStrategyRepository() { this.offerStrategies = new HashSet<>(); }
+    public InMemoryOfferStrategyRepository() {
+        this.writeLock = new Object();
+        this.snapshot = OfferStrategySnapshot.EMPTY;
+    }
 
-    @Override public boolean contains(OfferStrategy offerStrategy) { return offerStrategies.contains(offerStrategy); }
+    @Override public boolean contains(OfferStrategy offerStrategy) {
+        return snapshot.get(offerStrategy.id()) != null;
+    }
 
-    @Override public void add(OfferStrategy offerStrategy) { offerStrategies.add(offerStrategy); }
+    @Override public void add(OfferStrategy offerStrategy) {
+        synchronized (writeLock) {
+            snapshot = snapshot.with(offerStrategy);
+        }
+    }
 
-    @Override public void remove(OfferStrategy offerStrategy) { offerStrategies.remove(offerStrategy); }
+    @Override public void remove(OfferStrategy offerStrategy) {
+        synchronized (writeLock) {
+            snapshot = snapshot.without(offerStrategy.id());
+        }
+    }
 
     @Override public OfferStrategy getById(long id) {
-        return offerStrategies.stream()
-                .filter(offerStrategy -> offerStrategy.id() == id)
-                .findFirst()
-                .orElseThrow(() -> new OfferStrategyNotFoundException(id));
+        OfferStrategy offerStrategy = snapshot.get(id);
+        if (offerStrategy == null) throw new OfferStrategyNotFoundException(id);
+
+        return offerStrategy;
     }
 
-    @Override public OfferStrategies getAll() { return OfferStrategies.fromCollection(offerStrategies); }
+    @Override public OfferStrategies getAll() { return snapshot.strategies(); }
+
+    @Override public long getVersion() { return snapshot.version(); }
+
+    @Override public OfferStrategies getApplicableTo(Items items) { return snapshot.strategies().applicableTo(items); }
+
+    @Override public OfferStrategies getApplicableTo(Item item) { return snapshot.strategies().applicableTo(item); }
 }
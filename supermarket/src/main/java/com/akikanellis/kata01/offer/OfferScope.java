@@ -0,0 +1,98 @@
+package com.akikanellis.kata01.offer;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkArgument;
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
+/**
+ * The items an {@link com.akikanellis.kata01.offer.OfferStrategy} concerns. A scope is either all the items, the items
+ * with specific barcodes or the items matching a custom predicate.
+ * <p>
+ * A strategy only needs to be evaluated when its scope contains at least one of the items it is evaluated against.
+ * Barcode scopes are indexed by the {@link com.akikanellis.kata01.offer.OfferStrategyRepository}, so finding the
+ * strategies of a few items doesn't go through every strategy.
+ */
+public final class OfferScope {
+    private static final OfferScope ALL = new OfferScope(null, item -> true);
+
+    private final long[] barcodes;
+    private final Predicate<Item> predicate;
+
+    private OfferScope(long[] barcodes, Predicate<Item> predicate) {
+        this.barcodes = barcodes;
+        this.predicate = predicate;
+    }
+
+    /**
+     * @return the scope containing all the items
+     */
+    public static OfferScope all() { return ALL; }
+
+    /**
+     * Creates a scope containing the items with the given barcodes.
+     *
+     * @param barcodes the barcodes of the items, at least one
+     * @return the scope
+     */
+    public static OfferScope barcodes(long... barcodes) {
+        checkArgument(barcodes.length > 0, "A barcode scope needs at least one barcode");
+
+        long[] distinctBarcodes = Arrays.stream(barcodes).distinct().sorted().toArray();
+        return new OfferScope(distinctBarcodes, item -> Arrays.binarySearch(distinctBarcodes, item.barcode()) >= 0);
+    }
+
+    /**
+     * Creates a scope containing the items matching the given predicate.
+     *
+     * @param predicate the predicate the items must match
+     * @return the scope
+     */
+    public static OfferScope matching(Predicate<Item> predicate) {
+        return new OfferScope(null, checkNotNull(predicate));
+    }
+
+    /**
+     * @return true if this scope contains all the items
+     */
+    public boolean isAll() { return this == ALL; }
+
+    /**
+     * @return true if this scope contains the items of specific barcodes
+     */
+    public boolean isBarcodes() { return barcodes != null; }
+
+    /**
+     * Returns the barcodes of a barcode scope.
+     *
+     * @return the distinct barcodes in ascending order, empty if this is not a barcode scope
+     */
+    public long[] barcodes() { return barcodes == null ? new long[0] : barcodes.clone(); }
+
+    /**
+     * Returns if the scope contains the given item.
+     *
+     * @param item the item to check
+     * @return true if the scope contains the item, false if not
+     */
+    public boolean contains(Item item) { return predicate.test(item); }
+
+    /**
+     * Returns if the scope contains at least one of the given items. Barcode scopes look their barcodes up in the
+     * items instead of going through all of them.
+     *
+     * @param items the items to check
+     * @return true if the scope contains any of the items, false if not or if there are no items
+     */
+    public boolean containsAnyOf(Items items) {
+        if (items.isEmpty()) return false;
+        if (isAll()) return true;
+        if (isBarcodes()) return Arrays.stream(barcodes).anyMatch(barcode -> items.find(barcode).isPresent());
+
+        return items.stream().anyMatch(quantifiedItem -> predicate.test(quantifiedItem.item()));
+    }
+}
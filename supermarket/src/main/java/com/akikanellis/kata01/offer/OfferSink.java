@@ -0,0 +1,34 @@
+package com.akikanellis.kata01.offer;
+
+import com.akikanellis.kata01.price.Price;
+
+/**
+ * Receives the offers calculated by an {@link com.akikanellis.kata01.offer.OfferStrategy}, one at a time. The offer is
+ * passed as its parts, so a sink which only needs some of them does not have to allocate an
+ * {@link com.akikanellis.kata01.offer.Offer} for every offer.
+ * <p>
+ * For example {@link com.akikanellis.kata01.offer.TotalOfferSink} adds up the total price of the offers while
+ * {@link com.akikanellis.kata01.offer.CollectingOfferSink} collects them as
+ * {@link com.akikanellis.kata01.offer.Offers}.
+ */
+@FunctionalInterface
+public interface OfferSink {
+
+    /**
+     * Accepts an offer along with its quantity.
+     *
+     * @param description the description of the offer
+     * @param price       the price of the offer, which must be non-positive
+     * @param quantity    the quantity of the offer
+     */
+    void accept(String description, Price price, int quantity);
+
+    /**
+     * Accepts an already created offer along with its quantity.
+     *
+     * @param quantifiedOffer the offer to accept
+     */
+    default void accept(QuantifiedOffer quantifiedOffer) {
+        accept(quantifiedOffer.offer().description(), quantifiedOffer.offer().price(), quantifiedOffer.quantity());
+    }
+}
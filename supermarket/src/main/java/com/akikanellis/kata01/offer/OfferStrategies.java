@@ -1,28 +1,130 @@
 package com.akikanellis.kata01.offer;
 
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
 /**
  * A representation of a collection of {@link com.akikanellis.kata01.offer.OfferStrategies}.
+ * <p>
+ * The strategies are immutable and can be shared freely. They are copied only once, when created from a collection the
+ * caller may still change, while {@link #asSet()} returns an unmodifiable view.
+ * <p>
+ * Finding the strategies applicable to some items goes through an index from each barcode to the strategies with a
+ * barcode {@link com.akikanellis.kata01.offer.OfferScope} containing it, which is built on the first lookup and reused
+ * by every lookup after it. Only the strategies of those barcodes are then checked, along with the strategies which
+ * are not scoped by barcode.
  */
 public final class OfferStrategies {
+    private static final OfferStrategies EMPTY = new OfferStrategies(Collections.emptySet());
+
     private final Set<OfferStrategy> strategies;
+    private volatile ScopeIndex scopeIndex;
 
-    private OfferStrategies(Collection<OfferStrategy> strategies) { this.strategies = new HashSet<>(strategies); }
+    private OfferStrategies(Set<OfferStrategy> strategies) { this.strategies = strategies; }
 
     public static OfferStrategies fromCollection(Collection<OfferStrategy> offerStrategies) {
-        return new OfferStrategies(offerStrategies);
+        return new OfferStrategies(new HashSet<>(offerStrategies));
     }
 
-    public static OfferStrategies empty() { return fromCollection(Collections.emptyList()); }
+    public static OfferStrategies empty() { return EMPTY; }
 
     public boolean isEmpty() { return strategies.isEmpty(); }
 
-    public Set<OfferStrategy> asSet() { return new HashSet<>(strategies); }
+    public int size() { return strategies.size(); }
+
+    public Set<OfferStrategy> asSet() { return Collections.unmodifiableSet(strategies); }
 
     public Stream<OfferStrategy> stream() { return strategies.stream(); }
+
+    /**
+     * Returns the strategies whose scope contains at least one of the given items. The barcodes are looked up from
+     * whichever side is smaller, the items or the index.
+     *
+     * @param items the items to find the strategies of
+     * @return the applicable strategies
+     */
+    public OfferStrategies applicableTo(Items items) {
+        if (items.isEmpty() || strategies.isEmpty()) return EMPTY;
+
+        ScopeIndex index = scopeIndex();
+        Set<OfferStrategy> applicable = new LinkedHashSet<>();
+        for (OfferStrategy strategy : index.strategiesNotByBarcode) {
+            if (strategy.scope().containsAnyOf(items)) applicable.add(strategy);
+        }
+        if (items.size() < index.strategiesByBarcode.size()) {
+            items.stream().forEach(quantifiedItem -> applicable.addAll(index.strategiesOf(quantifiedItem.item())));
+        } else {
+            index.strategiesByBarcode.forEach((barcode, barcodeStrategies) -> {
+                if (items.find(barcode).isPresent()) applicable.addAll(barcodeStrategies);
+            });
+        }
+
+        return new OfferStrategies(applicable);
+    }
+
+    /**
+     * Returns the strategies whose scope contains the given item.
+     *
+     * @param item the item to find the strategies of
+     * @return the applicable strategies
+     */
+    public OfferStrategies applicableTo(Item item) {
+        if (strategies.isEmpty()) return EMPTY;
+
+        ScopeIndex index = scopeIndex();
+        Set<OfferStrategy> applicable = new LinkedHashSet<>(index.strategiesOf(item));
+        for (OfferStrategy strategy : index.strategiesNotByBarcode) {
+            if (strategy.scope().contains(item)) applicable.add(strategy);
+        }
+
+        return new OfferStrategies(applicable);
+    }
+
+    private ScopeIndex scopeIndex() {
+        ScopeIndex index = scopeIndex;
+        if (index != null) return index;
+
+        synchronized (this) {
+            if (scopeIndex == null) scopeIndex = new ScopeIndex(strategies);
+            return scopeIndex;
+        }
+    }
+
+    /**
+     * The strategies scoped by barcode, indexed by each of their barcodes, along with the rest of the strategies.
+     */
+    private static final class ScopeIndex {
+        private final Map<Long, List<OfferStrategy>> strategiesByBarcode;
+        private final List<OfferStrategy> strategiesNotByBarcode;
+
+        ScopeIndex(Set<OfferStrategy> strategies) {
+            this.strategiesByBarcode = new HashMap<>();
+            this.strategiesNotByBarcode = new ArrayList<>();
+            for (OfferStrategy strategy : strategies) {
+                OfferScope scope = strategy.scope();
+                if (!scope.isBarcodes()) {
+                    strategiesNotByBarcode.add(strategy);
+                    continue;
+                }
+                for (long barcode : scope.barcodes()) {
+                    strategiesByBarcode.computeIfAbsent(barcode, key -> new ArrayList<>()).add(strategy);
+                }
+            }
+        }
+
+        private List<OfferStrategy> strategiesOf(Item item) {
+            return strategiesByBarcode.getOrDefault(item.barcode(), Collections.emptyList());
+        }
+    }
 }
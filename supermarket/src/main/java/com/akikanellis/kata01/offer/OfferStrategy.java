@@ -5,6 +5,13 @@ import com.akikanellis.kata01.item.Items;
 /**
  * A strategy that determines how the offers are calculated. Each {@code OfferStrategy} is uniquely identified by its
  * id.
+ * <p>
+ * Callers that don't need the materialized offers, such as when only their total is needed, push them into an
+ * {@link com.akikanellis.kata01.offer.OfferSink} through {@link #calculateOffers(Items, OfferSink)}. By default it
+ * adapts {@link #calculateOffers(Items)}, while strategies can override it to push their offers without creating them.
+ * <p>
+ * Strategies which only concern some of the items declare it through their {@link #scope()}, so that they are only
+ * evaluated when at least one of those items is present.
  */
 public abstract class OfferStrategy {
     private final long id;
@@ -25,6 +32,15 @@ public abstract class OfferStrategy {
      */
     public final String description() { return description; }
 
+    /**
+     * The items this strategy concerns. A strategy is only evaluated against items which contain at least one item of
+     * its scope, so its offers must not depend on any item outside of it. The scope must not change once the strategy
+     * has been created.
+     *
+     * @return the scope of the {@code OfferStrategy}, all the items by default
+     */
+    public OfferScope scope() { return OfferScope.all(); }
+
     /**
      * Calculates the applicable offers on the items according to the provided algorithm.
      *
@@ -32,6 +48,15 @@ public abstract class OfferStrategy {
      */
     public abstract Offers calculateOffers(Items items);
 
+    /**
+     * Calculates the applicable offers on the items according to the provided algorithm and pushes them into the given
+     * sink, in the same order as {@link #calculateOffers(Items)} returns them.
+     *
+     * @param items the items to calculate the offers on
+     * @param sink  the sink to push the calculated offers into
+     */
+    public void calculateOffers(Items items, OfferSink sink) { calculateOffers(items).stream().forEach(sink::accept); }
+
     @Override public final boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof OfferStrategy)) return false;
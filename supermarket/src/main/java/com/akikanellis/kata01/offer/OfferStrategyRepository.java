@@ -1,5 +1,8 @@
 package com.akikanellis.kata01.offer;
 
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+
 /**
  * A repository holding {@link com.akikanellis.kata01.offer.OfferStrategy} elements.
  */
@@ -43,4 +46,30 @@ public interface OfferStrategyRepository {
      * representation
      */
     OfferStrategies getAll();
+
+    /**
+     * Returns the version of the offer strategies currently contained. The version changes every time a strategy is
+     * added or removed, so anything calculated from the strategies can be kept for as long as the version stays the
+     * same.
+     *
+     * @return the current version of the offer strategies
+     */
+    long getVersion();
+
+    /**
+     * Returns the offer strategies whose {@link com.akikanellis.kata01.offer.OfferScope} contains at least one of the
+     * given items. The other strategies can't have any offers for the items and don't need to be evaluated.
+     *
+     * @param items the items to find the strategies of
+     * @return the applicable offer strategies. If there are no items then this returns an empty representation
+     */
+    OfferStrategies getApplicableTo(Items items);
+
+    /**
+     * Returns the offer strategies whose {@link com.akikanellis.kata01.offer.OfferScope} contains the given item.
+     *
+     * @param item the item to find the strategies of
+     * @return the applicable offer strategies
+     */
+    OfferStrategies getApplicableTo(Item item);
 }
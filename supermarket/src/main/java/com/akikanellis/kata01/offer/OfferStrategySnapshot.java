@@ -0,0 +1,109 @@
+package com.akikanellis.kata01.offer;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the strategies of an {@link com.akikanellis.kata01.offer.InMemoryOfferStrategyRepository}.
+ * The strategies are kept in an open-addressing hash table keyed by their primitive id, so that looking one up neither
+ * boxes the id nor scans the strategies, along with the {@link com.akikanellis.kata01.offer.OfferStrategies} handed
+ * out by {@link #strategies()}.
+ * <p>
+ * Since the {@code OfferStrategies} of a snapshot are shared by every reader of it, their barcode index for finding the
+ * applicable strategies is built once per snapshot.
+ * <p>
+ * Snapshots are never changed. Adding or removing a strategy builds a new snapshot instead.
+ */
+final class OfferStrategySnapshot {
+    static final OfferStrategySnapshot EMPTY = new OfferStrategySnapshot(new LinkedHashMap<>(), 0);
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private final long[] ids;
+    private final OfferStrategy[] slots;
+    private final OfferStrategies strategies;
+    private final long version;
+
+    private OfferStrategySnapshot(Map<Long, OfferStrategy> strategiesById, long version) {
+        int capacity = 16;
+        while (capacity < strategiesById.size() * 2) {
+            capacity <<= 1;
+        }
+
+        this.ids = new long[capacity];
+        this.slots = new OfferStrategy[capacity];
+        for (OfferStrategy strategy : strategiesById.values()) {
+            int slot = slotFor(strategy.id());
+            while (slots[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            ids[slot] = strategy.id();
+            slots[slot] = strategy;
+        }
+        this.strategies = OfferStrategies.fromCollection(strategiesById.values());
+        this.version = version;
+    }
+
+    private int slotFor(long id) {
+        long hash = id * GOLDEN_RATIO;
+        return (int) (hash ^ (hash >>> 32)) & (ids.length - 1);
+    }
+
+    /**
+     * Returns the strategy with the given id.
+     *
+     * @param id the id of the strategy
+     * @return the strategy or null if there is no such strategy
+     */
+    OfferStrategy get(long id) {
+        for (int slot = slotFor(id); slots[slot] != null; slot = (slot + 1) & (ids.length - 1)) {
+            if (ids[slot] == id) return slots[slot];
+        }
+
+        return null;
+    }
+
+    OfferStrategies strategies() { return strategies; }
+
+    /**
+     * @return the version of the snapshot, one more than the version of the snapshot it was built from
+     */
+    long version() { return version; }
+
+    /**
+     * Builds a new snapshot with the given strategy added, keeping any strategy already there with the same id.
+     *
+     * @param strategy the strategy to add
+     * @return the new snapshot, or this one if there already was a strategy with the same id
+     */
+    OfferStrategySnapshot with(OfferStrategy strategy) {
+        if (get(strategy.id()) != null) return this;
+
+        Map<Long, OfferStrategy> strategiesById = toMap(strategies.asSet());
+        strategiesById.put(strategy.id(), strategy);
+
+        return new OfferStrategySnapshot(strategiesById, version + 1);
+    }
+
+    /**
+     * Builds a new snapshot without the strategy with the given id.
+     *
+     * @param id the id of the strategy to remove
+     * @return the new snapshot, or this one if there was no such strategy
+     */
+    OfferStrategySnapshot without(long id) {
+        if (get(id) == null) return this;
+
+        Map<Long, OfferStrategy> strategiesById = toMap(strategies.asSet());
+        strategiesById.remove(id);
+
+        return new OfferStrategySnapshot(strategiesById, version + 1);
+    }
+
+    private static Map<Long, OfferStrategy> toMap(Collection<OfferStrategy> strategies) {
+        Map<Long, OfferStrategy> strategiesById = new LinkedHashMap<>();
+        strategies.forEach(strategy -> strategiesById.put(strategy.id(), strategy));
+
+        return strategiesById;
+    }
+}
@@ -1,42 +1,158 @@
 package com.akikanellis.kata01.offer;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.RandomAccess;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 
 /**
  * A representation of a collection of {@link com.akikanellis.kata01.offer.Offer} along with their quantities.
+ * <p>
+ * The offers are immutable and can be shared freely. They are copied only once, when created from a collection the
+ * caller may still change, while {@link #asList()} returns an unmodifiable view and {@link #join(Offers)} concatenates
+ * both sides without copying either of them.
  */
 public final class Offers {
+    private static final Offers EMPTY = new Offers(Collections.emptyList());
+
     private final List<QuantifiedOffer> quantifiedOffers;
 
-    private Offers(Collection<QuantifiedOffer> quantifiedOffers) {
-        this.quantifiedOffers = new ArrayList<>(quantifiedOffers);
-    }
+    Offers(List<QuantifiedOffer> quantifiedOffers) { this.quantifiedOffers = quantifiedOffers; }
 
     public static Offers fromCollection(Collection<QuantifiedOffer> quantifiedOffers) {
-        return new Offers(quantifiedOffers);
+        return new Offers(new ArrayList<>(quantifiedOffers));
     }
 
-    public static Offers empty() { return fromCollection(Collections.emptyList()); }
+    public static Offers empty() { return EMPTY; }
 
     public static Offers fromSingle(QuantifiedOffer quantifiedOffer) {
-        return fromCollection(Collections.singletonList(quantifiedOffer));
+        return new Offers(Collections.singletonList(quantifiedOffer));
+    }
+
+    public static Builder builder() { return new Builder(); }
+
+    /**
+     * Returns a {@code Collector} that packages the elements of a stream as {@code Offers}, in encounter order.
+     *
+     * @return a {@code Collector} of {@code Offers}
+     */
+    public static Collector<QuantifiedOffer, Builder, Offers> collector() {
+        return Collector.of(Offers::builder, Builder::add, (first, second) -> first.addAll(second.quantifiedOffers),
+                Builder::build);
     }
 
     public boolean isEmpty() { return quantifiedOffers.isEmpty(); }
 
-    public List<QuantifiedOffer> asList() { return new ArrayList<>(quantifiedOffers); }
+    public List<QuantifiedOffer> asList() { return Collections.unmodifiableList(quantifiedOffers); }
 
     public Stream<QuantifiedOffer> stream() { return quantifiedOffers.stream(); }
 
+    /**
+     * Joins all the given offers into one, keeping their order. Unlike reducing them with {@link #join(Offers)}, the
+     * joined offers are a single flat list, copied once.
+     *
+     * @param offers the offers to join
+     * @return the joined offers
+     */
+    public static Offers joinAll(List<Offers> offers) {
+        Builder builder = builder();
+        offers.forEach(builder::addAll);
+
+        return builder.build();
+    }
+
+    /**
+     * Joins these offers with the given ones, without copying either of them.
+     *
+     * @param other the offers to append to these ones
+     * @return the joined offers
+     */
     public Offers join(Offers other) {
-        List<QuantifiedOffer> joined = Stream.concat(stream(), other.stream())
-                .collect(Collectors.toList());
+        if (other.isEmpty()) return this;
+        if (isEmpty()) return other;
+
+        return new Offers(JoinedList.of(quantifiedOffers, other.quantifiedOffers));
+    }
+
+    /**
+     * Builds {@code Offers} by appending to them in amortized constant time. The appended offers are frozen once, when
+     * {@link #build()} hands them over without copying, after which the builder can't be used again.
+     */
+    public static final class Builder {
+        private List<QuantifiedOffer> quantifiedOffers;
+
+        Builder() { this.quantifiedOffers = new ArrayList<>(); }
+
+        public Builder add(QuantifiedOffer quantifiedOffer) {
+            checkNotBuilt();
+            quantifiedOffers.add(quantifiedOffer);
+
+            return this;
+        }
+
+        public Builder addAll(Offers offers) { return addAll(offers.quantifiedOffers); }
+
+        private Builder addAll(List<QuantifiedOffer> offers) {
+            checkNotBuilt();
+            quantifiedOffers.addAll(offers);
+
+            return this;
+        }
+
+        public Offers build() {
+            checkNotBuilt();
+            List<QuantifiedOffer> built = quantifiedOffers;
+            quantifiedOffers = null;
+
+            return built.isEmpty() ? EMPTY : new Offers(built);
+        }
+
+        private void checkNotBuilt() {
+            if (quantifiedOffers == null) throw new IllegalStateException("The offers have already been built");
+        }
+    }
+
+    /**
+     * An unmodifiable concatenation of two lists. Joining joined lists over and over nests them, so once the nesting
+     * gets deeper than {@link #MAX_DEPTH} the concatenation is flattened into a copy to keep the element access cheap.
+     */
+    private static final class JoinedList<E> extends AbstractList<E> implements RandomAccess {
+        private static final int MAX_DEPTH = 16;
+
+        private final List<E> first;
+        private final List<E> second;
+        private final int size;
+        private final int depth;
+
+        private JoinedList(List<E> first, List<E> second, int depth) {
+            this.first = first;
+            this.second = second;
+            this.size = first.size() + second.size();
+            this.depth = depth;
+        }
+
+        static <E> List<E> of(List<E> first, List<E> second) {
+            int depth = Math.max(depthOf(first), depthOf(second)) + 1;
+            if (depth <= MAX_DEPTH) return new JoinedList<>(first, second, depth);
+
+            List<E> flattened = new ArrayList<>(first.size() + second.size());
+            flattened.addAll(first);
+            flattened.addAll(second);
+            return flattened;
+        }
+
+        private static int depthOf(List<?> list) {
+            return list instanceof JoinedList ? ((JoinedList<?>) list).depth : 0;
+        }
+
+        @Override public E get(int index) {
+            return index < first.size() ? first.get(index) : second.get(index - first.size());
+        }
 
-        return fromCollection(joined);
+        @Override public int size() { return size; }
     }
 }
@@ -0,0 +1,29 @@
+package com.akikanellis.kata01.offer;
+
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.price.PriceAccumulator;
+
+/**
+ * An {@link com.akikanellis.kata01.offer.OfferSink} that only adds up the total price of the offers it accepts. Whole
+ * prices are added up without allocating anything.
+ * <p>
+ * Note: This class is not thread-safe.
+ */
+public final class TotalOfferSink implements OfferSink {
+    private final PriceAccumulator total;
+
+    public TotalOfferSink() { this.total = new PriceAccumulator(); }
+
+    @Override public void accept(String description, Price price, int quantity) {
+        if (price.isPositive()) {
+            throw new IllegalArgumentException(String.format("Offer price can't be positive. Was [%s]", price));
+        }
+
+        total.addMultiple(price, quantity);
+    }
+
+    /**
+     * @return the total price of the offers accepted so far
+     */
+    public Price total() { return total.total(); }
+}
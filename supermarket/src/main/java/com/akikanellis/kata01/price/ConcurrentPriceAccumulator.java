@@ -0,0 +1,57 @@
+package com.akikanellis.kata01.price;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe running total of {@link com.akikanellis.kata01.price.Price} elements. Whole pence amounts are summed
+ * in a {@link java.util.concurrent.atomic.LongAdder}, so concurrent callers adding whole prices don't contend with each
+ * other. Only the amounts with a fractional part or too many digits are summed under a lock as a
+ * {@link java.math.BigDecimal}.
+ * <p>
+ * Note: The whole pence part of the total must fit in a {@code long}. The total is exact once all the callers adding
+ * to it have returned.
+ */
+public final class ConcurrentPriceAccumulator {
+    private final LongAdder pence;
+    private final PriceAccumulator remainder;
+
+    public ConcurrentPriceAccumulator() {
+        this.pence = new LongAdder();
+        this.remainder = new PriceAccumulator();
+    }
+
+    /**
+     * Adds the given {@code Price} multiplied by the given multiplier to the running total. The multiplier can be
+     * negative, which subtracts from the running total.
+     *
+     * @param price      the {@code Price} to add
+     * @param multiplier the times to add the {@code Price}
+     */
+    public void addMultiple(Price price, long multiplier) {
+        if (PriceAccumulator.isCompactProduct(price, multiplier)) {
+            pence.add(price.pence() * multiplier);
+        } else {
+            synchronized (remainder) {
+                remainder.addMultiple(price, multiplier);
+            }
+        }
+    }
+
+    /**
+     * Builds the {@code Price} of everything added so far.
+     *
+     * @return the running total as a {@code Price}
+     */
+    public Price total() {
+        Price remainderTotal;
+        synchronized (remainder) {
+            remainderTotal = remainder.total();
+        }
+
+        long penceTotal = pence.sum();
+        if (remainderTotal.isZero()) return Price.of(penceTotal);
+
+        return Price.of(remainderTotal.asBigDecimal().add(BigDecimal.valueOf(penceTotal)));
+    }
+}
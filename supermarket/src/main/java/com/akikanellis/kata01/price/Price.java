@@ -12,15 +12,32 @@ import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
  * <p>
  * For example the {@code Price{amount=200}} represents a price of 200 pence.
  * <p>
+ * Whole pence amounts are held in a primitive {@code long} and the arithmetic on them is done without any allocation
+ * besides the resulting {@code Price}. A {@link java.math.BigDecimal} is only used when the amount has a fractional
+ * part or has more than 18 digits. Every amount has exactly one of the two representations, so the representation is
+ * never observable through {@link #equals(Object)}, {@link #hashCode()} or {@link #asBigDecimal()}.
+ * <p>
  * Note: There is no rounding taking place. All the rounding is the responsibility of the client.
  */
 public final class Price {
+    private static final int MAX_COMPACT_DIGITS = 18;
+    static final long MAX_COMPACT = 999_999_999_999_999_999L;
+
     public static final Price ZERO = Price.of(BigDecimal.ZERO);
     public static final Price ONE = Price.of(BigDecimal.ONE);
 
+    private final long pence;
     private final BigDecimal amount;
 
-    private Price(BigDecimal amount) { this.amount = checkNotNull(amount).stripTrailingZeros(); }
+    private Price(long pence) {
+        this.pence = pence;
+        this.amount = null;
+    }
+
+    private Price(BigDecimal amount) {
+        this.pence = 0;
+        this.amount = amount;
+    }
 
     /**
      * Translates a {@code long} amount into a {@code Price}.
@@ -29,8 +46,9 @@ public final class Price {
      * @return a {@code Price} whose amount is {@code amount}.
      */
     public static Price of(long amount) {
-        BigDecimal bigDecimalAmount = BigDecimal.valueOf(amount);
-        return of(bigDecimalAmount);
+        if (isCompact(amount)) return new Price(amount);
+
+        return new Price(BigDecimal.valueOf(amount).stripTrailingZeros());
     }
 
     /**
@@ -39,7 +57,16 @@ public final class Price {
      * @param amount amount of the {@code Price}
      * @return a {@code Price} whose amount is {@code amount}
      */
-    public static Price of(BigDecimal amount) { return new Price(amount); }
+    public static Price of(BigDecimal amount) {
+        BigDecimal stripped = checkNotNull(amount).stripTrailingZeros();
+        if (stripped.signum() == 0) return new Price(0);
+
+        boolean isWholeAndSmall = stripped.scale() <= 0
+                && stripped.precision() - stripped.scale() <= MAX_COMPACT_DIGITS;
+        if (isWholeAndSmall) return new Price(stripped.longValueExact());
+
+        return new Price(stripped);
+    }
 
     /**
      * Translates a {@code double} amount into a {@code Price}.
@@ -49,29 +76,37 @@ public final class Price {
      */
     public static Price of(double amount) {
         BigDecimal bigDecimalAmount = BigDecimal.valueOf(amount);
-        return new Price(bigDecimalAmount);
+        return of(bigDecimalAmount);
     }
 
+    static boolean isCompact(long amount) { return amount >= -MAX_COMPACT && amount <= MAX_COMPACT; }
+
+    boolean isCompact() { return amount == null; }
+
+    long pence() { return pence; }
+
     /**
      * Returns if a {@code Price} is positive.
      *
      * @return true if positive, false if not
      */
-    public boolean isPositive() { return amount.compareTo(BigDecimal.ZERO) == 1; }
+    public boolean isPositive() { return signum() == 1; }
 
     /**
      * Returns if a {@code Price} is negative.
      *
      * @return true if negative, false if not
      */
-    public boolean isNegative() { return amount.compareTo(BigDecimal.ZERO) == -1; }
+    public boolean isNegative() { return signum() == -1; }
 
     /**
      * Returns if a {@code Price} is zero.
      *
      * @return true if zero, false if not
      */
-    public boolean isZero() { return amount.compareTo(BigDecimal.ZERO) == 0; }
+    public boolean isZero() { return signum() == 0; }
+
+    private int signum() { return isCompact() ? Long.signum(pence) : amount.signum(); }
 
     /**
      * Returns a {@code Price} whose value is {@code (-this)}.
@@ -79,8 +114,9 @@ public final class Price {
      * @return {@code -this}
      */
     public Price negate() {
-        BigDecimal newAmount = amount.negate();
-        return new Price(newAmount);
+        if (isCompact()) return new Price(-pence);
+
+        return new Price(amount.negate());
     }
 
     /**
@@ -90,8 +126,9 @@ public final class Price {
      * @return {@code this + other}
      */
     public Price add(Price other) {
-        BigDecimal newAmount = amount.add(other.amount);
-        return new Price(newAmount);
+        if (isCompact() && other.isCompact()) return of(pence + other.pence);
+
+        return of(asBigDecimal().add(other.asBigDecimal()));
     }
 
     /**
@@ -101,8 +138,9 @@ public final class Price {
      * @return {@code this - other}
      */
     public Price subtract(Price other) {
-        BigDecimal newAmount = amount.subtract(other.amount);
-        return new Price(newAmount);
+        if (isCompact() && other.isCompact()) return of(pence - other.pence);
+
+        return of(asBigDecimal().subtract(other.asBigDecimal()));
     }
 
     /**
@@ -114,8 +152,12 @@ public final class Price {
     public Price multiplyBy(long multiplier) {
         checkNotNegative(multiplier);
 
-        BigDecimal newAmount = amount.multiply(BigDecimal.valueOf(multiplier));
-        return new Price(newAmount);
+        if (isCompact()) {
+            if (pence == 0 || multiplier == 0) return ZERO;
+            if (Math.abs(pence) <= MAX_COMPACT / multiplier) return new Price(pence * multiplier);
+        }
+
+        return of(asBigDecimal().multiply(BigDecimal.valueOf(multiplier)));
     }
 
     /**
@@ -127,8 +169,8 @@ public final class Price {
     public Price multiplyBy(double multiplier) {
         checkNotNegative(multiplier);
 
-        BigDecimal newAmount = amount.multiply(BigDecimal.valueOf(multiplier));
-        return new Price(newAmount);
+        BigDecimal newAmount = asBigDecimal().multiply(BigDecimal.valueOf(multiplier));
+        return of(newAmount);
     }
 
     /**
@@ -136,18 +178,51 @@ public final class Price {
      *
      * @return this {@code Price} converted to a {@code BigDecimal}.
      */
-    public BigDecimal asBigDecimal() { return amount; }
+    public BigDecimal asBigDecimal() {
+        if (isCompact()) return BigDecimal.valueOf(pence).stripTrailingZeros();
+
+        return amount;
+    }
 
     @Override public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
         Price other = (Price) o;
-        return Objects.equals(amount, other.amount);
+        return pence == other.pence && Objects.equals(amount, other.amount);
     }
 
-    @Override public int hashCode() { return Objects.hashCode(amount); }
+    /**
+     * Returns the hash code of the amount as a {@code BigDecimal} stripped of its trailing zeros, whatever its
+     * representation, without allocating. Since every amount has exactly one representation, equal amounts always hash
+     * the same.
+     *
+     * @return the hash code of the amount
+     */
+    @Override public int hashCode() { return strippedHashCode(pence) + Objects.hashCode(amount); }
+
+    /**
+     * Calculates the hash code of {@code BigDecimal.valueOf(pence).stripTrailingZeros()} without creating it, the same
+     * way {@link java.math.BigDecimal#hashCode()} does for an unscaled value which fits in a {@code long}.
+     *
+     * @param pence the whole pence amount
+     * @return the hash code of the amount
+     */
+    private static int strippedHashCode(long pence) {
+        if (pence == 0) return 0;
+
+        long unscaledValue = pence;
+        int scale = 0;
+        while (unscaledValue % 10 == 0) {
+            unscaledValue /= 10;
+            scale--;
+        }
+
+        long magnitude = Math.abs(unscaledValue);
+        int magnitudeHash = (int) (magnitude >>> 32) * 31 + (int) magnitude;
+        return 31 * (unscaledValue < 0 ? -magnitudeHash : magnitudeHash) + scale;
+    }
 
-    @Override public String toString() { return "Price{amount=" + amount + '}'; }
+    @Override public String toString() { return "Price{amount=" + asBigDecimal() + '}'; }
 
 }
@@ -0,0 +1,113 @@
+package com.akikanellis.kata01.price;
+
+import java.math.BigDecimal;
+import java.util.stream.Collector;
+
+/**
+ * A mutable running total of {@link com.akikanellis.kata01.price.Price} elements. Whole pence amounts are summed in a
+ * primitive {@code long} and only the amounts that do not fit in it are summed as a {@link java.math.BigDecimal}, so
+ * summing any number of whole prices allocates nothing until the final {@code Price} is built.
+ * <p>
+ * For example {@code items.stream().map(QuantifiedItem::totalPrice).collect(PriceAccumulator.summing())}.
+ * <p>
+ * Note: This class is not thread-safe. Parallel streams get one accumulator per thread through
+ * {@link #summing()}.
+ */
+public final class PriceAccumulator {
+    private long pence;
+    private BigDecimal remainder;
+
+    public PriceAccumulator() {
+        this.pence = 0;
+        this.remainder = null;
+    }
+
+    /**
+     * Returns a {@code Collector} that sums the prices of a stream into a single {@code Price}. An empty stream sums to
+     * {@link com.akikanellis.kata01.price.Price#ZERO}.
+     *
+     * @return a summing {@code Collector}
+     */
+    public static Collector<Price, PriceAccumulator, Price> summing() {
+        return Collector.of(PriceAccumulator::new, PriceAccumulator::add, PriceAccumulator::combine,
+                PriceAccumulator::total);
+    }
+
+    /**
+     * Adds the given {@code Price} to the running total.
+     *
+     * @param price the {@code Price} to add
+     * @return this accumulator
+     */
+    public PriceAccumulator add(Price price) {
+        if (price.isCompact()) {
+            addPence(price.pence());
+        } else {
+            addRemainder(price.asBigDecimal());
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds the given {@code Price} multiplied by the given multiplier to the running total. Unlike
+     * {@link com.akikanellis.kata01.price.Price#multiplyBy(long)} the multiplier can be negative, which subtracts from
+     * the running total.
+     *
+     * @param price      the {@code Price} to add
+     * @param multiplier the times to add the {@code Price}
+     * @return this accumulator
+     */
+    public PriceAccumulator addMultiple(Price price, long multiplier) {
+        if (isCompactProduct(price, multiplier)) {
+            addPence(price.pence() * multiplier);
+        } else {
+            addRemainder(price.asBigDecimal().multiply(BigDecimal.valueOf(multiplier)));
+        }
+
+        return this;
+    }
+
+    static boolean isCompactProduct(Price price, long multiplier) {
+        if (!price.isCompact()) return false;
+        if (price.pence() == 0 || multiplier == 0) return true;
+
+        return multiplier != Long.MIN_VALUE && Math.abs(price.pence()) <= Price.MAX_COMPACT / Math.abs(multiplier);
+    }
+
+    /**
+     * Adds the running total of another accumulator to this one.
+     *
+     * @param other the accumulator to add
+     * @return this accumulator
+     */
+    public PriceAccumulator combine(PriceAccumulator other) {
+        addPence(other.pence);
+        if (other.remainder != null) addRemainder(other.remainder);
+
+        return this;
+    }
+
+    private void addPence(long amount) {
+        long sum = pence + amount;
+        if (Price.isCompact(sum)) {
+            pence = sum;
+        } else {
+            pence = 0;
+            addRemainder(BigDecimal.valueOf(sum));
+        }
+    }
+
+    private void addRemainder(BigDecimal amount) { remainder = remainder == null ? amount : remainder.add(amount); }
+
+    /**
+     * Builds the {@code Price} of everything added so far.
+     *
+     * @return the running total as a {@code Price}
+     */
+    public Price total() {
+        if (remainder == null) return pence == 0 ? Price.ZERO : Price.of(pence);
+
+        return Price.of(remainder.add(BigDecimal.valueOf(pence)));
+    }
+}
@@ -1,6 +1,7 @@
 package com.akikanellis.kata01.stock;
 
 import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
 
 /**
  * Adds a new item to the stock repository only if it does not already exist.
@@ -12,7 +13,15 @@ public class AddNewItemIfNotExistsUseCase {
 
     public void execute(Item item) {
         if (!stock.contains(item)) {
+            createIgnoringConcurrentCreation(item);
+        }
+    }
+
+    private void createIgnoringConcurrentCreation(Item item) {
+        try {
             stock.create(item);
+        } catch (ItemAlreadyExistsException e) {
+            // Another caller created the item after our check, which is exactly what we wanted
         }
     }
 }
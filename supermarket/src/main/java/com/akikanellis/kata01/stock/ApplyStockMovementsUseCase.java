@@ -0,0 +1,16 @@
+package com.akikanellis.kata01.stock;
+
+/**
+ * Applies a whole batch of stock movements in a single pass over the stock repository.
+ */
+public class ApplyStockMovementsUseCase {
+    private final StockRepository stock;
+
+    public ApplyStockMovementsUseCase(StockRepository stock) { this.stock = stock; }
+
+    public StockMovementsReport execute(StockMovements movements) {
+        if (movements.isEmpty()) return StockMovementsReport.empty();
+
+        return stock.applyMovements(movements);
+    }
+}
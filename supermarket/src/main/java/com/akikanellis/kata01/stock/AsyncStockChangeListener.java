@@ -0,0 +1,131 @@
+package com.akikanellis.kata01.stock;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkArgument;
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
+/**
+ * A {@link com.akikanellis.kata01.stock.StockChangeListener} that hands the changes over to another listener on a
+ * dedicated thread. The changes wait in a bounded queue and are delivered in batches of everything queued up to a
+ * maximum size, so a slow listener gets fewer, larger calls instead of slowing down the changes to the stock.
+ * <p>
+ * When the queue is full the thread making a change waits for room, so memory stays bounded no matter how far the
+ * listener falls behind. Exceptions thrown by the listener are passed to the thread's uncaught exception handler and
+ * delivery carries on with the next batch. Closing the listener delivers everything already queued before returning.
+ * <p>
+ * Changes are never thrown back at the thread making them. The changes made after closing, or not yet queued when the
+ * thread making them is interrupted, are dropped instead and counted in {@link #droppedCount()}.
+ */
+public final class AsyncStockChangeListener implements StockChangeListener, Closeable {
+    private static final long POLL_MILLIS = 50;
+
+    private final StockChangeListener delegate;
+    private final BlockingQueue<StockChange> queue;
+    private final int maxBatchSize;
+    private final Thread worker;
+    private final AtomicLong dropped;
+    private volatile boolean closed;
+
+    private AsyncStockChangeListener(StockChangeListener delegate, int queueCapacity, int maxBatchSize) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.worker = new Thread(this::deliver, "stock-changes");
+        this.worker.setDaemon(true);
+        this.dropped = new AtomicLong();
+        this.closed = false;
+    }
+
+    /**
+     * Creates and starts a listener delivering to the given one.
+     *
+     * @param delegate      the listener to deliver the changes to
+     * @param queueCapacity the maximum number of changes waiting to be delivered
+     * @param maxBatchSize  the maximum number of changes delivered in one call
+     * @return the started listener
+     */
+    public static AsyncStockChangeListener start(StockChangeListener delegate, int queueCapacity, int maxBatchSize) {
+        checkNotNull(delegate);
+        checkArgument(queueCapacity > 0, "Queue capacity must be positive. Was [%s]", queueCapacity);
+        checkArgument(maxBatchSize > 0, "Max batch size must be positive. Was [%s]", maxBatchSize);
+
+        AsyncStockChangeListener listener = new AsyncStockChangeListener(delegate, queueCapacity, maxBatchSize);
+        listener.worker.start();
+
+        return listener;
+    }
+
+    @Override public void onChanges(List<StockChange> changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            if (!enqueue(changes.get(i))) {
+                dropped.addAndGet(changes.size() - i);
+                return;
+            }
+        }
+    }
+
+    private boolean enqueue(StockChange change) {
+        try {
+            while (!closed) {
+                if (queue.offer(change, POLL_MILLIS, TimeUnit.MILLISECONDS)) return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the number of changes that were dropped instead of being delivered, either because they were made after
+     * closing or because the thread making them was interrupted while waiting for room in the queue.
+     *
+     * @return the number of dropped changes
+     */
+    public long droppedCount() { return dropped.get(); }
+
+    private void deliver() {
+        List<StockChange> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                StockChange first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                delegate.onChanges(new ArrayList<>(batch));
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Stops accepting changes and waits until all the queued ones have been delivered. A change queued while closing,
+     * after the delivery has finished, is counted as dropped.
+     */
+    @Override public void close() {
+        closed = true;
+
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        List<StockChange> undelivered = new ArrayList<>();
+        queue.drainTo(undelivered);
+        dropped.addAndGet(undelivered.size());
+    }
+}
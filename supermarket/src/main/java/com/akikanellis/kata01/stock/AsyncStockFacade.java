@@ -0,0 +1,143 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.OfferStrategies;
+import com.akikanellis.kata01.offer.OfferStrategy;
+import com.akikanellis.kata01.offer.Offers;
+import com.akikanellis.kata01.price.Price;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
+/**
+ * An asynchronous view of a {@link com.akikanellis.kata01.stock.StockFacade}. Every operation of the facade is run on
+ * the given {@link java.util.concurrent.Executor} and returns a {@link java.util.concurrent.CompletableFuture} of its
+ * result, so the calling thread never blocks on the repositories, even durable or remote ones. Any executor can be
+ * used, such as a {@link java.util.concurrent.ForkJoinPool} or, on newer JDKs, a virtual thread per task executor.
+ * <p>
+ * The operations of the same caller run one after the other, in the order they were called, while the operations of
+ * different callers run concurrently. Each {@code AsyncStockFacade} is one caller; {@link #forCaller()} returns another
+ * caller of the same facade and executor. An operation that fails completes its future exceptionally and doesn't stop
+ * the operations called after it.
+ */
+public class AsyncStockFacade {
+    private final StockFacade stockFacade;
+    private final Executor executor;
+    private final Object submitLock;
+    private CompletableFuture<?> last;
+
+    public AsyncStockFacade(StockFacade stockFacade, Executor executor) {
+        this.stockFacade = checkNotNull(stockFacade);
+        this.executor = checkNotNull(executor);
+        this.submitLock = new Object();
+        this.last = CompletableFuture.runAsync(() -> { }, Runnable::run);
+    }
+
+    /**
+     * Returns a new caller of the same facade on the same executor, whose operations are ordered independently of the
+     * operations of this one.
+     *
+     * @return a new caller
+     */
+    public AsyncStockFacade forCaller() { return new AsyncStockFacade(stockFacade, executor); }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        synchronized (submitLock) {
+            CompletableFuture<T> result = last.handleAsync((previousResult, previousFailure) -> operation.get(),
+                    executor);
+            last = result;
+
+            return result;
+        }
+    }
+
+    private CompletableFuture<Void> run(Runnable operation) {
+        return submit(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * @see StockFacade#addNewItem(Item)
+     */
+    public CompletableFuture<Void> addNewItem(Item item) { return run(() -> stockFacade.addNewItem(item)); }
+
+    /**
+     * @see StockFacade#fillStock(long, int)
+     */
+    public CompletableFuture<Void> fillStock(long barcode, int quantity) {
+        return run(() -> stockFacade.fillStock(barcode, quantity));
+    }
+
+    /**
+     * @see StockFacade#reduceStock(long, int)
+     */
+    public CompletableFuture<Void> reduceStock(long barcode, int quantity) {
+        return run(() -> stockFacade.reduceStock(barcode, quantity));
+    }
+
+    /**
+     * @see StockFacade#applyMovements(StockMovements)
+     */
+    public CompletableFuture<StockMovementsReport> applyMovements(StockMovements movements) {
+        return submit(() -> stockFacade.applyMovements(movements));
+    }
+
+    /**
+     * @see StockFacade#getStock()
+     */
+    public CompletableFuture<Items> getStock() { return submit(stockFacade::getStock); }
+
+    /**
+     * @see StockFacade#addOfferStrategy(OfferStrategy)
+     */
+    public CompletableFuture<Void> addOfferStrategy(OfferStrategy offerStrategy) {
+        return run(() -> stockFacade.addOfferStrategy(offerStrategy));
+    }
+
+    /**
+     * @see StockFacade#removeOfferStrategy(long)
+     */
+    public CompletableFuture<Void> removeOfferStrategy(long id) {
+        return run(() -> stockFacade.removeOfferStrategy(id));
+    }
+
+    /**
+     * @see StockFacade#getActiveOfferStrategies()
+     */
+    public CompletableFuture<OfferStrategies> getActiveOfferStrategies() {
+        return submit(stockFacade::getActiveOfferStrategies);
+    }
+
+    /**
+     * @see StockFacade#getApplicableOffers()
+     */
+    public CompletableFuture<Offers> getApplicableOffers() { return submit(stockFacade::getApplicableOffers); }
+
+    /**
+     * @see StockFacade#getOffersValue()
+     */
+    public CompletableFuture<Price> getOffersValue() { return submit(stockFacade::getOffersValue); }
+
+    /**
+     * @see StockFacade#getStockValueBeforeOffers()
+     */
+    public CompletableFuture<Price> getStockValueBeforeOffers() {
+        return submit(stockFacade::getStockValueBeforeOffers);
+    }
+
+    /**
+     * @see StockFacade#getStockValueAfterOffers()
+     */
+    public CompletableFuture<Price> getStockValueAfterOffers() { return submit(stockFacade::getStockValueAfterOffers); }
+
+    /**
+     * @see StockFacade#getStockValuation()
+     */
+    public CompletableFuture<StockValuation> getStockValuation() { return submit(stockFacade::getStockValuation); }
+}
@@ -0,0 +1,201 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.OfferSink;
+import com.akikanellis.kata01.offer.OfferStrategy;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+import com.akikanellis.kata01.offer.Offers;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link com.akikanellis.kata01.stock.GetApplicableOffersUseCase} which keeps the last offers of every strategy and
+ * only evaluates the strategies again when they might return different offers. That is the case for a strategy which
+ * was just added or replaced, or whose {@link com.akikanellis.kata01.offer.OfferScope} contains an item of the stock
+ * that was created or changed quantity since the offers were cached. The entries of removed strategies are dropped on
+ * the next execution.
+ * <p>
+ * The changes of the stock are received by listening to the stock repository, and the changes of the strategies are
+ * noticed through {@link com.akikanellis.kata01.offer.OfferStrategyRepository#getVersion()}. When neither has changed
+ * since the last execution, its offers are returned again without reading the stock at all. Offers calculated while
+ * the stock changes are returned but not cached.
+ * <p>
+ * The use case listens to the stock repository until it is closed, after which it stops caching.
+ * <p>
+ * Note: The offer strategies must return the same offers for the same items.
+ */
+public final class CachingGetApplicableOffersUseCase extends GetApplicableOffersUseCase implements Closeable {
+    private final Object lock = new Object();
+    private final Map<Long, CachedOffers> cachedOffers = new HashMap<>();
+    private final Set<Item> changedItems = new HashSet<>();
+    private final StockChangeListener listener = this::invalidate;
+    private long version;
+    private List<Offers> lastOffers;
+    private long lastOffersVersion;
+    private long lastStrategiesVersion;
+    private volatile boolean closed;
+
+    private CachingGetApplicableOffersUseCase(StockRepository stock, OfferStrategyRepository offerStrategies) {
+        super(stock, offerStrategies);
+    }
+
+    private CachingGetApplicableOffersUseCase(StockRepository stock, OfferStrategyRepository offerStrategies,
+                                              Executor executor) {
+        super(stock, offerStrategies, executor);
+    }
+
+    /**
+     * Creates a use case evaluating the strategies on the calling thread, which listens to the given stock until it is
+     * closed.
+     *
+     * @param stock           the stock to get the offers of
+     * @param offerStrategies the strategies to evaluate
+     * @return the listening use case
+     */
+    public static CachingGetApplicableOffersUseCase create(StockRepository stock,
+                                                           OfferStrategyRepository offerStrategies) {
+        return listening(new CachingGetApplicableOffersUseCase(stock, offerStrategies));
+    }
+
+    /**
+     * Creates a use case evaluating the strategies in parallel on the given executor, which listens to the given stock
+     * until it is closed.
+     *
+     * @param stock           the stock to get the offers of
+     * @param offerStrategies the strategies to evaluate
+     * @param executor        the executor to evaluate the strategies on
+     * @return the listening use case
+     */
+    public static CachingGetApplicableOffersUseCase create(StockRepository stock,
+                                                           OfferStrategyRepository offerStrategies,
+                                                           Executor executor) {
+        return listening(new CachingGetApplicableOffersUseCase(stock, offerStrategies, executor));
+    }
+
+    private static CachingGetApplicableOffersUseCase listening(CachingGetApplicableOffersUseCase useCase) {
+        useCase.stock().addListener(useCase.listener);
+        return useCase;
+    }
+
+    @Override public void execute(OfferSink sink) {
+        if (closed) {
+            super.execute(sink);
+            return;
+        }
+
+        long strategiesVersion = offerStrategies().getVersion();
+        List<Offers> unchangedOffers = unchangedOffers(strategiesVersion);
+        if (unchangedOffers != null) {
+            unchangedOffers.forEach(offers -> offers.stream().forEach(sink::accept));
+            return;
+        }
+
+        long startingVersion;
+        Map<Long, CachedOffers> cachedSnapshot;
+        synchronized (lock) {
+            evictChangedItems();
+            startingVersion = version;
+            cachedSnapshot = new HashMap<>(cachedOffers);
+        }
+
+        Items items = stock().getAll();
+        List<OfferStrategy> strategies = getApplicableStrategies(items);
+        List<OfferStrategy> missingStrategies = new ArrayList<>();
+        for (OfferStrategy strategy : strategies) {
+            if (!isCached(cachedSnapshot.get(strategy.id()), strategy)) missingStrategies.add(strategy);
+        }
+
+        List<Offers> missingOffers = calculateOffers(missingStrategies, items);
+        for (int i = 0; i < missingStrategies.size(); i++) {
+            OfferStrategy strategy = missingStrategies.get(i);
+            cachedSnapshot.put(strategy.id(), new CachedOffers(strategy, missingOffers.get(i)));
+        }
+
+        Map<Long, CachedOffers> applicableOffers = new HashMap<>();
+        List<Offers> orderedOffers = new ArrayList<>(strategies.size());
+        strategies.forEach(strategy -> {
+            CachedOffers offers = cachedSnapshot.get(strategy.id());
+            offers.offers.stream().forEach(sink::accept);
+            applicableOffers.put(strategy.id(), offers);
+            orderedOffers.add(offers.offers);
+        });
+
+        synchronized (lock) {
+            if (version != startingVersion) return;
+
+            cachedOffers.clear();
+            cachedOffers.putAll(applicableOffers);
+            lastOffers = orderedOffers;
+            lastOffersVersion = startingVersion;
+            lastStrategiesVersion = strategiesVersion;
+        }
+    }
+
+    private List<Offers> unchangedOffers(long strategiesVersion) {
+        synchronized (lock) {
+            boolean isUnchanged = lastOffers != null
+                    && lastOffersVersion == version
+                    && lastStrategiesVersion == strategiesVersion;
+
+            return isUnchanged ? lastOffers : null;
+        }
+    }
+
+    /**
+     * Checks whether the cached offers were calculated by the given strategy. The strategies are compared by identity
+     * since a replaced strategy is equal to the one it replaced, both having the same id.
+     *
+     * @param cached   the cached offers of the strategy's id, if any
+     * @param strategy the current strategy of the id
+     * @return whether the cached offers are of the given strategy
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private static boolean isCached(CachedOffers cached, OfferStrategy strategy) {
+        return cached != null && cached.strategy == strategy;
+    }
+
+    private void invalidate(List<StockChange> changes) {
+        synchronized (lock) {
+            changes.forEach(change -> changedItems.add(change.item()));
+            version++;
+        }
+    }
+
+    private void evictChangedItems() {
+        if (changedItems.isEmpty()) return;
+
+        cachedOffers.values().removeIf(cached -> changedItems.stream().anyMatch(cached.strategy.scope()::contains));
+        changedItems.clear();
+    }
+
+    /**
+     * Stops listening to the stock and drops the cache. Executing afterwards evaluates every applicable strategy.
+     */
+    @Override public void close() {
+        closed = true;
+        stock().removeListener(listener);
+
+        synchronized (lock) {
+            cachedOffers.clear();
+            lastOffers = null;
+        }
+    }
+
+    private static final class CachedOffers {
+        private final OfferStrategy strategy;
+        private final Offers offers;
+
+        CachedOffers(OfferStrategy strategy, Offers offers) {
+            this.strategy = strategy;
+            this.offers = offers;
+        }
+    }
+}
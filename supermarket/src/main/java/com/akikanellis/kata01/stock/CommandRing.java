@@ -0,0 +1,112 @@
+package com.akikanellis.kata01.stock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * The ring buffer of a {@link com.akikanellis.kata01.stock.SingleWriterStockRepository}. Its slots are allocated once,
+ * up front, and reused for every command. Submitting threads claim sequences with a compare-and-set, fill in the slot
+ * of their sequence and then publish it, while a single writer thread takes the published slots in sequence order and
+ * releases them once it is done with them.
+ * <p>
+ * The sequence of a slot is written last by the submitting thread and read first by the writer thread, so publishing
+ * it also publishes the rest of the slot. Once claiming is closed no more sequences are handed out, and the writer
+ * drains the ones already claimed.
+ *
+ * @param <T> the type of the slots
+ */
+final class CommandRing<T> {
+    static final long CLOSED_SEQUENCE = -1;
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong claimed;
+    private volatile long released;
+
+    /**
+     * Creates a ring buffer of the given capacity, allocating all of its slots.
+     *
+     * @param capacity    the number of slots, a power of two
+     * @param slotFactory the factory of the slots
+     */
+    CommandRing(int capacity, Supplier<T> slotFactory) {
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            slots[slot] = slotFactory.get();
+            sequences.set(slot, CLOSED_SEQUENCE);
+        }
+        this.mask = capacity - 1;
+        this.claimed = new AtomicLong();
+        this.released = 0;
+    }
+
+    /**
+     * Claims the next sequence and waits until its slot has been released by the writer.
+     *
+     * @return the claimed sequence or {@link #CLOSED_SEQUENCE} if claiming is closed
+     */
+    long claim() {
+        long sequence = nextSequence();
+        if (sequence == CLOSED_SEQUENCE) return CLOSED_SEQUENCE;
+
+        while (sequence - released >= slots.length) {
+            LockSupport.parkNanos(1);
+        }
+
+        return sequence;
+    }
+
+    private long nextSequence() {
+        while (true) {
+            long sequence = claimed.get();
+            if ((sequence & CLOSED) != 0) return CLOSED_SEQUENCE;
+            if (claimed.compareAndSet(sequence, sequence + 1)) return sequence;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    T slotOf(long sequence) { return (T) slots[(int) (sequence & mask)]; }
+
+    void publish(long sequence) { sequences.set((int) (sequence & mask), sequence); }
+
+    /**
+     * Returns the end of the run of published sequences starting from the given one.
+     *
+     * @param next     the first sequence not yet taken by the writer
+     * @param maxCount the maximum number of sequences to take
+     * @return the sequence after the last published one, equal to {@code next} if none is published
+     */
+    long publishedUntil(long next, int maxCount) {
+        long end = next;
+        while (end - next < maxCount && sequences.get((int) (end & mask)) == end) {
+            end++;
+        }
+
+        return end;
+    }
+
+    void release(long end) { released = end; }
+
+    /**
+     * Returns whether claiming is closed and the writer has taken every sequence claimed before.
+     *
+     * @param next the first sequence not yet taken by the writer
+     * @return whether the ring buffer is closed and drained
+     */
+    boolean isDrained(long next) {
+        long claimedSoFar = claimed.get();
+        return (claimedSoFar & CLOSED) != 0 && next == (claimedSoFar & ~CLOSED);
+    }
+
+    void close() {
+        while (true) {
+            long sequence = claimed.get();
+            if ((sequence & CLOSED) != 0 || claimed.compareAndSet(sequence, sequence | CLOSED)) return;
+        }
+    }
+}
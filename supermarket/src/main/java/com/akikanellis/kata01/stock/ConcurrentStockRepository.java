@@ -0,0 +1,207 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.price.ConcurrentPriceAccumulator;
+import com.akikanellis.kata01.price.Price;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe, in-memory implementation of an {@link com.akikanellis.kata01.stock.StockRepository}. Each item is
+ * mapped by its barcode into a pair of itself and an atomic quantity.
+ * <p>
+ * Quantity adjustments are lock-free compare-and-set loops on the item's own quantity, so callers updating different
+ * items never contend with each other. {@link #getAll()} is weakly consistent; it reflects every item created before it
+ * was called but each quantity is read independently. The same goes for {@link #getTotalValue()}, whose total reflects
+ * every change that has completed before it was called.
+ * <p>
+ * Changes are emitted to the listeners by the thread that made them, after they were made. Two threads changing the
+ * same item may therefore emit their changes in a different order than they were made, but the old and new quantities
+ * of each change are exact.
+ */
+public class ConcurrentStockRepository implements StockRepository {
+    private static final int STARTING_QUANTITY = 0;
+
+    private final ConcurrentMap<Long, StockEntry> stock;
+    private final ConcurrentPriceAccumulator totalValue;
+    private final StockChangeListeners listeners;
+
+    public ConcurrentStockRepository() {
+        this.stock = new ConcurrentHashMap<>();
+        this.totalValue = new ConcurrentPriceAccumulator();
+        this.listeners = new StockChangeListeners();
+    }
+
+    @Override public boolean contains(Item item) { return stock.containsKey(item.barcode()); }
+
+    @Override public void create(Item item) {
+        StockEntry existing = stock.putIfAbsent(item.barcode(), new StockEntry(item, STARTING_QUANTITY));
+        if (existing != null) throw new ItemAlreadyExistsException(item);
+
+        if (!listeners.isEmpty()) listeners.publish(StockChange.created(item));
+    }
+
+    @Override public void replaceQuantity(Item item, int quantity) {
+        StockEntry entry = entryOf(item);
+
+        int oldQuantity = entry.quantity.getAndSet(quantity);
+        entry.quantityChanged(oldQuantity, quantity);
+    }
+
+    @Override public int adjustQuantity(Item item, int delta, boolean floorAtZero) {
+        StockEntry entry = entryOf(item);
+        AtomicInteger quantity = entry.quantity;
+
+        int currentQuantity;
+        int newQuantity;
+        do {
+            currentQuantity = quantity.get();
+            newQuantity = StockQuantities.adjust(currentQuantity, delta, floorAtZero);
+        } while (!quantity.compareAndSet(currentQuantity, newQuantity));
+        entry.quantityChanged(currentQuantity, newQuantity);
+
+        return newQuantity;
+    }
+
+    @Override public StockMovementsReport applyMovements(StockMovements movements) {
+        int appliedCount = 0;
+        List<StockMovementFailure> failures = new ArrayList<>();
+
+        for (Map.Entry<Long, List<Integer>> barcodeLines : movements.linesByBarcode().entrySet()) {
+            List<Integer> lines = barcodeLines.getValue();
+            StockEntry entry = stock.get(barcodeLines.getKey());
+            if (entry == null) {
+                lines.forEach(line -> failures.add(StockMovementFailure.itemNotFound(line, movements.get(line))));
+                continue;
+            }
+
+            int oldQuantity = entry.quantity.getAndUpdate(currentQuantity -> movements.applyTo(currentQuantity, lines));
+            entry.quantityChanged(oldQuantity, movements.applyTo(oldQuantity, lines));
+            appliedCount += lines.size();
+        }
+
+        return StockMovementsReport.create(appliedCount, failures);
+    }
+
+    /**
+     * Checks the movements against the current quantities and then moves the items one after the other, each with a
+     * compare-and-set loop which only applies its lines if they are still available. If another change took the stock
+     * of an item in between, the items already moved are put back and that item's line is reported instead. The batch
+     * is therefore never applied in part, although a concurrent reader may see the quantities of a batch which is then
+     * put back. The total value and the listeners only see the batch once all of it has been applied.
+     *
+     * @param movements the movements to apply
+     * @return the report of the movements
+     */
+    @Override public StockMovementsReport applyMovementsIfAvailable(StockMovements movements) {
+        List<StockMovementFailure> failures = movements.unavailableLines(this::findQuantity);
+        if (!failures.isEmpty()) return StockMovementsReport.create(0, failures);
+
+        Map<Long, List<Integer>> linesByBarcode = movements.linesByBarcode();
+        List<StockEntry> entries = new ArrayList<>(linesByBarcode.size());
+        int[] oldQuantities = new int[linesByBarcode.size()];
+        int[] newQuantities = new int[linesByBarcode.size()];
+        for (Map.Entry<Long, List<Integer>> barcodeLines : linesByBarcode.entrySet()) {
+            StockEntry entry = stock.get(barcodeLines.getKey());
+            List<Integer> lines = barcodeLines.getValue();
+
+            int oldQuantity = entry.quantity.getAndUpdate(currentQuantity
+                    -> movements.firstUnavailable(currentQuantity, lines) == null
+                    ? movements.applyTo(currentQuantity, lines)
+                    : currentQuantity);
+            StockMovementFailure failure = movements.firstUnavailable(oldQuantity, lines);
+            if (failure != null) {
+                for (int i = 0; i < entries.size(); i++) {
+                    entries.get(i).quantity.addAndGet(oldQuantities[i] - newQuantities[i]);
+                }
+                return StockMovementsReport.create(0, Collections.singletonList(failure));
+            }
+
+            oldQuantities[entries.size()] = oldQuantity;
+            newQuantities[entries.size()] = movements.applyTo(oldQuantity, lines);
+            entries.add(entry);
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).quantityChanged(oldQuantities[i], newQuantities[i]);
+        }
+        return StockMovementsReport.create(movements.size(), Collections.emptyList());
+    }
+
+    @Override public int getQuantity(Item item) { return entryOf(item).quantity.get(); }
+
+    private StockEntry entryOf(Item item) {
+        StockEntry entry = stock.get(item.barcode());
+        if (entry == null) throw new ItemNotFoundException(item);
+
+        return entry;
+    }
+
+    @Override public Item getByBarcode(long barcode) {
+        StockEntry entry = stock.get(barcode);
+        if (entry == null) throw new ItemNotFoundException(barcode);
+
+        return entry.item;
+    }
+
+    /**
+     * Looks the quantity of an item up by its barcode without failing when it is not in the stock.
+     *
+     * @param barcode the barcode of the item
+     * @return the quantity of the item or null if there is no such item
+     */
+    Integer findQuantity(long barcode) {
+        StockEntry entry = stock.get(barcode);
+        return entry == null ? null : entry.quantity.get();
+    }
+
+    /**
+     * Looks an item up by its barcode without failing when it is not in the stock.
+     *
+     * @param barcode the barcode of the item
+     * @return the item or null if there is no such item
+     */
+    Item findByBarcode(long barcode) {
+        StockEntry entry = stock.get(barcode);
+        return entry == null ? null : entry.item;
+    }
+
+    @Override public Items getAll() {
+        return stock.values().stream()
+                .map(entry -> QuantifiedItem.create(entry.item, entry.quantity.get()))
+                .collect(Items.collector());
+    }
+
+    @Override public Price getTotalValue() { return totalValue.total(); }
+
+    @Override public void addListener(StockChangeListener listener) { listeners.add(listener); }
+
+    @Override public void removeListener(StockChangeListener listener) { listeners.remove(listener); }
+
+    private final class StockEntry {
+        private final Item item;
+        private final AtomicInteger quantity;
+
+        StockEntry(Item item, int quantity) {
+            this.item = item;
+            this.quantity = new AtomicInteger(quantity);
+        }
+
+        private void quantityChanged(int oldQuantity, int newQuantity) {
+            if (oldQuantity == newQuantity) return;
+
+            totalValue.addMultiple(item.price(), (long) newQuantity - oldQuantity);
+            if (!listeners.isEmpty()) listeners.publish(StockChange.quantityChanged(item, oldQuantity, newQuantity));
+        }
+    }
+}
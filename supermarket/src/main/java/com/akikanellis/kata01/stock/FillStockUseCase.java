@@ -21,12 +21,6 @@ public class FillStockUseCase {
 
         addNewItemIfNotExists.execute(item);
 
-        int newQuantity = calculateNewQuantity(item, quantity);
-        stock.replaceQuantity(item, newQuantity);
-    }
-
-    private int calculateNewQuantity(Item item, int quantity) {
-        int currentQuantity = stock.getQuantity(item);
-        return currentQuantity + quantity;
+        stock.adjustQuantity(item, quantity, false);
     }
 }
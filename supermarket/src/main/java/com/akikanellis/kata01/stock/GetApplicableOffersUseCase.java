@@ -1,29 +1,105 @@
 package com.akikanellis.kata01.stock;
 
 import com.akikanellis.kata01.item.Items;
-import com.akikanellis.kata01.offer.OfferStrategies;
+import com.akikanellis.kata01.offer.CollectingOfferSink;
+import com.akikanellis.kata01.offer.OfferSink;
+import com.akikanellis.kata01.offer.OfferStrategy;
 import com.akikanellis.kata01.offer.OfferStrategyRepository;
 import com.akikanellis.kata01.offer.Offers;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
 /**
- * Returns all the offers that can be applied to the current items.
+ * Returns all the offers that can be applied to the current items. Only the strategies whose scope contains at least
+ * one of the current items are evaluated.
+ * <p>
+ * The strategies are evaluated in the order of their ids and their offers are joined in that order, so the same stock
+ * and strategies always return the same offers. When an {@link java.util.concurrent.Executor} is given, such as a
+ * {@link java.util.concurrent.ForkJoinPool}, the strategies are evaluated on it in parallel instead of one after the
+ * other on the calling thread. The strategies must then be safe to call from any thread.
  */
 public class GetApplicableOffersUseCase {
     private final StockRepository stock;
     private final OfferStrategyRepository offerStrategies;
+    private final Executor executor;
 
     public GetApplicableOffersUseCase(StockRepository stock, OfferStrategyRepository offerStrategies) {
         this.stock = stock;
         this.offerStrategies = offerStrategies;
+        this.executor = null;
+    }
+
+    public GetApplicableOffersUseCase(StockRepository stock, OfferStrategyRepository offerStrategies,
+                                      Executor executor) {
+        this.stock = stock;
+        this.offerStrategies = offerStrategies;
+        this.executor = checkNotNull(executor);
     }
 
     public Offers execute() {
-        OfferStrategies strategies = offerStrategies.getAll();
+        CollectingOfferSink sink = new CollectingOfferSink();
+        execute(sink);
+
+        return sink.offers();
+    }
+
+    /**
+     * Pushes all the offers that can be applied to the current items into the given sink, in the same order as
+     * {@link #execute()} returns them. When evaluating in parallel the offers of each strategy are collected first and
+     * pushed into the sink from the calling thread, so the sink never needs to be thread-safe.
+     *
+     * @param sink the sink to push the offers into
+     */
+    public void execute(OfferSink sink) {
         Items items = stock.getAll();
+        List<OfferStrategy> strategies = getApplicableStrategies(items);
+
+        if (executor == null || strategies.size() < 2) {
+            strategies.forEach(strategy -> strategy.calculateOffers(items, sink));
+        } else {
+            calculateInParallel(strategies, items).forEach(offers -> offers.stream().forEach(sink::accept));
+        }
+    }
+
+    StockRepository stock() { return stock; }
+
+    OfferStrategyRepository offerStrategies() { return offerStrategies; }
+
+    List<OfferStrategy> getApplicableStrategies(Items items) {
+        return offerStrategies.getApplicableTo(items).stream()
+                .sorted(Comparator.comparingLong(OfferStrategy::id))
+                .collect(Collectors.toList());
+    }
+
+    List<Offers> calculateOffers(List<OfferStrategy> strategies, Items items) {
+        if (executor == null || strategies.size() < 2) {
+            return strategies.stream()
+                    .map(strategy -> strategy.calculateOffers(items))
+                    .collect(Collectors.toList());
+        }
+
+        return calculateInParallel(strategies, items);
+    }
+
+    private List<Offers> calculateInParallel(List<OfferStrategy> strategies, Items items) {
+        List<CompletableFuture<Offers>> futures = strategies.stream()
+                .map(strategy -> CompletableFuture.supplyAsync(() -> strategy.calculateOffers(items), executor))
+                .collect(Collectors.toList());
 
-        return strategies.stream()
-                .map(strategy -> strategy.calculateOffers(items))
-                .reduce(Offers::join)
-                .orElse(Offers.empty());
+        try {
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
     }
 }
@@ -1,7 +1,6 @@
 package com.akikanellis.kata01.stock;
 
-import com.akikanellis.kata01.offer.Offers;
-import com.akikanellis.kata01.offer.QuantifiedOffer;
+import com.akikanellis.kata01.offer.TotalOfferSink;
 import com.akikanellis.kata01.price.Price;
 
 /**
@@ -13,11 +12,9 @@ public class GetOffersValueUseCase {
     public GetOffersValueUseCase(GetApplicableOffersUseCase getOffers) { this.getOffers = getOffers; }
 
     public Price execute() {
-        Offers offers = getOffers.execute();
+        TotalOfferSink sink = new TotalOfferSink();
+        getOffers.execute(sink);
 
-        return offers.stream()
-                .map(QuantifiedOffer::totalPrice)
-                .reduce(Price::add)
-                .orElse(Price.ZERO);
+        return sink.total();
     }
 }
@@ -0,0 +1,56 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.offer.OfferStrategy;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+import com.akikanellis.kata01.offer.TotalOfferSink;
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.price.PriceAccumulator;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Returns the value of the stock before and after the offers along with the value of each strategy's offers. Unlike
+ * combining the separate use cases, the stock is read once so all the values come from the same state of it, the items
+ * are summed in a single pass and the offers are only added up instead of being materialized. Strategies whose scope
+ * contains none of the items are not evaluated.
+ */
+public class GetStockValuationUseCase {
+    private final StockRepository stock;
+    private final OfferStrategyRepository offerStrategies;
+
+    public GetStockValuationUseCase(StockRepository stock, OfferStrategyRepository offerStrategies) {
+        this.stock = stock;
+        this.offerStrategies = offerStrategies;
+    }
+
+    public StockValuation execute() {
+        List<OfferStrategy> strategies = offerStrategies.getAll().stream()
+                .sorted(Comparator.comparingLong(OfferStrategy::id))
+                .collect(Collectors.toList());
+        Items items = stock.getAll();
+
+        Price valueBeforeOffers = items.stream()
+                .map(QuantifiedItem::totalPrice)
+                .collect(PriceAccumulator.summing());
+
+        Map<Long, Price> offersValueByStrategy = new LinkedHashMap<>();
+        for (OfferStrategy strategy : strategies) {
+            if (!strategy.scope().containsAnyOf(items)) {
+                offersValueByStrategy.put(strategy.id(), Price.ZERO);
+                continue;
+            }
+
+            TotalOfferSink sink = new TotalOfferSink();
+            strategy.calculateOffers(items, sink);
+            offersValueByStrategy.put(strategy.id(), sink.total());
+        }
+
+        return StockValuation.create(valueBeforeOffers, offersValueByStrategy);
+    }
+}
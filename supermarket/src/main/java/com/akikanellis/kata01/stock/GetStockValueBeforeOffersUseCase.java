@@ -1,23 +1,14 @@
 package com.akikanellis.kata01.stock;
 
-import com.akikanellis.kata01.item.Items;
-import com.akikanellis.kata01.item.QuantifiedItem;
 import com.akikanellis.kata01.price.Price;
 
 /**
  * Returns the stock value in its "pure" form, before removing the offers value.
  */
 public class GetStockValueBeforeOffersUseCase {
-    private final GetStockUseCase getStock;
+    private final StockRepository stock;
 
-    public GetStockValueBeforeOffersUseCase(GetStockUseCase getStock) { this.getStock = getStock; }
+    public GetStockValueBeforeOffersUseCase(StockRepository stock) { this.stock = stock; }
 
-    public Price execute() {
-        Items items = getStock.execute();
-
-        return items.stream()
-                .map(QuantifiedItem::totalPrice)
-                .reduce(Price::add)
-                .orElse(Price.ZERO);
-    }
+    public Price execute() { return stock.getTotalValue(); }
 }
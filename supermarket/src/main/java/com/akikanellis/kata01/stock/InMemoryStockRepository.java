@@ -4,49 +4,116 @@ import com.akikanellis.kata01.item.Item;
 import com.akikanellis.kata01.item.ItemAlreadyExistsException;
 import com.akikanellis.kata01.item.ItemNotFoundException;
 import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.price.PriceAccumulator;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
- * An in-memory implementation of an {@link com.akikanellis.kata01.stock.StockRepository}. Each item is mapped into a
- * pair of itself and the current quantity.
+ * An in-memory implementation of an {@link com.akikanellis.kata01.stock.StockRepository}. Each item is mapped by its
+ * barcode into a pair of itself and the current quantity, which makes every lookup by item or by barcode O(1). The
+ * total value of the stock is kept up to date with every quantity change.
  */
 public class InMemoryStockRepository implements StockRepository {
     private static final int STARTING_QUANTITY = 0;
 
-    private final Map<Item, Integer> stock;
+    private final StockTable stock;
+    private final PriceAccumulator totalValue;
+    private final StockChangeListeners listeners;
 
-    public InMemoryStockRepository() { this.stock = new HashMap<>(); }
+    public InMemoryStockRepository() {
+        this.stock = new StockTable();
+        this.totalValue = new PriceAccumulator();
+        this.listeners = new StockChangeListeners();
+    }
 
-    @Override public boolean contains(Item item) { return stock.containsKey(item); }
+    @Override public boolean contains(Item item) { return stock.indexOf(item.barcode()) != StockTable.NOT_FOUND; }
 
     @Override public void create(Item item) {
         if (contains(item)) throw new ItemAlreadyExistsException(item);
 
-        stock.put(item, STARTING_QUANTITY);
+        stock.insert(item, STARTING_QUANTITY);
+        if (!listeners.isEmpty()) listeners.publish(StockChange.created(item));
     }
 
     @Override public void replaceQuantity(Item item, int quantity) {
-        checkContainsItem(item);
+        int slot = slotOf(item);
+
+        replaceQuantityAt(slot, quantity);
+    }
 
-        stock.put(item, quantity);
+    @Override public int adjustQuantity(Item item, int delta, boolean floorAtZero) {
+        int slot = slotOf(item);
+
+        int newQuantity = StockQuantities.adjust(stock.quantityAt(slot), delta, floorAtZero);
+        replaceQuantityAt(slot, newQuantity);
+
+        return newQuantity;
+    }
+
+    @Override public StockMovementsReport applyMovements(StockMovements movements) {
+        int appliedCount = 0;
+        List<StockMovementFailure> failures = new ArrayList<>();
+
+        for (Map.Entry<Long, List<Integer>> barcodeLines : movements.linesByBarcode().entrySet()) {
+            List<Integer> lines = barcodeLines.getValue();
+            int slot = stock.indexOf(barcodeLines.getKey());
+            if (slot == StockTable.NOT_FOUND) {
+                lines.forEach(line -> failures.add(StockMovementFailure.itemNotFound(line, movements.get(line))));
+                continue;
+            }
+
+            replaceQuantityAt(slot, movements.applyTo(stock.quantityAt(slot), lines));
+            appliedCount += lines.size();
+        }
+
+        return StockMovementsReport.create(appliedCount, failures);
+    }
+
+    @Override public StockMovementsReport applyMovementsIfAvailable(StockMovements movements) {
+        return movements.applyIfAvailable(barcode -> {
+            int slot = stock.indexOf(barcode);
+            return slot == StockTable.NOT_FOUND ? null : stock.quantityAt(slot);
+        }, this::applyMovements);
+    }
+
+    private void replaceQuantityAt(int slot, int quantity) {
+        Item item = stock.itemAt(slot);
+        int oldQuantity = stock.quantityAt(slot);
+        if (quantity == oldQuantity) return;
+
+        totalValue.addMultiple(item.price(), (long) quantity - oldQuantity);
+        stock.replaceQuantityAt(slot, quantity);
+        if (!listeners.isEmpty()) listeners.publish(StockChange.quantityChanged(item, oldQuantity, quantity));
     }
 
     @Override public int getQuantity(Item item) {
-        checkContainsItem(item);
+        int slot = slotOf(item);
 
-        return stock.get(item);
+        return stock.quantityAt(slot);
     }
 
-    private void checkContainsItem(Item item) { if (!contains(item)) throw new ItemNotFoundException(item); }
+    private int slotOf(Item item) {
+        int slot = stock.indexOf(item.barcode());
+        if (slot == StockTable.NOT_FOUND) throw new ItemNotFoundException(item);
+
+        return slot;
+    }
 
     @Override public Item getByBarcode(long barcode) {
-        return stock.keySet().stream()
-                .filter(item -> item.barcode() == barcode)
-                .findFirst()
-                .orElseThrow(() -> new ItemNotFoundException(barcode));
+        int slot = stock.indexOf(barcode);
+        if (slot == StockTable.NOT_FOUND) throw new ItemNotFoundException(barcode);
+
+        return stock.itemAt(slot);
     }
 
-    @Override public Items getAll() { return Items.fromEntries(stock.entrySet()); }
+    @Override public Items getAll() { return stock.toItems(); }
+
+    @Override public Price getTotalValue() { return totalValue.total(); }
+
+    @Override public void addListener(StockChangeListener listener) { listeners.add(listener); }
+
+    @Override public void removeListener(StockChangeListener listener) { listeners.remove(listener); }
 }
@@ -0,0 +1,73 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.utils.Preconditions;
+import com.google.auto.value.AutoValue;
+
+import java.nio.file.Path;
+
+/**
+ * The configuration of a {@link com.akikanellis.kata01.stock.JournaledStockRepository}.
+ */
+@AutoValue
+public abstract class JournalConfig {
+
+    public static Builder builder() {
+        return new AutoValue_JournalConfig.Builder()
+                .syncBatchSize(64)
+                .syncIntervalMillis(100)
+                .compactionThreshold(100_000);
+    }
+
+    /**
+     * @return the directory holding the journal segments and the snapshot
+     */
+    public abstract Path directory();
+
+    /**
+     * The number of records that are group-committed together with a single write and fsync. A batch size of 1 makes
+     * every change durable before it returns.
+     *
+     * @return the number of records per fsync
+     */
+    public abstract int syncBatchSize();
+
+    /**
+     * The interval of the background task which fsyncs a partial batch and compacts the journal when needed. An
+     * interval of 0 disables the background task.
+     *
+     * @return the interval of the background task in milliseconds
+     */
+    public abstract long syncIntervalMillis();
+
+    /**
+     * The number of records written since the latest snapshot after which the background task writes a new snapshot.
+     *
+     * @return the number of records that triggers a compaction
+     */
+    public abstract long compactionThreshold();
+
+    @AutoValue.Builder
+    public abstract static class Builder {
+        public abstract Builder directory(Path directory);
+
+        public abstract Builder syncBatchSize(int syncBatchSize);
+
+        public abstract Builder syncIntervalMillis(long syncIntervalMillis);
+
+        public abstract Builder compactionThreshold(long compactionThreshold);
+
+        abstract JournalConfig autoBuild();
+
+        public JournalConfig build() {
+            JournalConfig config = autoBuild();
+
+            Preconditions.checkArgument(config.syncBatchSize() > 0,
+                    "Sync batch size must be positive. Was [%s]", config.syncBatchSize());
+            Preconditions.checkNotNegative(config.syncIntervalMillis());
+            Preconditions.checkArgument(config.compactionThreshold() > 0,
+                    "Compaction threshold must be positive. Was [%s]", config.compactionThreshold());
+
+            return config;
+        }
+    }
+}
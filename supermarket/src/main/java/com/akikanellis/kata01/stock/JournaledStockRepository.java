@@ -0,0 +1,335 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.price.Price;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A durable implementation of an {@link com.akikanellis.kata01.stock.StockRepository}. The stock is served from
+ * memory while every change is appended to a binary write-ahead journal before it is applied.
+ * <p>
+ * On opening, the latest snapshot is loaded and only the journal written after it is replayed. A background task
+ * group-commits the partially filled batches of the journal and, once enough records have been written since the
+ * latest snapshot, writes a new snapshot and deletes the journal it covers. The startup time is therefore bounded by
+ * the size of the stock and not by its history.
+ * <p>
+ * A change is durable once its batch has been synced, see {@link com.akikanellis.kata01.stock.JournalConfig}.
+ * Input/output failures while changing the stock are thrown as {@link java.io.UncheckedIOException}, and a change whose
+ * journaling failed is not applied. A failure of the background task doesn't stop it; it is thrown by the next change,
+ * which is then not applied, or by {@link #close()}.
+ * <p>
+ * Changes are made one at a time, while reads never wait for them, nor for a sync. {@link #getAll()} is weakly
+ * consistent, see {@link com.akikanellis.kata01.stock.ConcurrentStockRepository}.
+ */
+public final class JournaledStockRepository implements StockRepository, Closeable {
+    private final Path directory;
+    private final long compactionThreshold;
+    private final ConcurrentStockRepository stock;
+    private final StockJournal journal;
+    private final Object writeLock;
+    private final Object syncLock;
+    private final Object compactionLock;
+    private final AtomicReference<RuntimeException> backgroundFailure;
+    private final ScheduledExecutorService background;
+    private long recordsSinceSnapshot;
+
+    private JournaledStockRepository(JournalConfig config, ScheduledExecutorService background) throws IOException {
+        this.directory = Files.createDirectories(config.directory());
+        this.compactionThreshold = config.compactionThreshold();
+        this.stock = new ConcurrentStockRepository();
+        this.writeLock = new Object();
+        this.syncLock = new Object();
+        this.compactionLock = new Object();
+        this.backgroundFailure = new AtomicReference<>();
+        this.background = background;
+
+        long firstSegment = recover();
+        List<Long> segments = StockJournal.segments(directory);
+        long lastSegment = segments.isEmpty()
+                ? firstSegment
+                : Math.max(firstSegment, segments.get(segments.size() - 1));
+        this.journal = StockJournal.open(directory, lastSegment, config.syncBatchSize());
+    }
+
+    /**
+     * Opens the repository in the configured directory, recovering any stock persisted in it.
+     *
+     * @param config the configuration of the repository
+     * @return the opened repository
+     * @throws IOException if the persisted stock can't be recovered
+     */
+    public static JournaledStockRepository open(JournalConfig config) throws IOException {
+        ScheduledExecutorService background = config.syncIntervalMillis() > 0
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "stock-journal-" + config.directory().getFileName());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+
+        return open(config, background);
+    }
+
+    /**
+     * Opens the repository, running its background task on the given executor, which is shut down on closing.
+     *
+     * @param config     the configuration of the repository
+     * @param background the executor of the background task or null for no background task
+     * @return the opened repository
+     * @throws IOException if the persisted stock can't be recovered
+     */
+    static JournaledStockRepository open(JournalConfig config, ScheduledExecutorService background)
+            throws IOException {
+        JournaledStockRepository repository = new JournaledStockRepository(config, background);
+        if (background != null) {
+            background.scheduleWithFixedDelay(repository::syncAndCompactIfNeeded, config.syncIntervalMillis(),
+                    config.syncIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return repository;
+    }
+
+    private long recover() throws IOException {
+        StockSnapshot snapshot = StockSnapshot.readLatest(directory);
+        long firstSegment = 0;
+        if (snapshot != null) {
+            for (QuantifiedItem quantifiedItem : snapshot.quantifiedItems()) {
+                stock.create(quantifiedItem.item());
+                stock.replaceQuantity(quantifiedItem.item(), quantifiedItem.quantity());
+            }
+            firstSegment = snapshot.nextSegment();
+        }
+
+        StockJournal.ReplayListener listener = new StockJournal.ReplayListener() {
+            @Override public void created(Item item) { if (!stock.contains(item)) stock.create(item); }
+
+            @Override public void quantityReplaced(long barcode, int quantity) {
+                stock.replaceQuantity(stock.getByBarcode(barcode), quantity);
+            }
+        };
+        for (long segment : StockJournal.segments(directory)) {
+            if (segment >= firstSegment) recordsSinceSnapshot += StockJournal.replay(directory, segment, listener);
+        }
+
+        return firstSegment;
+    }
+
+    /**
+     * Group-commits the journal and compacts it if needed. The first failure is recorded until it is thrown, instead of
+     * being thrown here, since an exception would cancel every later run of the background task.
+     */
+    void syncAndCompactIfNeeded() {
+        try {
+            sync();
+            if (needsCompaction()) compact();
+        } catch (RuntimeException e) {
+            backgroundFailure.compareAndSet(null, e);
+        }
+    }
+
+    private boolean needsCompaction() {
+        synchronized (writeLock) {
+            return recordsSinceSnapshot >= compactionThreshold;
+        }
+    }
+
+    private void throwBackgroundFailure() {
+        RuntimeException failure = backgroundFailure.getAndSet(null);
+        if (failure instanceof UncheckedIOException) {
+            throw new UncheckedIOException("The background sync of the journal failed",
+                    (IOException) failure.getCause());
+        }
+        if (failure != null) throw new IllegalStateException("The background sync of the journal failed", failure);
+    }
+
+    @Override public boolean contains(Item item) { return stock.contains(item); }
+
+    @Override public void create(Item item) {
+        synchronized (writeLock) {
+            throwBackgroundFailure();
+            if (stock.contains(item)) throw new ItemAlreadyExistsException(item);
+
+            try {
+                journal.appendCreate(item);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            recordsSinceSnapshot++;
+            stock.create(item);
+        }
+    }
+
+    @Override public void replaceQuantity(Item item, int quantity) {
+        synchronized (writeLock) {
+            throwBackgroundFailure();
+            stock.getQuantity(item);
+
+            appendQuantity(item.barcode(), quantity);
+            stock.replaceQuantity(item, quantity);
+        }
+    }
+
+    @Override public int adjustQuantity(Item item, int delta, boolean floorAtZero) {
+        synchronized (writeLock) {
+            throwBackgroundFailure();
+            int newQuantity = StockQuantities.adjust(stock.getQuantity(item), delta, floorAtZero);
+
+            appendQuantity(item.barcode(), newQuantity);
+            stock.replaceQuantity(item, newQuantity);
+
+            return newQuantity;
+        }
+    }
+
+    private void appendQuantity(long barcode, int quantity) {
+        try {
+            journal.appendQuantity(barcode, quantity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        recordsSinceSnapshot++;
+    }
+
+    /**
+     * Works out the new quantity of every item moved, journals all of them together and only then applies them.
+     *
+     * @param movements the movements to apply
+     * @return the report of the movements
+     */
+    @Override public StockMovementsReport applyMovements(StockMovements movements) {
+        synchronized (writeLock) {
+            throwBackgroundFailure();
+
+            int appliedCount = 0;
+            List<StockMovementFailure> failures = new ArrayList<>();
+            List<QuantifiedItem> newQuantities = new ArrayList<>();
+            for (Map.Entry<Long, List<Integer>> barcodeLines : movements.linesByBarcode().entrySet()) {
+                List<Integer> lines = barcodeLines.getValue();
+                Item item = stock.findByBarcode(barcodeLines.getKey());
+                if (item == null) {
+                    lines.forEach(line -> failures.add(StockMovementFailure.itemNotFound(line, movements.get(line))));
+                    continue;
+                }
+
+                newQuantities.add(QuantifiedItem.create(item, movements.applyTo(stock.getQuantity(item), lines)));
+                appliedCount += lines.size();
+            }
+
+            try {
+                journal.appendQuantities(newQuantities);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            recordsSinceSnapshot += newQuantities.size();
+            newQuantities.forEach(quantifiedItem
+                    -> stock.replaceQuantity(quantifiedItem.item(), quantifiedItem.quantity()));
+
+            return StockMovementsReport.create(appliedCount, failures);
+        }
+    }
+
+    /**
+     * Checks the movements and applies them under the same lock as every other change, so they are journaled either
+     * all together or not at all.
+     *
+     * @param movements the movements to apply
+     * @return the report of the movements
+     */
+    @Override public StockMovementsReport applyMovementsIfAvailable(StockMovements movements) {
+        synchronized (writeLock) {
+            return movements.applyIfAvailable(stock::findQuantity, this::applyMovements);
+        }
+    }
+
+    @Override public int getQuantity(Item item) { return stock.getQuantity(item); }
+
+    @Override public Item getByBarcode(long barcode) { return stock.getByBarcode(barcode); }
+
+    @Override public Items getAll() { return stock.getAll(); }
+
+    @Override public Price getTotalValue() { return stock.getTotalValue(); }
+
+    @Override public void addListener(StockChangeListener listener) { stock.addListener(listener); }
+
+    @Override public void removeListener(StockChangeListener listener) { stock.removeListener(listener); }
+
+    /**
+     * Group-commits all the changes that are not yet durable. The pending records are written while changes are held
+     * back, which is cheap, but they are forced to the storage device while changes carry on.
+     */
+    public void sync() {
+        synchronized (syncLock) {
+            try {
+                synchronized (writeLock) {
+                    journal.write();
+                }
+                journal.force();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes a new snapshot of the stock and deletes the journal it covers. The stock is only locked for switching to a
+     * new journal segment, while the snapshot is written in parallel to any new changes.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            try {
+                Items items;
+                long nextSegment;
+                synchronized (syncLock) {
+                    synchronized (writeLock) {
+                        nextSegment = journal.roll();
+                        items = stock.getAll();
+                        recordsSinceSnapshot = 0;
+                    }
+                }
+
+                StockSnapshot.write(directory, items, nextSegment);
+                StockJournal.deleteSegmentsBefore(directory, nextSegment);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Stops the background task and syncs the journal.
+     *
+     * @throws IOException if the journal can't be synced
+     */
+    @Override public void close() throws IOException {
+        if (background != null) {
+            background.shutdown();
+            try {
+                background.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                journal.close();
+            }
+        }
+        throwBackgroundFailure();
+    }
+}
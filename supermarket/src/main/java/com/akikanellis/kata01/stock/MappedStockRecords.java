@@ -0,0 +1,226 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.price.Price;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The records file of a {@link com.akikanellis.kata01.stock.MappedStockRepository}. After a header holding the
+ * capacity, the size of the stock and the used size of the names, the file is an open-addressing hash table keyed by
+ * barcode whose slots are fixed-width records of
+ * {@code [barcode][price unscaled value][price scale][quantity][name offset][name length][used]}.
+ * <p>
+ * A record is only found once it is marked as used, so it can be written and forced before it becomes part of the
+ * stock.
+ */
+final class MappedStockRecords {
+    static final int MAX_CAPACITY = 1 << 25;
+
+    private static final int MAGIC = 0x534B5553;
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int NAMES_USED_OFFSET = 16;
+
+    private static final int RECORD_SIZE = 40;
+    private static final int BARCODE_OFFSET = 0;
+    private static final int PRICE_UNSCALED_OFFSET = 8;
+    private static final int PRICE_SCALE_OFFSET = 16;
+    private static final int QUANTITY_OFFSET = 20;
+    private static final int NAME_OFFSET_OFFSET = 24;
+    private static final int NAME_LENGTH_OFFSET = 28;
+    private static final int USED_OFFSET = 32;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private MappedStockRecords(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.capacity = buffer.getInt(CAPACITY_OFFSET);
+    }
+
+    /**
+     * Returns the capacity which keeps the given number of records below the maximum load factor of the table.
+     *
+     * @param expectedSize the expected number of records
+     * @return the capacity, a power of two
+     */
+    static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < MAX_CAPACITY && capacity * 3L < expectedSize * 4L) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    /**
+     * Maps an existing records file.
+     *
+     * @param path the path of the file
+     * @return the mapped records
+     * @throws IOException if the file can't be mapped or is not a records file
+     */
+    static MappedStockRecords open(Path path) throws IOException {
+        MappedByteBuffer buffer = map(path, Files.size(path));
+        if (buffer.capacity() < HEADER_SIZE
+                || buffer.getInt(MAGIC_OFFSET) != MAGIC
+                || buffer.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException(String.format("Not a stock records file. File was [%s]", path));
+        }
+
+        return new MappedStockRecords(buffer);
+    }
+
+    /**
+     * Creates an empty records file, replacing any existing content of it.
+     *
+     * @param path     the path of the file
+     * @param capacity the number of slots, which must be a power of two
+     * @return the mapped records
+     * @throws IOException if the file can't be mapped
+     */
+    static MappedStockRecords create(Path path, int capacity) throws IOException {
+        Files.deleteIfExists(path);
+        MappedByteBuffer buffer = map(path, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+
+        return new MappedStockRecords(buffer);
+    }
+
+    /**
+     * Maps the whole of the given file for reading and writing, creating or extending it to the given size.
+     *
+     * @param path the path of the file
+     * @param size the size to map
+     * @return the mapped file
+     * @throws IOException if the file can't be mapped
+     */
+    static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static int offsetOf(int slot) { return HEADER_SIZE + slot * RECORD_SIZE; }
+
+    int capacity() { return capacity; }
+
+    int size() { return buffer.getInt(SIZE_OFFSET); }
+
+    int namesUsed() { return buffer.getInt(NAMES_USED_OFFSET); }
+
+    void putNamesUsed(int namesUsed) { buffer.putInt(NAMES_USED_OFFSET, namesUsed); }
+
+    boolean isUsed(int slot) { return buffer.get(offsetOf(slot) + USED_OFFSET) != 0; }
+
+    int indexOf(long barcode) {
+        int mask = capacity - 1;
+        for (int slot = StockTable.slotFor(barcode, mask); isUsed(slot); slot = (slot + 1) & mask) {
+            if (barcodeAt(slot) == barcode) return slot;
+        }
+
+        return StockTable.NOT_FOUND;
+    }
+
+    private int freeSlotFor(long barcode) {
+        int mask = capacity - 1;
+        int slot = StockTable.slotFor(barcode, mask);
+        while (isUsed(slot)) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    long barcodeAt(int slot) { return buffer.getLong(offsetOf(slot) + BARCODE_OFFSET); }
+
+    Price priceAt(int slot) {
+        int offset = offsetOf(slot);
+
+        long unscaledPrice = buffer.getLong(offset + PRICE_UNSCALED_OFFSET);
+        int priceScale = buffer.getInt(offset + PRICE_SCALE_OFFSET);
+        return priceScale == 0
+                ? Price.of(unscaledPrice)
+                : Price.of(BigDecimal.valueOf(unscaledPrice, priceScale));
+    }
+
+    int quantityAt(int slot) { return buffer.getInt(offsetOf(slot) + QUANTITY_OFFSET); }
+
+    void putQuantity(int slot, int quantity) { buffer.putInt(offsetOf(slot) + QUANTITY_OFFSET, quantity); }
+
+    int nameOffsetAt(int slot) { return buffer.getInt(offsetOf(slot) + NAME_OFFSET_OFFSET); }
+
+    int nameLengthAt(int slot) { return buffer.getInt(offsetOf(slot) + NAME_LENGTH_OFFSET); }
+
+    /**
+     * Writes a record with a zero quantity into the free slot for its barcode, without marking it as used.
+     *
+     * @param barcode    the barcode of the item
+     * @param price      the price of the item, whose unscaled value must fit in a {@code long}
+     * @param nameOffset the offset of the name of the item in the names
+     * @param nameLength the length of the name of the item
+     * @return the slot written
+     */
+    int put(long barcode, BigDecimal price, int nameOffset, int nameLength) {
+        int slot = freeSlotFor(barcode);
+        int offset = offsetOf(slot);
+        buffer.putLong(offset + BARCODE_OFFSET, barcode);
+        buffer.putLong(offset + PRICE_UNSCALED_OFFSET, price.unscaledValue().longValue());
+        buffer.putInt(offset + PRICE_SCALE_OFFSET, price.scale());
+        buffer.putInt(offset + QUANTITY_OFFSET, 0);
+        buffer.putInt(offset + NAME_OFFSET_OFFSET, nameOffset);
+        buffer.putInt(offset + NAME_LENGTH_OFFSET, nameLength);
+
+        return slot;
+    }
+
+    /**
+     * Marks a written record as used and stores the new size of the stock.
+     *
+     * @param slot the slot of the record
+     * @param size the size of the stock including the record
+     */
+    void markUsed(int slot, int size) {
+        buffer.put(offsetOf(slot) + USED_OFFSET, (byte) 1);
+        buffer.putInt(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Copies every used record, along with the size of the stock and of the names, to the given records.
+     *
+     * @param target the records to copy to, which must be empty
+     */
+    void copyTo(MappedStockRecords target) {
+        byte[] record = new byte[RECORD_SIZE];
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!isUsed(slot)) continue;
+
+            ByteBuffer view = buffer.duplicate();
+            view.position(offsetOf(slot));
+            view.get(record);
+
+            ByteBuffer targetView = target.buffer.duplicate();
+            targetView.position(offsetOf(target.freeSlotFor(barcodeAt(slot))));
+            targetView.put(record);
+        }
+        target.buffer.putInt(SIZE_OFFSET, size());
+        target.putNamesUsed(namesUsed());
+    }
+
+    void force() { buffer.force(); }
+}
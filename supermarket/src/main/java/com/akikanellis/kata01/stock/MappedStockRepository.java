@@ -0,0 +1,356 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.price.PriceAccumulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkArgument;
+
+/**
+ * An off-heap implementation of an {@link com.akikanellis.kata01.stock.StockRepository} backed by memory-mapped files.
+ * The stock lives in the files instead of the heap, so it survives restarts and is available again as soon as the
+ * files are mapped.
+ * <p>
+ * The records file is an open-addressing hash table of fixed-width records keyed by barcode, see
+ * {@link com.akikanellis.kata01.stock.MappedStockRecords}. The names are kept in a separate string region which the
+ * records point into. {@link com.akikanellis.kata01.item.Item} instances are only built when
+ * {@link #getByBarcode(long)} or {@link #getAll()} ask for them, while quantity reads and updates never allocate.
+ * <p>
+ * The total value of the stock is not stored in the files. It is summed with a single pass over the records the first
+ * time {@link #getTotalValue()} is called and kept up to date with every quantity change from then on, so opening the
+ * repository stays as cheap as mapping the files.
+ * <p>
+ * Quantity changes are single writes to the records, which are made durable by {@link #force()}. Creating an item is
+ * ordered against a crash instead, see {@link #create(Item)}. The directory is locked while the repository is open, so
+ * no other process can map the same files.
+ * <p>
+ * Note: Prices are stored with a {@code long} unscaled value, so an item whose price needs more than that can't be
+ * created. Each file is limited to 2GB, which allows for about 25 million items.
+ */
+public final class MappedStockRepository implements StockRepository, Closeable {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int INITIAL_NAMES_SIZE = 64 * 1024;
+    private static final String RECORDS_FILE = "stock.records";
+    private static final String NAMES_FILE = "stock.names";
+    private static final String LOCK_FILE = "stock.lock";
+
+    private final Path recordsPath;
+    private final Path namesPath;
+    private final StockChangeListeners listeners;
+    private final FileChannel lockChannel;
+    private final Object lock;
+    private MappedStockRecords records;
+    private MappedByteBuffer names;
+    private int size;
+    private int namesUsed;
+    private PriceAccumulator totalValue;
+
+    private MappedStockRepository(Path directory, int initialCapacity, FileChannel lockChannel) throws IOException {
+        this.listeners = new StockChangeListeners();
+        this.lockChannel = lockChannel;
+        this.lock = new Object();
+        this.recordsPath = directory.resolve(RECORDS_FILE);
+        this.namesPath = directory.resolve(NAMES_FILE);
+
+        this.records = Files.exists(recordsPath)
+                ? MappedStockRecords.open(recordsPath)
+                : MappedStockRecords.create(recordsPath, MappedStockRecords.capacityFor(initialCapacity));
+        this.size = records.size();
+        this.namesUsed = records.namesUsed();
+
+        long namesSize = Files.exists(namesPath) ? Files.size(namesPath) : 0;
+        this.names = MappedStockRecords.map(namesPath, Math.max(namesSize, INITIAL_NAMES_SIZE));
+    }
+
+    /**
+     * Opens the repository in the given directory, reusing the stock already stored in it.
+     *
+     * @param directory the directory of the files
+     * @return the opened repository
+     * @throws IOException if the files can't be mapped or another process has them open
+     */
+    public static MappedStockRepository open(Path directory) throws IOException {
+        return open(directory, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens the repository in the given directory, reusing the stock already stored in it. The capacity is only used
+     * when creating a new stock and avoids growing the table while filling it up.
+     *
+     * @param directory       the directory of the files
+     * @param initialCapacity the expected number of items
+     * @return the opened repository
+     * @throws IOException if the files can't be mapped or another process has them open
+     */
+    public static MappedStockRepository open(Path directory, int initialCapacity) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = lock(directory.resolve(LOCK_FILE));
+        try {
+            return new MappedStockRepository(directory, initialCapacity, lockChannel);
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    private static FileChannel lock(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (tryLock(channel) == null) {
+                throw new IOException(String.format("The stock is already open. File was [%s]", path));
+            }
+
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private int slotOf(Item item) {
+        int slot = records.indexOf(item.barcode());
+        if (slot == StockTable.NOT_FOUND) throw new ItemNotFoundException(item);
+
+        return slot;
+    }
+
+    private void replaceQuantityAt(int slot, int quantity) {
+        int oldQuantity = records.quantityAt(slot);
+        if (quantity == oldQuantity) return;
+
+        if (totalValue != null) totalValue.addMultiple(records.priceAt(slot), (long) quantity - oldQuantity);
+        records.putQuantity(slot, quantity);
+        if (!listeners.isEmpty()) listeners.publish(StockChange.quantityChanged(itemAt(slot), oldQuantity, quantity));
+    }
+
+    @Override public boolean contains(Item item) {
+        synchronized (lock) {
+            return records.indexOf(item.barcode()) != StockTable.NOT_FOUND;
+        }
+    }
+
+    /**
+     * Creates the item in three steps, each forced before the next one: the name, then the record and the used size of
+     * the names, and finally the used flag of the record along with the size of the stock. A crash at any point leaves
+     * either the item fully created or unused space which nothing points to.
+     *
+     * @param item the item to create
+     */
+    @Override public void create(Item item) {
+        synchronized (lock) {
+            if (records.indexOf(item.barcode()) != StockTable.NOT_FOUND) throw new ItemAlreadyExistsException(item);
+
+            BigDecimal price = item.price().asBigDecimal();
+            checkArgument(price.unscaledValue().bitLength() < Long.SIZE,
+                    "Item price is too precise to be stored. Was [%s]", item.price());
+
+            try {
+                if ((size + 1) * 4 > records.capacity() * 3) grow();
+                byte[] name = item.name().getBytes(StandardCharsets.UTF_8);
+                int nameOffset = appendName(name);
+                names.force();
+
+                int slot = records.put(item.barcode(), price, nameOffset, name.length);
+                records.putNamesUsed(namesUsed);
+                records.force();
+
+                records.markUsed(slot, size + 1);
+                records.force();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            size++;
+            if (!listeners.isEmpty()) listeners.publish(StockChange.created(item));
+        }
+    }
+
+    private int appendName(byte[] name) throws IOException {
+        long requiredSize = (long) namesUsed + name.length;
+        checkArgument(requiredSize <= Integer.MAX_VALUE, "The names region is full");
+        if (requiredSize > names.capacity()) {
+            names = MappedStockRecords.map(namesPath,
+                    Math.min(Math.max(requiredSize, names.capacity() * 2L), Integer.MAX_VALUE));
+        }
+
+        int nameOffset = namesUsed;
+        ByteBuffer view = names.duplicate();
+        view.position(nameOffset);
+        view.put(name);
+
+        namesUsed += name.length;
+
+        return nameOffset;
+    }
+
+    private void grow() throws IOException {
+        checkArgument(records.capacity() < MappedStockRecords.MAX_CAPACITY,
+                "The stock is full. Capacity was [%s]", records.capacity());
+        Path temporaryPath = recordsPath.resolveSibling(RECORDS_FILE + ".tmp");
+        MappedStockRecords newRecords = MappedStockRecords.create(temporaryPath, records.capacity() * 2);
+        records.copyTo(newRecords);
+        newRecords.force();
+
+        Files.move(temporaryPath, recordsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        records = newRecords;
+    }
+
+    @Override public void replaceQuantity(Item item, int quantity) {
+        synchronized (lock) {
+            replaceQuantityAt(slotOf(item), quantity);
+        }
+    }
+
+    @Override public int adjustQuantity(Item item, int delta, boolean floorAtZero) {
+        synchronized (lock) {
+            int slot = slotOf(item);
+
+            int newQuantity = StockQuantities.adjust(records.quantityAt(slot), delta, floorAtZero);
+            replaceQuantityAt(slot, newQuantity);
+
+            return newQuantity;
+        }
+    }
+
+    @Override public StockMovementsReport applyMovements(StockMovements movements) {
+        synchronized (lock) {
+            int appliedCount = 0;
+            List<StockMovementFailure> failures = new ArrayList<>();
+
+            for (Map.Entry<Long, List<Integer>> barcodeLines : movements.linesByBarcode().entrySet()) {
+                List<Integer> lines = barcodeLines.getValue();
+                int slot = records.indexOf(barcodeLines.getKey());
+                if (slot == StockTable.NOT_FOUND) {
+                    lines.forEach(line -> failures.add(StockMovementFailure.itemNotFound(line, movements.get(line))));
+                    continue;
+                }
+
+                replaceQuantityAt(slot, movements.applyTo(records.quantityAt(slot), lines));
+                appliedCount += lines.size();
+            }
+
+            return StockMovementsReport.create(appliedCount, failures);
+        }
+    }
+
+    @Override public StockMovementsReport applyMovementsIfAvailable(StockMovements movements) {
+        synchronized (lock) {
+            return movements.applyIfAvailable(barcode -> {
+                int slot = records.indexOf(barcode);
+                return slot == StockTable.NOT_FOUND ? null : records.quantityAt(slot);
+            }, this::applyMovements);
+        }
+    }
+
+    @Override public int getQuantity(Item item) {
+        synchronized (lock) {
+            return records.quantityAt(slotOf(item));
+        }
+    }
+
+    @Override public Item getByBarcode(long barcode) {
+        synchronized (lock) {
+            int slot = records.indexOf(barcode);
+            if (slot == StockTable.NOT_FOUND) throw new ItemNotFoundException(barcode);
+
+            return itemAt(slot);
+        }
+    }
+
+    private Item itemAt(int slot) {
+        byte[] name = new byte[records.nameLengthAt(slot)];
+        ByteBuffer view = names.duplicate();
+        view.position(records.nameOffsetAt(slot));
+        view.get(name);
+
+        return Item.builder()
+                .barcode(records.barcodeAt(slot))
+                .name(new String(name, StandardCharsets.UTF_8))
+                .price(records.priceAt(slot))
+                .build();
+    }
+
+    @Override public Items getAll() {
+        synchronized (lock) {
+            return IntStream.range(0, records.capacity())
+                    .filter(records::isUsed)
+                    .mapToObj(slot -> QuantifiedItem.create(itemAt(slot), records.quantityAt(slot)))
+                    .collect(Items.collector());
+        }
+    }
+
+    @Override public Price getTotalValue() {
+        synchronized (lock) {
+            if (totalValue == null) {
+                totalValue = new PriceAccumulator();
+                for (int slot = 0; slot < records.capacity(); slot++) {
+                    if (records.isUsed(slot)) totalValue.addMultiple(records.priceAt(slot), records.quantityAt(slot));
+                }
+            }
+
+            return totalValue.total();
+        }
+    }
+
+    @Override public void addListener(StockChangeListener listener) { listeners.add(listener); }
+
+    @Override public void removeListener(StockChangeListener listener) { listeners.remove(listener); }
+
+    /**
+     * Forces all the changes to the storage device.
+     */
+    public void force() {
+        synchronized (lock) {
+            names.force();
+            records.force();
+        }
+    }
+
+    /**
+     * Forces all the changes to the storage device and unlocks the directory. Java offers no way of unmapping the
+     * files, so they stay mapped until the repository is garbage collected, and it must not be used after closing.
+     *
+     * @throws UncheckedIOException if the directory can't be unlocked
+     */
+    @Override public void close() {
+        synchronized (lock) {
+            force();
+            try {
+                lockChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.price.Price;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable state of the stock published by the writer of a
+ * {@link com.akikanellis.kata01.stock.SingleWriterStockRepository} for any number of readers.
+ * <p>
+ * The items and quantities are kept in pages of fixed size, indexed by a slot assigned to each item when it is created.
+ * The quantity pages are copied on write: the {@link Writer} copies a page the first time it changes after a state was
+ * published, so publishing a new state only copies the pages changed since the previous one instead of the whole
+ * stock. Items are never removed, so the item pages and the slot of each barcode are only ever appended to and can be
+ * shared by every state, each state ignoring the slots created after it.
+ */
+final class PublishedStock {
+    static final int NOT_FOUND = -1;
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final ConcurrentMap<Long, Integer> slotsByBarcode;
+    private final Item[][] itemPages;
+    private final int[][] quantityPages;
+    private final int size;
+    private final Price totalValue;
+
+    PublishedStock(ConcurrentMap<Long, Integer> slotsByBarcode, Item[][] itemPages, int[][] quantityPages, int size,
+                   Price totalValue) {
+        this.slotsByBarcode = slotsByBarcode;
+        this.itemPages = itemPages;
+        this.quantityPages = quantityPages;
+        this.size = size;
+        this.totalValue = totalValue;
+    }
+
+    /**
+     * Returns the slot of the given barcode.
+     *
+     * @param barcode the barcode to look for
+     * @return the slot of the barcode or {@link #NOT_FOUND} if there was no such barcode in this state
+     */
+    int slotOf(long barcode) {
+        Integer slot = slotsByBarcode.get(barcode);
+
+        return slot == null || slot >= size ? NOT_FOUND : slot;
+    }
+
+    Item itemAt(int slot) { return itemPages[slot >>> PAGE_SHIFT][slot & PAGE_MASK]; }
+
+    int quantityAt(int slot) { return quantityPages[slot >>> PAGE_SHIFT][slot & PAGE_MASK]; }
+
+    Price totalValue() { return totalValue; }
+
+    Items toItems() {
+        return IntStream.range(0, size)
+                .mapToObj(slot -> QuantifiedItem.create(itemAt(slot), quantityAt(slot)))
+                .collect(Items.collector());
+    }
+
+    /**
+     * Changes the stock on behalf of the single writer and publishes its states.
+     * <p>
+     * Note: This class is not thread-safe, it must only be used by the writer.
+     */
+    static final class Writer {
+        private final ConcurrentMap<Long, Integer> slotsByBarcode;
+        private final BitSet ownedQuantityPages;
+        private Item[][] itemPages;
+        private int[][] quantityPages;
+        private boolean ownsQuantityPages;
+        private int size;
+
+        Writer() {
+            this.slotsByBarcode = new ConcurrentHashMap<>();
+            this.ownedQuantityPages = new BitSet();
+            this.itemPages = new Item[1][];
+            this.quantityPages = new int[1][];
+            this.ownsQuantityPages = true;
+            this.size = 0;
+        }
+
+        void create(Item item, int quantity) {
+            int slot = size;
+            int page = slot >>> PAGE_SHIFT;
+            if (page == itemPages.length) {
+                itemPages = Arrays.copyOf(itemPages, page * 2);
+                quantityPages = Arrays.copyOf(quantityPages, page * 2);
+                ownsQuantityPages = true;
+            }
+            if (itemPages[page] == null) {
+                itemPages[page] = new Item[PAGE_SIZE];
+                ownQuantityPages()[page] = new int[PAGE_SIZE];
+                ownedQuantityPages.set(page);
+            }
+
+            itemPages[page][slot & PAGE_MASK] = item;
+            writableQuantityPage(page)[slot & PAGE_MASK] = quantity;
+            size++;
+            slotsByBarcode.put(item.barcode(), slot);
+        }
+
+        void replaceQuantity(long barcode, int quantity) {
+            int slot = slotsByBarcode.get(barcode);
+
+            writableQuantityPage(slot >>> PAGE_SHIFT)[slot & PAGE_MASK] = quantity;
+        }
+
+        /**
+         * Applies the changes made to the repository the writer owns, as emitted to its listeners.
+         *
+         * @param changes the changes to apply
+         */
+        void apply(List<StockChange> changes) {
+            for (StockChange change : changes) {
+                if (change.type() == StockChange.Type.CREATED) {
+                    create(change.item(), change.newQuantity());
+                } else {
+                    replaceQuantity(change.item().barcode(), change.newQuantity());
+                }
+            }
+        }
+
+        private int[] writableQuantityPage(int page) {
+            int[][] pages = ownQuantityPages();
+            if (!ownedQuantityPages.get(page)) {
+                pages[page] = pages[page].clone();
+                ownedQuantityPages.set(page);
+            }
+
+            return pages[page];
+        }
+
+        private int[][] ownQuantityPages() {
+            if (!ownsQuantityPages) {
+                quantityPages = quantityPages.clone();
+                ownsQuantityPages = true;
+            }
+
+            return quantityPages;
+        }
+
+        /**
+         * Publishes the current state of the stock. Any change after publishing copies the pages it changes first.
+         *
+         * @param totalValue the current total value of the stock
+         * @return the published state
+         */
+        PublishedStock publish(Price totalValue) {
+            ownsQuantityPages = false;
+            ownedQuantityPages.clear();
+
+            return new PublishedStock(slotsByBarcode, itemPages, quantityPages, size, totalValue);
+        }
+    }
+}
@@ -5,7 +5,8 @@ import com.akikanellis.kata01.item.Item;
 import static com.akikanellis.kata01.utils.Preconditions.checkNotNegative;
 
 /**
- * Reduces the quantity of the stock for the specified item by the specified quantity.
+ * Reduces the quantity of the stock for the specified item by the specified quantity. The quantity never drops below
+ * zero.
  */
 public class ReduceStockUseCase {
     private final StockRepository stock;
@@ -21,16 +22,6 @@ public class ReduceStockUseCase {
 
         addNewItemIfNotExists.execute(item);
 
-        int newQuantity = calculateNewQuantity(item, quantity);
-        stock.replaceQuantity(item, newQuantity);
-    }
-
-    private int calculateNewQuantity(Item item, int quantity) {
-        int currentQuantity = stock.getQuantity(item);
-        if (currentQuantity > quantity) {
-            return currentQuantity - quantity;
-        } else {
-            return 0;
-        }
+        stock.adjustQuantity(item, -quantity, true);
     }
 }
@@ -0,0 +1,295 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkArgument;
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
+/**
+ * An {@link com.akikanellis.kata01.stock.StockRepository} whose changes are all made by a single writer thread, which
+ * owns another, not necessarily thread-safe, repository such as an
+ * {@link com.akikanellis.kata01.stock.InMemoryStockRepository}. Plugging it in behind the use cases changes how the
+ * stock is written without changing the use cases.
+ * <p>
+ * Changes are submitted as commands into a ring buffer whose slots are allocated once, up front. Submitting claims the
+ * next slot with a compare-and-set, fills it in and returns a future of the result, so writers never take a lock. The
+ * writer thread takes every command submitted so far, applies them in order, publishes a new immutable state of the
+ * stock and only then completes their futures, so a caller that waited for its change always reads it back. When the
+ * ring buffer is full, submitting waits for the writer to free a slot.
+ * <p>
+ * Reads never wait for the writer; they read the latest published state, which is immutable. The synchronous
+ * {@code StockRepository} methods submit their command and wait for it. Listeners are called by the writer thread.
+ * Closing the repository applies every command submitted before it and stops the writer.
+ * <p>
+ * If the writer itself fails, for example because publishing the new state threw or an {@code Error} was raised, the
+ * repository stops accepting commands: every command already submitted and every later submission fails with an
+ * {@code IllegalStateException} caused by the failure, instead of waiting for a writer that is gone.
+ */
+public final class SingleWriterStockRepository implements StockRepository, Closeable {
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private final StockRepository stock;
+    private final PublishedStock.Writer writer;
+    private final CommandRing<StockCommand> ring;
+    private final Object[] results;
+    private final RuntimeException[] failures;
+    private final Thread writerThread;
+    private volatile PublishedStock published;
+    private volatile IllegalStateException writerFailure;
+
+    private SingleWriterStockRepository(StockRepository stock, int capacity) {
+        this.stock = stock;
+        this.writer = new PublishedStock.Writer();
+        this.ring = new CommandRing<>(capacity, StockCommand::new);
+        this.results = new Object[Math.min(capacity, MAX_BATCH_SIZE)];
+        this.failures = new RuntimeException[results.length];
+
+        stock.getAll().stream().forEach(quantifiedItem
+                -> writer.create(quantifiedItem.item(), quantifiedItem.quantity()));
+        stock.addListener(writer::apply);
+        this.published = writer.publish(stock.getTotalValue());
+
+        this.writerThread = new Thread(this::applyCommands, "stock-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * Creates a repository writing to the given one and starts its writer thread. The given repository must not be
+     * used by anyone else afterwards.
+     *
+     * @param stock    the repository to write to
+     * @param capacity the number of commands the ring buffer holds, a power of two
+     * @return the started repository
+     */
+    public static SingleWriterStockRepository start(StockRepository stock, int capacity) {
+        checkNotNull(stock);
+        checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1,
+                "Capacity must be a positive power of two. Was [%s]", capacity);
+
+        SingleWriterStockRepository repository = new SingleWriterStockRepository(stock, capacity);
+        repository.writerThread.start();
+
+        return repository;
+    }
+
+    /**
+     * Submits the creation of an item, see {@link #create(Item)}.
+     *
+     * @param item the item to create
+     * @return a future completing once the item has been created
+     */
+    public CompletableFuture<Void> submitCreate(Item item) {
+        return submit(StockCommand.Type.CREATE, checkNotNull(item), 0, false, null);
+    }
+
+    /**
+     * Submits the replacement of an item's quantity, see {@link #replaceQuantity(Item, int)}.
+     *
+     * @param item     the item to change
+     * @param quantity the new quantity of the item
+     * @return a future completing once the quantity has been replaced
+     */
+    public CompletableFuture<Void> submitReplaceQuantity(Item item, int quantity) {
+        return submit(StockCommand.Type.REPLACE_QUANTITY, checkNotNull(item), quantity, false, null);
+    }
+
+    /**
+     * Submits the adjustment of an item's quantity, see {@link #adjustQuantity(Item, int, boolean)}.
+     *
+     * @param item        the item to change
+     * @param delta       the quantity to add, negative to reduce
+     * @param floorAtZero whether the quantity stops at zero when reducing
+     * @return a future of the new quantity of the item
+     */
+    public CompletableFuture<Integer> submitAdjustQuantity(Item item, int delta, boolean floorAtZero) {
+        return submit(StockCommand.Type.ADJUST_QUANTITY, checkNotNull(item), delta, floorAtZero, null);
+    }
+
+    /**
+     * Submits a batch of stock movements, see {@link #applyMovements(StockMovements)}.
+     *
+     * @param movements the movements to apply
+     * @return a future of the report of the movements
+     */
+    public CompletableFuture<StockMovementsReport> submitMovements(StockMovements movements) {
+        return submit(StockCommand.Type.APPLY_MOVEMENTS, null, 0, false, checkNotNull(movements));
+    }
+
+    /**
+     * Submits a batch of stock movements to be applied only if all of it is available, see
+     * {@link #applyMovementsIfAvailable(StockMovements)}.
+     *
+     * @param movements the movements to apply
+     * @return a future of the report of the movements
+     */
+    public CompletableFuture<StockMovementsReport> submitMovementsIfAvailable(StockMovements movements) {
+        return submit(StockCommand.Type.APPLY_MOVEMENTS_IF_AVAILABLE, null, 0, false, checkNotNull(movements));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(StockCommand.Type type, Item item, int quantity, boolean floorAtZero,
+                                            StockMovements movements) {
+        long sequence = ring.claim();
+        if (sequence == CommandRing.CLOSED_SEQUENCE) throw closedException();
+
+        CompletableFuture<Object> future = ring.slotOf(sequence).fill(type, item, quantity, floorAtZero, movements);
+        ring.publish(sequence);
+
+        return (CompletableFuture<T>) (CompletableFuture<?>) future;
+    }
+
+    private IllegalStateException closedException() {
+        IllegalStateException failure = writerFailure;
+        if (failure == null) return new IllegalStateException("The repository is closed");
+
+        return new IllegalStateException(failure.getMessage(), failure.getCause());
+    }
+
+    private void applyCommands() {
+        long next = 0;
+        long parkNanos = 1;
+        while (!ring.isDrained(next)) {
+            long end = ring.publishedUntil(next, results.length);
+            if (end == next) {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+                continue;
+            }
+            parkNanos = 1;
+
+            if (writerFailure == null) {
+                try {
+                    applyBatch(next, end);
+                } catch (Throwable e) {
+                    stopAfter(e);
+                }
+            }
+            if (writerFailure != null) failBatch(next, end);
+
+            next = end;
+            ring.release(end);
+        }
+    }
+
+    private void applyBatch(long next, long end) {
+        try {
+            for (long sequence = next; sequence < end; sequence++) {
+                int index = (int) (sequence - next);
+                try {
+                    results[index] = ring.slotOf(sequence).applyTo(stock);
+                } catch (RuntimeException e) {
+                    failures[index] = e;
+                }
+            }
+            published = writer.publish(stock.getTotalValue());
+
+            for (long sequence = next; sequence < end; sequence++) {
+                int index = (int) (sequence - next);
+                CompletableFuture<Object> future = ring.slotOf(sequence).clear();
+                if (failures[index] == null) {
+                    future.complete(results[index]);
+                } else {
+                    future.completeExceptionally(failures[index]);
+                }
+            }
+        } finally {
+            Arrays.fill(results, null);
+            Arrays.fill(failures, null);
+        }
+    }
+
+    /**
+     * Records the failure that stopped the writer and stops accepting commands. The writer keeps taking the commands
+     * submitted before, failing each one, so that no caller waits for a command that will never be applied.
+     *
+     * @param failure the failure that stopped the writer
+     */
+    private void stopAfter(Throwable failure) {
+        writerFailure = new IllegalStateException("The stock writer has failed", failure);
+        ring.close();
+    }
+
+    private void failBatch(long next, long end) {
+        for (long sequence = next; sequence < end; sequence++) {
+            CompletableFuture<Object> future = ring.slotOf(sequence).clear();
+            if (future != null) future.completeExceptionally(writerFailure);
+        }
+    }
+
+    @Override public boolean contains(Item item) {
+        return published.slotOf(item.barcode()) != PublishedStock.NOT_FOUND;
+    }
+
+    @Override public void create(Item item) { join(submitCreate(item)); }
+
+    @Override public void replaceQuantity(Item item, int quantity) { join(submitReplaceQuantity(item, quantity)); }
+
+    @Override public int adjustQuantity(Item item, int delta, boolean floorAtZero) {
+        return join(submitAdjustQuantity(item, delta, floorAtZero));
+    }
+
+    @Override public StockMovementsReport applyMovements(StockMovements movements) {
+        return join(submitMovements(movements));
+    }
+
+    @Override public StockMovementsReport applyMovementsIfAvailable(StockMovements movements) {
+        return join(submitMovementsIfAvailable(movements));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw e;
+        }
+    }
+
+    @Override public int getQuantity(Item item) {
+        PublishedStock state = published;
+        int slot = state.slotOf(item.barcode());
+        if (slot == PublishedStock.NOT_FOUND) throw new ItemNotFoundException(item);
+
+        return state.quantityAt(slot);
+    }
+
+    @Override public Item getByBarcode(long barcode) {
+        PublishedStock state = published;
+        int slot = state.slotOf(barcode);
+        if (slot == PublishedStock.NOT_FOUND) throw new ItemNotFoundException(barcode);
+
+        return state.itemAt(slot);
+    }
+
+    @Override public Items getAll() { return published.toItems(); }
+
+    @Override public Price getTotalValue() { return published.totalValue(); }
+
+    @Override public void addListener(StockChangeListener listener) { stock.addListener(listener); }
+
+    @Override public void removeListener(StockChangeListener listener) { stock.removeListener(listener); }
+
+    /**
+     * Stops accepting commands and waits until every command submitted before has been applied.
+     */
+    @Override public void close() {
+        ring.close();
+
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.google.auto.value.AutoValue;
+
+/**
+ * A change to the stock, as emitted to the {@link com.akikanellis.kata01.stock.StockChangeListener} elements of a
+ * {@link com.akikanellis.kata01.stock.StockRepository}. A change carries both the quantity before and after it, so
+ * consumers can keep derived state up to date without reading the stock back.
+ * <p>
+ * For example {@code StockChange.quantityChanged(apple, 10, 7)} is emitted when 3 apples are removed from the stock.
+ */
+@AutoValue
+public abstract class StockChange {
+
+    /**
+     * The kind of a {@link com.akikanellis.kata01.stock.StockChange}.
+     */
+    public enum Type {
+        /** A new item was created with a quantity of zero. */
+        CREATED,
+        /** The quantity of an existing item changed. */
+        QUANTITY_CHANGED
+    }
+
+    /**
+     * Creates a change for a newly created item.
+     *
+     * @param item the item that was created
+     * @return the change
+     */
+    public static StockChange created(Item item) { return new AutoValue_StockChange(Type.CREATED, item, 0, 0); }
+
+    /**
+     * Creates a change for an item whose quantity changed.
+     *
+     * @param item        the item whose quantity changed
+     * @param oldQuantity the quantity before the change
+     * @param newQuantity the quantity after the change
+     * @return the change
+     */
+    public static StockChange quantityChanged(Item item, int oldQuantity, int newQuantity) {
+        return new AutoValue_StockChange(Type.QUANTITY_CHANGED, item, oldQuantity, newQuantity);
+    }
+
+    /**
+     * @return the kind of the change
+     */
+    public abstract Type type();
+
+    /**
+     * @return the item that changed
+     */
+    public abstract Item item();
+
+    /**
+     * @return the quantity of the item before the change
+     */
+    public abstract int oldQuantity();
+
+    /**
+     * @return the quantity of the item after the change
+     */
+    public abstract int newQuantity();
+
+    /**
+     * @return the difference between the new and the old quantity
+     */
+    public int delta() { return newQuantity() - oldQuantity(); }
+}
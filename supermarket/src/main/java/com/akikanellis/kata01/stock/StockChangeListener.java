@@ -0,0 +1,21 @@
+package com.akikanellis.kata01.stock;
+
+import java.util.List;
+
+/**
+ * Receives the changes of a {@link com.akikanellis.kata01.stock.StockRepository}.
+ * <p>
+ * Listeners added to a repository are called synchronously by the thread making the change, so they should return
+ * quickly. Slow listeners can be wrapped in an {@link com.akikanellis.kata01.stock.AsyncStockChangeListener}, which
+ * delivers the changes in batches from its own thread.
+ */
+@FunctionalInterface
+public interface StockChangeListener {
+
+    /**
+     * Called with one or more changes, in the order they were made for each item.
+     *
+     * @param changes the changes, never empty
+     */
+    void onChanges(List<StockChange> changes);
+}
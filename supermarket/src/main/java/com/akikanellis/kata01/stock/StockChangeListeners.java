@@ -0,0 +1,34 @@
+package com.akikanellis.kata01.stock;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNull;
+
+/**
+ * The listeners of a {@link com.akikanellis.kata01.stock.StockRepository}. Listeners can be added and removed while
+ * changes are being published. Publishing with no listeners does nothing, so repositories check
+ * {@link #isEmpty()} before building a change.
+ */
+final class StockChangeListeners {
+    private final List<StockChangeListener> listeners;
+
+    StockChangeListeners() { this.listeners = new CopyOnWriteArrayList<>(); }
+
+    void add(StockChangeListener listener) { listeners.add(checkNotNull(listener)); }
+
+    void remove(StockChangeListener listener) { listeners.remove(listener); }
+
+    boolean isEmpty() { return listeners.isEmpty(); }
+
+    void publish(StockChange change) { publish(Collections.singletonList(change)); }
+
+    void publish(List<StockChange> changes) {
+        if (changes.isEmpty()) return;
+
+        for (StockChangeListener listener : listeners) {
+            listener.onChanges(changes);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.price.Price;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilities for the binary encoding of the stock in the journal and the snapshots.
+ */
+final class StockCodec {
+
+    private StockCodec() { throw new AssertionError("No instances."); }
+
+    static void writeItem(DataOutput out, Item item) throws IOException {
+        out.writeLong(item.barcode());
+        writeString(out, item.name());
+        writePrice(out, item.price());
+    }
+
+    static Item readItem(DataInput in) throws IOException {
+        return Item.builder()
+                .barcode(in.readLong())
+                .name(readString(in))
+                .price(readPrice(in))
+                .build();
+    }
+
+    private static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writePrice(DataOutput out, Price price) throws IOException {
+        BigDecimal amount = price.asBigDecimal();
+        byte[] unscaledValue = amount.unscaledValue().toByteArray();
+
+        out.writeInt(amount.scale());
+        out.writeInt(unscaledValue.length);
+        out.write(unscaledValue);
+    }
+
+    private static Price readPrice(DataInput in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaledValue = new byte[in.readInt()];
+        in.readFully(unscaledValue);
+
+        return Price.of(new BigDecimal(new BigInteger(unscaledValue), scale));
+    }
+}
@@ -0,0 +1,76 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A change submitted to a {@link com.akikanellis.kata01.stock.SingleWriterStockRepository}. Commands are the slots of
+ * its ring buffer, so they are allocated once and filled in again for every change.
+ */
+final class StockCommand {
+    private Type type;
+    private Item item;
+    private int quantity;
+    private boolean floorAtZero;
+    private StockMovements movements;
+    private CompletableFuture<Object> future;
+
+    /**
+     * Fills the command in with a new change.
+     *
+     * @param type        the type of the change
+     * @param item        the item to change, null for movements
+     * @param quantity    the new quantity or the quantity to add
+     * @param floorAtZero whether the quantity stops at zero when reducing
+     * @param movements   the movements to apply, null for the other types
+     * @return the future of the result of the change
+     */
+    CompletableFuture<Object> fill(Type type, Item item, int quantity, boolean floorAtZero, StockMovements movements) {
+        this.type = type;
+        this.item = item;
+        this.quantity = quantity;
+        this.floorAtZero = floorAtZero;
+        this.movements = movements;
+        this.future = new CompletableFuture<>();
+
+        return future;
+    }
+
+    Object applyTo(StockRepository stock) {
+        if (type == null) throw new IllegalStateException("The command was never filled in");
+
+        switch (type) {
+            case CREATE:
+                stock.create(item);
+                return null;
+            case REPLACE_QUANTITY:
+                stock.replaceQuantity(item, quantity);
+                return null;
+            case ADJUST_QUANTITY:
+                return stock.adjustQuantity(item, quantity, floorAtZero);
+            case APPLY_MOVEMENTS:
+                return stock.applyMovements(movements);
+            case APPLY_MOVEMENTS_IF_AVAILABLE:
+                return stock.applyMovementsIfAvailable(movements);
+            default:
+                throw new IllegalStateException("Unknown command " + type);
+        }
+    }
+
+    /**
+     * Clears the command, so that its slot doesn't hold on to the change, and returns the future of its result.
+     *
+     * @return the future of the result of the change or null if the command was never filled in
+     */
+    CompletableFuture<Object> clear() {
+        CompletableFuture<Object> result = future;
+        item = null;
+        movements = null;
+        future = null;
+
+        return result;
+    }
+
+    enum Type { CREATE, REPLACE_QUANTITY, ADJUST_QUANTITY, APPLY_MOVEMENTS, APPLY_MOVEMENTS_IF_AVAILABLE }
+}
@@ -15,6 +15,7 @@ public class StockFacade {
     private final FindItemByBarcodeUseCase findItemByBarcode;
     private final FillStockUseCase fillStock;
     private final ReduceStockUseCase reduceStock;
+    private final ApplyStockMovementsUseCase applyStockMovements;
     private final GetStockUseCase getStock;
     private final FindOfferStrategyByIdUseCase findOfferStrategyById;
     private final AddOfferStrategyUseCase addOfferStrategy;
@@ -24,19 +25,23 @@ public class StockFacade {
     private final GetOffersValueUseCase getOffersValue;
     private final GetStockValueBeforeOffersUseCase getStockValueBeforeOffers;
     private final GetStockValueAfterOffersUseCase getStockValueAfterOffers;
+    private final GetStockValuationUseCase getStockValuation;
 
     public StockFacade(AddNewItemIfNotExistsUseCase addNewItemIfNotExists, FindItemByBarcodeUseCase findItemByBarcode,
-                       FillStockUseCase fillStock, ReduceStockUseCase reduceStock, GetStockUseCase getStock,
+                       FillStockUseCase fillStock, ReduceStockUseCase reduceStock,
+                       ApplyStockMovementsUseCase applyStockMovements, GetStockUseCase getStock,
                        FindOfferStrategyByIdUseCase findOfferStrategyById, AddOfferStrategyUseCase addOfferStrategy,
                        RemoveOfferStrategyUseCase removeOfferStrategy,
                        GetActiveOfferStrategiesUseCase getActiveOfferStrategies,
                        GetApplicableOffersUseCase getApplicableOffers, GetOffersValueUseCase getOffersValue,
                        GetStockValueBeforeOffersUseCase getStockValueBeforeOffers,
-                       GetStockValueAfterOffersUseCase getStockValueAfterOffers) {
+                       GetStockValueAfterOffersUseCase getStockValueAfterOffers,
+                       GetStockValuationUseCase getStockValuation) {
         this.addNewItemIfNotExists = addNewItemIfNotExists;
         this.findItemByBarcode = findItemByBarcode;
         this.fillStock = fillStock;
         this.reduceStock = reduceStock;
+        this.applyStockMovements = applyStockMovements;
         this.getStock = getStock;
         this.findOfferStrategyById = findOfferStrategyById;
         this.addOfferStrategy = addOfferStrategy;
@@ -46,6 +51,7 @@ public class StockFacade {
         this.getOffersValue = getOffersValue;
         this.getStockValueBeforeOffers = getStockValueBeforeOffers;
         this.getStockValueAfterOffers = getStockValueAfterOffers;
+        this.getStockValuation = getStockValuation;
     }
 
     /**
@@ -77,6 +83,17 @@ public class StockFacade {
         reduceStock.execute(item, quantity);
     }
 
+    /**
+     * Applies a whole batch of fill and reduce movements. Lines that can't be applied, like the ones with unknown
+     * barcodes, are reported without aborting the rest of the batch.
+     *
+     * @param movements the movements to apply
+     * @return the report of the applied and failed lines
+     */
+    public StockMovementsReport applyMovements(StockMovements movements) {
+        return applyStockMovements.execute(movements);
+    }
+
     /**
      * Gives access to the whole item stock.
      *
@@ -135,4 +152,12 @@ public class StockFacade {
      * @return the total value of the stock after the offers
      */
     public Price getStockValueAfterOffers() { return getStockValueAfterOffers.execute(); }
+
+    /**
+     * Returns the value of the stock before and after applying the offers, along with the value of each offer
+     * strategy, all calculated from the same state of the stock.
+     *
+     * @return the valuation of the stock
+     */
+    public StockValuation getStockValuation() { return getStockValuation.execute(); }
 }
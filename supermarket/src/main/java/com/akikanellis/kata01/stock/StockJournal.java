@@ -0,0 +1,389 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.QuantifiedItem;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only, binary write-ahead journal of stock changes. The journal is split into numbered segments so that the
+ * segments covered by a snapshot can be deleted as a whole.
+ * <p>
+ * Each record is framed as {@code [length][type][payload][crc32]}. Records are buffered and group-committed with a
+ * single write and fsync once a batch is full or when {@link #sync()} is called. A torn or corrupted record at the end
+ * of a segment, left by a crash in the middle of a write, is truncated away during the replay.
+ * <p>
+ * An append either fully succeeds or leaves nothing behind: if the group commit it triggers fails, its records are
+ * dropped from the batch and whatever reached the segment is truncated away, so a change whose append threw is never
+ * replayed. Creating a segment, or deleting one, is followed by an fsync of the directory.
+ * <p>
+ * Note: This class is not thread-safe, except for {@link #force()} which can run while records are appended.
+ */
+final class StockJournal implements Closeable {
+    private static final byte CREATE = 1;
+    private static final byte QUANTITY = 2;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte[] NO_RECORD = new byte[0];
+
+    private final Path directory;
+    private final int syncBatchSize;
+    private final ByteArrayOutputStream record;
+    private final DataOutputStream recordOut;
+    private final PendingRecords pending;
+    private final DataOutputStream pendingOut;
+    private final CRC32 crc;
+    private FileChannel channel;
+    private long segment;
+    private int pendingRecords;
+
+    private StockJournal(Path directory, long segment, int syncBatchSize) throws IOException {
+        this.directory = directory;
+        this.syncBatchSize = syncBatchSize;
+        this.record = new ByteArrayOutputStream();
+        this.recordOut = new DataOutputStream(record);
+        this.pending = new PendingRecords();
+        this.pendingOut = new DataOutputStream(pending);
+        this.crc = new CRC32();
+        this.segment = segment;
+        this.channel = openSegment(directory, segment);
+        this.pendingRecords = 0;
+    }
+
+    /**
+     * Opens the given segment for appending, creating it if needed.
+     *
+     * @param directory     the directory of the journal
+     * @param segment       the segment to append to
+     * @param syncBatchSize the number of records to group-commit together
+     * @return the opened journal
+     * @throws IOException if the segment can't be opened
+     */
+    static StockJournal open(Path directory, long segment, int syncBatchSize) throws IOException {
+        return new StockJournal(directory, segment, syncBatchSize);
+    }
+
+    private static FileChannel openSegment(Path directory, long segment) throws IOException {
+        Path path = segmentPath(directory, segment);
+        boolean isNew = !Files.exists(path);
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (isNew) syncDirectory(directory);
+
+        return channel;
+    }
+
+    /**
+     * Forces the entries of the directory to the storage device, so that a file created, renamed or deleted in it
+     * stays that way after a crash.
+     *
+     * @param directory the directory to sync
+     * @throws IOException if the directory can't be synced
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows can't open a directory, its file system makes the entries durable along with the files.
+            return;
+        }
+    }
+
+    private static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Returns the numbers of all the segments in the directory, in ascending order.
+     *
+     * @param directory the directory of the journal
+     * @return the numbers of the segments
+     * @throws IOException if the directory can't be listed
+     */
+    static List<Long> segments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = String.valueOf(file.getFileName());
+                segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        Collections.sort(segments);
+
+        return segments;
+    }
+
+    /**
+     * Deletes all the segments before the given one.
+     *
+     * @param directory the directory of the journal
+     * @param segment   the first segment to keep
+     * @throws IOException if a segment can't be deleted
+     */
+    static void deleteSegmentsBefore(Path directory, long segment) throws IOException {
+        for (long existingSegment : segments(directory)) {
+            if (existingSegment < segment) Files.deleteIfExists(segmentPath(directory, existingSegment));
+        }
+        syncDirectory(directory);
+    }
+
+    /**
+     * Replays all the valid records of a segment in order, truncating a torn or corrupted tail.
+     *
+     * @param directory the directory of the journal
+     * @param segment   the segment to replay
+     * @param listener  the listener of the replayed records
+     * @return the number of replayed records
+     * @throws IOException if the segment can't be read
+     */
+    static long replay(Path directory, long segment, ReplayListener listener) throws IOException {
+        Path path = segmentPath(directory, segment);
+        long length = Files.size(path);
+        long validLength = 0;
+        long records = 0;
+
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            byte[] body;
+            while ((body = readRecord(in, length - validLength)).length > 0) {
+                applyRecord(body, listener);
+                validLength += Integer.BYTES + body.length + Integer.BYTES;
+                records++;
+            }
+        }
+
+        if (length > validLength) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+        }
+
+        return records;
+    }
+
+    /**
+     * Reads the body of the next record, checking its length against the bytes left in the segment so that a corrupted
+     * length is treated as the end of the journal.
+     *
+     * @param in        the stream of the segment
+     * @param available the number of bytes left in the segment
+     * @return the body of the record or an empty array if there are no more valid records
+     * @throws IOException if the segment can't be read
+     */
+    private static byte[] readRecord(DataInputStream in, long available) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length <= 0 || length > available - 2 * Integer.BYTES) return NO_RECORD;
+
+            byte[] body = new byte[length];
+            in.readFully(body);
+            int expectedCrc = in.readInt();
+
+            CRC32 crc = new CRC32();
+            crc.update(body, 0, body.length);
+            return (int) crc.getValue() == expectedCrc ? body : NO_RECORD;
+        } catch (EOFException e) {
+            return NO_RECORD;
+        }
+    }
+
+    private static void applyRecord(byte[] body, ReplayListener listener) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        if (type == CREATE) {
+            listener.created(StockCodec.readItem(in));
+        } else if (type == QUANTITY) {
+            listener.quantityReplaced(in.readLong(), in.readInt());
+        } else {
+            throw new IOException(String.format("Unknown journal record type [%s]", type));
+        }
+    }
+
+    /**
+     * Appends the creation of an item.
+     *
+     * @param item the created item
+     * @throws IOException if the batch was full and could not be committed, in which case the record was dropped
+     */
+    void appendCreate(Item item) throws IOException {
+        int rollbackSize = pending.size();
+        record.reset();
+        recordOut.writeByte(CREATE);
+        StockCodec.writeItem(recordOut, item);
+        addRecord();
+
+        syncIfBatchFull(rollbackSize, 1);
+    }
+
+    /**
+     * Appends the new quantity of an item.
+     *
+     * @param barcode  the barcode of the item
+     * @param quantity the new quantity of the item
+     * @throws IOException if the batch was full and could not be committed, in which case the record was dropped
+     */
+    void appendQuantity(long barcode, int quantity) throws IOException {
+        int rollbackSize = pending.size();
+        addQuantity(barcode, quantity);
+
+        syncIfBatchFull(rollbackSize, 1);
+    }
+
+    /**
+     * Appends the new quantities of many items, all of them or none.
+     *
+     * @param quantities the items along with their new quantities
+     * @throws IOException if the batch was full and could not be committed, in which case all the records were dropped
+     */
+    void appendQuantities(List<QuantifiedItem> quantities) throws IOException {
+        int rollbackSize = pending.size();
+        for (QuantifiedItem quantifiedItem : quantities) {
+            addQuantity(quantifiedItem.item().barcode(), quantifiedItem.quantity());
+        }
+
+        syncIfBatchFull(rollbackSize, quantities.size());
+    }
+
+    private void addQuantity(long barcode, int quantity) throws IOException {
+        record.reset();
+        recordOut.writeByte(QUANTITY);
+        recordOut.writeLong(barcode);
+        recordOut.writeInt(quantity);
+        addRecord();
+    }
+
+    private void addRecord() throws IOException {
+        byte[] body = record.toByteArray();
+        crc.reset();
+        crc.update(body, 0, body.length);
+
+        pendingOut.writeInt(body.length);
+        pendingOut.write(body);
+        pendingOut.writeInt((int) crc.getValue());
+        pendingRecords++;
+    }
+
+    private void syncIfBatchFull(int rollbackSize, int records) throws IOException {
+        if (pendingRecords < syncBatchSize) return;
+
+        try {
+            sync();
+        } catch (IOException e) {
+            pending.truncate(rollbackSize);
+            pendingRecords -= records;
+            throw e;
+        }
+    }
+
+    /**
+     * Writes all the pending records to the current segment and forces them to the storage device. If either fails,
+     * the segment is truncated back and the records stay pending.
+     *
+     * @throws IOException if the records can't be written
+     */
+    void sync() throws IOException { writePending(true); }
+
+    /**
+     * Writes all the pending records to the current segment without forcing them to the storage device, see
+     * {@link #force()}. If the write fails, the segment is truncated back and the records stay pending.
+     *
+     * @throws IOException if the records can't be written
+     */
+    void write() throws IOException { writePending(false); }
+
+    private void writePending(boolean force) throws IOException {
+        if (pendingRecords == 0) return;
+
+        long sizeBefore = channel.size();
+        try {
+            pending.writeTo(Channels.newOutputStream(channel));
+            if (force) channel.force(false);
+        } catch (IOException e) {
+            truncate(sizeBefore, e);
+            throw e;
+        }
+
+        pending.reset();
+        pendingRecords = 0;
+    }
+
+    private void truncate(long size, IOException failure) {
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Forces everything written to the current segment to the storage device. This is the only operation that may run
+     * while other threads append, as long as the segment is not rolled in the meantime.
+     *
+     * @throws IOException if the segment can't be forced
+     */
+    void force() throws IOException { channel.force(false); }
+
+    /**
+     * Syncs the current segment and continues appending into a new one.
+     *
+     * @return the number of the new segment
+     * @throws IOException if the segments can't be switched
+     */
+    long roll() throws IOException {
+        sync();
+        channel.close();
+
+        segment++;
+        channel = openSegment(directory, segment);
+
+        return segment;
+    }
+
+    @Override public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * The records waiting to be group-committed, which can be truncated back to drop the records of a failed append.
+     */
+    private static final class PendingRecords extends ByteArrayOutputStream {
+
+        private void truncate(int size) { count = size; }
+    }
+
+    /**
+     * A listener of the records replayed from the journal.
+     */
+    interface ReplayListener {
+
+        void created(Item item);
+
+        void quantityReplaced(long barcode, int quantity);
+    }
+}
@@ -0,0 +1,64 @@
+package com.akikanellis.kata01.stock;
+
+import com.google.auto.value.AutoValue;
+
+import static com.akikanellis.kata01.utils.Preconditions.checkNotNegative;
+
+/**
+ * A single line of a stock feed, changing the quantity of the item with the given barcode. A positive quantity fills
+ * the stock and a negative one reduces it, in which case the stock never drops below zero.
+ * <p>
+ * For example {@code StockMovement.reduce(1, 5)} reduces the quantity of the item with barcode 1 by 5.
+ */
+@AutoValue
+public abstract class StockMovement {
+
+    /**
+     * Creates a movement that increases the quantity of an item.
+     *
+     * @param barcode  the barcode of the item
+     * @param quantity the quantity to increase by, can't be negative
+     * @return the movement
+     */
+    public static StockMovement fill(long barcode, int quantity) {
+        checkNotNegative(quantity);
+
+        return new AutoValue_StockMovement(barcode, quantity);
+    }
+
+    /**
+     * Creates a movement that decreases the quantity of an item.
+     *
+     * @param barcode  the barcode of the item
+     * @param quantity the quantity to decrease by, can't be negative
+     * @return the movement
+     */
+    public static StockMovement reduce(long barcode, int quantity) {
+        checkNotNegative(quantity);
+
+        return new AutoValue_StockMovement(barcode, -quantity);
+    }
+
+    /**
+     * @return the barcode of the item to move
+     */
+    public abstract long barcode();
+
+    /**
+     * The signed quantity of the movement, positive when filling and negative when reducing the stock.
+     *
+     * @return the signed quantity of the movement
+     */
+    public abstract int quantity();
+
+    /**
+     * Applies this movement on top of the given quantity.
+     *
+     * @param currentQuantity the quantity before the movement
+     * @return the quantity after the movement
+     */
+    public int applyTo(int currentQuantity) {
+        boolean isReduction = quantity() < 0;
+        return StockQuantities.adjust(currentQuantity, quantity(), isReduction);
+    }
+}
@@ -0,0 +1,60 @@
+package com.akikanellis.kata01.stock;
+
+import com.google.auto.value.AutoValue;
+
+/**
+ * Represents a line of a {@link com.akikanellis.kata01.stock.StockMovements} batch that could not be applied.
+ */
+@AutoValue
+public abstract class StockMovementFailure {
+
+    public static StockMovementFailure itemNotFound(int line, StockMovement movement) {
+        return new AutoValue_StockMovementFailure(line, movement, Type.ITEM_NOT_FOUND, 0);
+    }
+
+    /**
+     * Creates the failure of a line which would reduce the quantity of its item below zero.
+     *
+     * @param line              the line of the movement in its batch
+     * @param movement          the movement that could not be applied
+     * @param availableQuantity the quantity of the item the movement would have been applied on top of
+     * @return the failure
+     */
+    public static StockMovementFailure insufficientStock(int line, StockMovement movement, int availableQuantity) {
+        return new AutoValue_StockMovementFailure(line, movement, Type.INSUFFICIENT_STOCK, availableQuantity);
+    }
+
+    /**
+     * @return the line of the movement in its batch
+     */
+    public abstract int line();
+
+    /**
+     * @return the movement that could not be applied
+     */
+    public abstract StockMovement movement();
+
+    /**
+     * @return why the movement could not be applied
+     */
+    public abstract Type type();
+
+    /**
+     * @return the quantity of the item the movement would have been applied on top of, zero if the item was not found
+     */
+    public abstract int availableQuantity();
+
+    /**
+     * @return a description of why the movement could not be applied
+     */
+    public String reason() {
+        if (type() == Type.ITEM_NOT_FOUND) {
+            return String.format("The item was not found. Barcode was [%s]", movement().barcode());
+        }
+
+        return String.format("There is not enough stock of the item. Barcode was [%s], requested [%s], available [%s]",
+                movement().barcode(), -movement().quantity(), availableQuantity());
+    }
+
+    public enum Type { ITEM_NOT_FOUND, INSUFFICIENT_STOCK }
+}
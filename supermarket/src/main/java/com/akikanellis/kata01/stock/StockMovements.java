@@ -0,0 +1,132 @@
+package com.akikanellis.kata01.stock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A representation of an ordered batch of {@link com.akikanellis.kata01.stock.StockMovement} elements. Each movement
+ * is identified by its line, which is its position in the batch.
+ */
+public final class StockMovements {
+    private final List<StockMovement> movements;
+
+    private StockMovements(Collection<StockMovement> movements) { this.movements = new ArrayList<>(movements); }
+
+    public static StockMovements fromCollection(Collection<StockMovement> movements) {
+        return new StockMovements(movements);
+    }
+
+    public static StockMovements empty() { return fromCollection(Collections.emptyList()); }
+
+    public boolean isEmpty() { return movements.isEmpty(); }
+
+    public int size() { return movements.size(); }
+
+    public StockMovement get(int line) { return movements.get(line); }
+
+    public List<StockMovement> asList() { return new ArrayList<>(movements); }
+
+    public Stream<StockMovement> stream() { return movements.stream(); }
+
+    /**
+     * Groups the lines of the batch by their barcode. The barcodes are in order of their first appearance and the lines
+     * of each barcode are in their original order, so applying them group by group gives the same quantities as
+     * applying them one by one.
+     *
+     * @return the lines of each barcode
+     */
+    public Map<Long, List<Integer>> linesByBarcode() {
+        Map<Long, List<Integer>> linesByBarcode = new LinkedHashMap<>();
+        for (int line = 0; line < movements.size(); line++) {
+            linesByBarcode.computeIfAbsent(movements.get(line).barcode(), barcode -> new ArrayList<>())
+                    .add(line);
+        }
+
+        return linesByBarcode;
+    }
+
+    /**
+     * Applies the given lines one after the other on top of the given quantity.
+     *
+     * @param currentQuantity the quantity before the movements
+     * @param lines           the lines of the movements to apply
+     * @return the quantity after the movements
+     */
+    public int applyTo(int currentQuantity, List<Integer> lines) {
+        int newQuantity = currentQuantity;
+        for (int line : lines) {
+            newQuantity = movements.get(line).applyTo(newQuantity);
+        }
+
+        return newQuantity;
+    }
+
+    /**
+     * Applies the batch with the given action only if all of it is available, see
+     * {@link com.akikanellis.kata01.stock.StockRepository#applyMovementsIfAvailable(StockMovements)}. The caller must
+     * keep the stock from changing in between.
+     *
+     * @param quantityOf the current quantity of the item with the given barcode, null if there is no such item
+     * @param apply      the action applying the whole batch
+     * @return the report of the action or of the lines which are not available
+     */
+    StockMovementsReport applyIfAvailable(LongFunction<Integer> quantityOf,
+                                          Function<StockMovements, StockMovementsReport> apply) {
+        List<StockMovementFailure> failures = unavailableLines(quantityOf);
+        if (!failures.isEmpty()) return StockMovementsReport.create(0, failures);
+
+        return apply.apply(this);
+    }
+
+    /**
+     * Finds the lines which keep the batch from being applied as a whole: every line whose item does not exist and the
+     * first line of each item which would reduce its quantity below zero.
+     *
+     * @param quantityOf the current quantity of the item with the given barcode, null if there is no such item
+     * @return the failures of the lines which are not available, empty if the whole batch is
+     */
+    List<StockMovementFailure> unavailableLines(LongFunction<Integer> quantityOf) {
+        List<StockMovementFailure> failures = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> barcodeLines : linesByBarcode().entrySet()) {
+            List<Integer> lines = barcodeLines.getValue();
+            Integer currentQuantity = quantityOf.apply(barcodeLines.getKey());
+            if (currentQuantity == null) {
+                lines.forEach(line -> failures.add(StockMovementFailure.itemNotFound(line, movements.get(line))));
+                continue;
+            }
+
+            StockMovementFailure failure = firstUnavailable(currentQuantity, lines);
+            if (failure != null) failures.add(failure);
+        }
+
+        return failures;
+    }
+
+    /**
+     * Finds the first of the given lines which would reduce the quantity below zero when applying them one after the
+     * other on top of the given quantity.
+     *
+     * @param currentQuantity the quantity before the movements
+     * @param lines           the lines of the movements to check
+     * @return the failure of the first such line or null if every line is available
+     */
+    StockMovementFailure firstUnavailable(int currentQuantity, List<Integer> lines) {
+        int newQuantity = currentQuantity;
+        for (int line : lines) {
+            StockMovement movement = movements.get(line);
+            if ((long) newQuantity + movement.quantity() < 0) {
+                return StockMovementFailure.insufficientStock(line, movement, newQuantity);
+            }
+            newQuantity = movement.applyTo(newQuantity);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.akikanellis.kata01.stock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The outcome of applying a {@link com.akikanellis.kata01.stock.StockMovements} batch. The failed lines did not change
+ * the stock while all the rest were applied.
+ */
+public final class StockMovementsReport {
+    private final int appliedCount;
+    private final List<StockMovementFailure> failures;
+
+    private StockMovementsReport(int appliedCount, Collection<StockMovementFailure> failures) {
+        this.appliedCount = appliedCount;
+        this.failures = new ArrayList<>(failures);
+        this.failures.sort(Comparator.comparingInt(StockMovementFailure::line));
+    }
+
+    public static StockMovementsReport create(int appliedCount, Collection<StockMovementFailure> failures) {
+        return new StockMovementsReport(appliedCount, failures);
+    }
+
+    public static StockMovementsReport empty() { return create(0, Collections.emptyList()); }
+
+    /**
+     * @return the number of lines that were applied
+     */
+    public int appliedCount() { return appliedCount; }
+
+    /**
+     * @return the lines that could not be applied, ordered by line
+     */
+    public List<StockMovementFailure> failures() { return new ArrayList<>(failures); }
+
+    public boolean hasFailures() { return !failures.isEmpty(); }
+}
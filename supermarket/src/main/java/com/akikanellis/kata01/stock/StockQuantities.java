@@ -0,0 +1,15 @@
+package com.akikanellis.kata01.stock;
+
+/**
+ * Utilities regarding the calculation of stock quantities.
+ */
+final class StockQuantities {
+
+    private StockQuantities() { throw new AssertionError("No instances."); }
+
+    static int adjust(int currentQuantity, int delta, boolean floorAtZero) {
+        int newQuantity = currentQuantity + delta;
+
+        return floorAtZero && newQuantity < 0 ? 0 : newQuantity;
+    }
+}
@@ -2,6 +2,7 @@ package com.akikanellis.kata01.stock;
 
 import com.akikanellis.kata01.item.Item;
 import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
 
 /**
  * A repository holding {@link com.akikanellis.kata01.item.Item} elements.
@@ -32,6 +33,40 @@ public interface StockRepository {
      */
     void replaceQuantity(Item item, int quantity);
 
+    /**
+     * Atomically adds the given delta to an item's quantity or throws an exception if the item does not exist. No other
+     * change to the same item's quantity can be lost in between reading and writing it.
+     *
+     * @param item        the item to adjust the quantity of
+     * @param delta       the amount to add to the quantity, negative to subtract
+     * @param floorAtZero if true then a quantity that would become negative becomes zero instead
+     * @return the new quantity of the item
+     * @throws com.akikanellis.kata01.item.ItemNotFoundException if the item does not exist in the repository
+     */
+    int adjustQuantity(Item item, int delta, boolean floorAtZero);
+
+    /**
+     * Applies a batch of movements, grouped by barcode so that each item is looked up and written once. The lines of
+     * an item are applied in their original order. Lines whose item does not exist are reported as failures and do not
+     * stop the rest of the batch.
+     *
+     * @param movements the movements to apply
+     * @return the report of the applied and failed lines
+     */
+    StockMovementsReport applyMovements(StockMovements movements);
+
+    /**
+     * Atomically applies a batch of movements only if all of it is available, that is if every item exists and no line
+     * reduces a quantity below zero when the lines of each item are applied in their original order. Otherwise nothing
+     * is applied and the report holds the lines that are not available: every line whose item does not exist and the
+     * first line of each item that would reduce its quantity below zero. No other change can take the stock a line was
+     * checked against before the batch is applied.
+     *
+     * @param movements the movements to apply
+     * @return the report of either all the lines applied or the lines that are not available
+     */
+    StockMovementsReport applyMovementsIfAvailable(StockMovements movements);
+
     /**
      * Returns an item's quantity or throws an exception if the item does not exist.
      *
@@ -55,4 +90,27 @@ public interface StockRepository {
      * @return all the items in the repository. If there are no items then this returns an empty representation
      */
     Items getAll();
+
+    /**
+     * Returns the total value of the stock, that is the sum of each item's price multiplied by its quantity. The total
+     * is maintained as quantities change, so getting it does not go through every item.
+     *
+     * @return the total value of the stock, {@link com.akikanellis.kata01.price.Price#ZERO} if there are no items
+     */
+    Price getTotalValue();
+
+    /**
+     * Adds a listener to be notified of every item created and every quantity that changed from then on. Changes that
+     * leave a quantity as it was are not emitted.
+     *
+     * @param listener the listener to add
+     */
+    void addListener(StockChangeListener listener);
+
+    /**
+     * Removes a listener previously added, if present.
+     *
+     * @param listener the listener to remove
+     */
+    void removeListener(StockChangeListener listener);
 }
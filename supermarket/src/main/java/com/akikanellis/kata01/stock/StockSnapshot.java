@@ -0,0 +1,105 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact, point-in-time image of the stock along with the first journal segment that is not included in it. A
+ * snapshot is written into a temporary file which then atomically replaces the previous snapshot, so there is always
+ * one complete snapshot at most. The directory is synced after the replacement, so that the new snapshot is durable
+ * before the journal it covers is deleted.
+ */
+final class StockSnapshot {
+    private static final int MAGIC = 0x53544F4B;
+    private static final String FILE_NAME = "stock.snapshot";
+    private static final String TEMPORARY_FILE_NAME = FILE_NAME + ".tmp";
+
+    private final List<QuantifiedItem> quantifiedItems;
+    private final long nextSegment;
+
+    private StockSnapshot(List<QuantifiedItem> quantifiedItems, long nextSegment) {
+        this.quantifiedItems = quantifiedItems;
+        this.nextSegment = nextSegment;
+    }
+
+    /**
+     * Writes a new snapshot of the given items.
+     *
+     * @param directory   the directory of the snapshot
+     * @param items       the items of the snapshot
+     * @param nextSegment the first journal segment not included in the items
+     * @throws IOException if the snapshot can't be written
+     */
+    static void write(Path directory, Items items, long nextSegment) throws IOException {
+        Path temporaryFile = directory.resolve(TEMPORARY_FILE_NAME);
+
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            List<QuantifiedItem> quantifiedItems = items.asList();
+
+            out.writeInt(MAGIC);
+            out.writeLong(nextSegment);
+            out.writeInt(quantifiedItems.size());
+            for (QuantifiedItem quantifiedItem : quantifiedItems) {
+                StockCodec.writeItem(out, quantifiedItem.item());
+                out.writeInt(quantifiedItem.quantity());
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        Files.move(temporaryFile, directory.resolve(FILE_NAME),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        StockJournal.syncDirectory(directory);
+    }
+
+    /**
+     * Reads the latest snapshot, if there is one.
+     *
+     * @param directory the directory of the snapshot
+     * @return the latest snapshot or null if there is none
+     * @throws IOException if the snapshot can't be read
+     */
+    static StockSnapshot readLatest(Path directory) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) return null;
+
+        try (InputStream fileIn = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(String.format("Not a stock snapshot. File was [%s]", file));
+            }
+
+            long nextSegment = in.readLong();
+            int size = in.readInt();
+            List<QuantifiedItem> quantifiedItems = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Item item = StockCodec.readItem(in);
+                quantifiedItems.add(QuantifiedItem.create(item, in.readInt()));
+            }
+
+            return new StockSnapshot(quantifiedItems, nextSegment);
+        }
+    }
+
+    List<QuantifiedItem> quantifiedItems() { return quantifiedItems; }
+
+    long nextSegment() { return nextSegment; }
+}
@@ -0,0 +1,128 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+
+import java.util.stream.IntStream;
+
+/**
+ * An open-addressing hash table from a barcode to the slot holding its {@link com.akikanellis.kata01.item.Item} and
+ * quantity. The barcodes and quantities are kept in primitive arrays so that neither lookups nor quantity updates box
+ * anything. Collisions are resolved with linear probing and, since items are never removed from the stock, there is no
+ * need for tombstones.
+ * <p>
+ * Note: This class is not thread-safe.
+ */
+final class StockTable {
+    static final int NOT_FOUND = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] barcodes;
+    private Item[] items;
+    private int[] quantities;
+    private int size;
+
+    StockTable() { this(DEFAULT_CAPACITY); }
+
+    StockTable(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize * 2);
+        this.barcodes = new long[capacity];
+        this.items = new Item[capacity];
+        this.quantities = new int[capacity];
+        this.size = 0;
+    }
+
+    private static int tableSizeFor(int minimumCapacity) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < minimumCapacity) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    static int slotFor(long barcode, int mask) {
+        long hash = barcode * GOLDEN_RATIO;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the slot of the given barcode.
+     *
+     * @param barcode the barcode to look for
+     * @return the slot of the barcode or {@link #NOT_FOUND} if there is no such barcode
+     */
+    int indexOf(long barcode) {
+        int mask = barcodes.length - 1;
+        for (int slot = slotFor(barcode, mask); items[slot] != null; slot = (slot + 1) & mask) {
+            if (barcodes[slot] == barcode) return slot;
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * Inserts an item which must not already be contained, with the given quantity.
+     *
+     * @param item     the item to insert
+     * @param quantity the starting quantity of the item
+     * @return the slot the item was inserted into
+     */
+    int insert(Item item, int quantity) {
+        if ((size + 1) * 2 > barcodes.length) resize(barcodes.length * 2);
+
+        int slot = insertWithoutResizing(item, quantity);
+        size++;
+
+        return slot;
+    }
+
+    private int insertWithoutResizing(Item item, int quantity) {
+        int mask = barcodes.length - 1;
+        int slot = slotFor(item.barcode(), mask);
+        while (items[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+
+        barcodes[slot] = item.barcode();
+        items[slot] = item;
+        quantities[slot] = quantity;
+
+        return slot;
+    }
+
+    private void resize(int newCapacity) {
+        Item[] oldItems = items;
+        int[] oldQuantities = quantities;
+
+        barcodes = new long[newCapacity];
+        items = new Item[newCapacity];
+        quantities = new int[newCapacity];
+
+        for (int slot = 0; slot < oldItems.length; slot++) {
+            if (oldItems[slot] != null) insertWithoutResizing(oldItems[slot], oldQuantities[slot]);
+        }
+    }
+
+    Item itemAt(int slot) { return items[slot]; }
+
+    int quantityAt(int slot) { return quantities[slot]; }
+
+    void replaceQuantityAt(int slot, int quantity) { quantities[slot] = quantity; }
+
+    int size() { return size; }
+
+    /**
+     * Packages all the items along with their quantities.
+     *
+     * @return all the contained items
+     */
+    Items toItems() {
+        return IntStream.range(0, items.length)
+                .filter(slot -> items[slot] != null)
+                .mapToObj(slot -> QuantifiedItem.create(items[slot], quantities[slot]))
+                .collect(Items.collector());
+    }
+}
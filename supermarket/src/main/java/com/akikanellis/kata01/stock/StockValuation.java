@@ -0,0 +1,55 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.price.PriceAccumulator;
+import com.google.auto.value.AutoValue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The value of the stock before and after the offers, along with the value of the offers of each strategy. All of them
+ * are calculated from the same state of the stock.
+ */
+@AutoValue
+public abstract class StockValuation {
+
+    /**
+     * Creates a valuation, calculating the total value of the offers and the value of the stock after them.
+     *
+     * @param valueBeforeOffers     the value of the stock before the offers
+     * @param offersValueByStrategy the value of the offers of each strategy, keyed by the strategy id
+     * @return the valuation
+     */
+    public static StockValuation create(Price valueBeforeOffers, Map<Long, Price> offersValueByStrategy) {
+        Price offersValue = offersValueByStrategy.values().stream().collect(PriceAccumulator.summing());
+        Price valueAfterOffers = valueBeforeOffers.equals(Price.ZERO) ? Price.ZERO : valueBeforeOffers.add(offersValue);
+
+        return new AutoValue_StockValuation(valueBeforeOffers,
+                Collections.unmodifiableMap(new LinkedHashMap<>(offersValueByStrategy)), offersValue, valueAfterOffers);
+    }
+
+    /**
+     * @return the value of the stock before the offers
+     */
+    public abstract Price valueBeforeOffers();
+
+    /**
+     * The value of the offers of each strategy, keyed by the strategy id in ascending order. Strategies with no
+     * applicable offers have a value of zero.
+     *
+     * @return the value of the offers of each strategy
+     */
+    public abstract Map<Long, Price> offersValueByStrategy();
+
+    /**
+     * @return the total value of the offers of all the strategies
+     */
+    public abstract Price offersValue();
+
+    /**
+     * @return the value of the stock after the offers
+     */
+    public abstract Price valueAfterOffers();
+}
@@ -0,0 +1,44 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import org.junit.Test;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class BasketTest {
+    private final Item apple = createDefaultItemBuilder().barcode(1).name("Apple").build();
+    private final Item beans = createDefaultItemBuilder().barcode(2).name("Beans").build();
+
+    @Test public void building_withNoItems_returnsEmptyBasket() {
+        assertThat(Basket.builder().build().isEmpty()).isTrue();
+    }
+
+    @Test public void building_withSameItemScannedTwice_mergesItIntoFirstLine() {
+        Basket basket = Basket.builder()
+                .add(apple, 2)
+                .add(beans, 1)
+                .add(apple, 3)
+                .build();
+
+        assertThat(basket.size()).isEqualTo(2);
+        assertThat(basket.items().asList()).containsExactly(
+                QuantifiedItem.create(apple, 5),
+                QuantifiedItem.create(beans, 1));
+    }
+
+    @Test public void adding_withNotPositiveQuantity_throwsException() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> Basket.builder().add(apple, 0));
+    }
+
+    @Test public void adding_afterBuilding_throwsException() {
+        Basket.Builder builder = Basket.builder();
+        builder.build();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> builder.add(apple, 1));
+    }
+}
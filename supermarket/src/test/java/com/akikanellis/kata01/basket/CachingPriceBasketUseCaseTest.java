@@ -0,0 +1,99 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.InMemoryOfferStrategyRepository;
+import com.akikanellis.kata01.offer.OfferStrategy;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+import com.akikanellis.kata01.offer.Offers;
+import com.akikanellis.kata01.price.Price;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static com.akikanellis.kata01.test_utils.Fakes.createOffersWithPrices;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CachingPriceBasketUseCaseTest {
+    private final Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+    private final Item beans = createDefaultItemBuilder().barcode(2).price(Price.of(80)).build();
+    private final AtomicInteger calculations = new AtomicInteger();
+    private OfferStrategyRepository offerStrategies;
+    private CachingPriceBasketUseCase priceBasket;
+
+    @Before public void beforeEach() {
+        offerStrategies = new InMemoryOfferStrategyRepository();
+        offerStrategies.add(createCountingOfferStrategy(1));
+        priceBasket = new CachingPriceBasketUseCase(offerStrategies, 2);
+    }
+
+    @Test public void executing_withSameLinesInDifferentOrder_pricesBasketOnce() {
+        Basket basket = Basket.builder().add(apple, 2).add(beans, 1).build();
+        Basket reorderedBasket = Basket.builder().add(beans, 1).add(apple, 1).add(apple, 1).build();
+
+        BasketPrice price = priceBasket.execute(basket);
+        BasketPrice cachedPrice = priceBasket.execute(reorderedBasket);
+
+        assertThat(cachedPrice).isSameAs(price);
+        assertThat(calculations.get()).isEqualTo(1);
+        assertThat(priceBasket.hitCount()).isEqualTo(1);
+        assertThat(priceBasket.missCount()).isEqualTo(1);
+    }
+
+    @Test public void executing_withDifferentQuantities_pricesEachBasket() {
+        priceBasket.execute(Basket.builder().add(apple, 1).build());
+        priceBasket.execute(Basket.builder().add(apple, 2).build());
+
+        assertThat(calculations.get()).isEqualTo(2);
+        assertThat(priceBasket.hitCount()).isEqualTo(0);
+    }
+
+    @Test public void executing_beyondMaximumSize_evictsLeastRecentlyUsedPrice() {
+        Basket apples = Basket.builder().add(apple, 1).build();
+        Basket beansBasket = Basket.builder().add(beans, 1).build();
+        Basket both = Basket.builder().add(apple, 1).add(beans, 1).build();
+
+        priceBasket.execute(apples);
+        priceBasket.execute(beansBasket);
+        priceBasket.execute(apples);
+        priceBasket.execute(both);
+        priceBasket.execute(apples);
+        priceBasket.execute(beansBasket);
+
+        assertThat(priceBasket.size()).isEqualTo(2);
+        assertThat(priceBasket.hitCount()).isEqualTo(2);
+        assertThat(priceBasket.missCount()).isEqualTo(4);
+    }
+
+    @Test public void executing_afterAddingOrRemovingStrategy_pricesBasketAgain() {
+        Basket basket = Basket.builder().add(apple, 1).build();
+        priceBasket.execute(basket);
+
+        OfferStrategy strategy = createCountingOfferStrategy(2);
+        offerStrategies.add(strategy);
+        BasketPrice priceAfterAdding = priceBasket.execute(basket);
+        offerStrategies.remove(strategy);
+        BasketPrice priceAfterRemoving = priceBasket.execute(basket);
+
+        assertThat(priceAfterAdding.offersValue()).isEqualTo(Price.of(-2));
+        assertThat(priceAfterRemoving.offersValue()).isEqualTo(Price.of(-1));
+        assertThat(priceBasket.missCount()).isEqualTo(3);
+    }
+
+    @Test public void creating_withNotPositiveMaximumSize_throwsException() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new CachingPriceBasketUseCase(offerStrategies, 0));
+    }
+
+    private OfferStrategy createCountingOfferStrategy(long id) {
+        return new OfferStrategy(id, "OfferStrategy-" + id) {
+            @Override public Offers calculateOffers(Items items) {
+                calculations.incrementAndGet();
+                return createOffersWithPrices(-1);
+            }
+        };
+    }
+}
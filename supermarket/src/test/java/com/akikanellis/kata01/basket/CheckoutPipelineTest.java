@@ -0,0 +1,146 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.offer.InMemoryOfferStrategyRepository;
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.stock.ConcurrentStockRepository;
+import com.akikanellis.kata01.stock.StockRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CheckoutPipelineTest {
+    private final Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+    private final AtomicInteger groupCommits = new AtomicInteger();
+    private StockRepository stock;
+    private CheckoutPipeline pipeline;
+
+    @Before public void beforeEach() {
+        stock = new ConcurrentStockRepository();
+        stock.create(apple);
+        CheckoutUseCase checkout
+                = new CheckoutUseCase(stock, new PriceBasketUseCase(new InMemoryOfferStrategyRepository()));
+        pipeline = CheckoutPipeline.start(checkout, 1024, 64, groupCommits::incrementAndGet);
+    }
+
+    @After public void afterEach() { pipeline.close(); }
+
+    @Test public void submitting_withAvailableBasket_completesWithPriceAfterReducingStock() throws Exception {
+        stock.replaceQuantity(apple, 5);
+
+        BasketPrice price = pipeline.submit(Basket.builder().add(apple, 2).build()).get();
+
+        assertThat(price.total()).isEqualTo(Price.of(100));
+        assertThat(stock.getQuantity(apple)).isEqualTo(3);
+        assertThat(groupCommits.get()).isGreaterThan(0);
+    }
+
+    @Test public void submitting_withInsufficientStock_completesExceptionally() {
+        CompletableFuture<BasketPrice> future = pipeline.submit(Basket.builder().add(apple, 1).build());
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(future::get)
+                .withCauseInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test public void submitting_fromManyThreads_neverSellsMoreThanTheStock() throws Exception {
+        stock.replaceQuantity(apple, 1000);
+        Basket basket = Basket.builder().add(apple, 3).build();
+        ExecutorService tills = Executors.newFixedThreadPool(8);
+
+        List<Future<CompletableFuture<BasketPrice>>> submissions = IntStream.range(0, 500)
+                .mapToObj(i -> tills.submit(() -> pipeline.submit(basket)))
+                .collect(Collectors.toList());
+        int checkedOut = 0;
+        for (Future<CompletableFuture<BasketPrice>> submission : submissions) {
+            CompletableFuture<BasketPrice> future = submission.get();
+            try {
+                future.get();
+                checkedOut++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(InsufficientStockException.class);
+            }
+        }
+        tills.shutdown();
+
+        assertThat(checkedOut).isEqualTo(333);
+        assertThat(stock.getQuantity(apple)).isEqualTo(1);
+    }
+
+    @Test public void submitting_withFailingGroupCommit_completesWithNotDurableWithoutRejectingBasket() {
+        stock.replaceQuantity(apple, 5);
+        CheckoutUseCase checkout
+                = new CheckoutUseCase(stock, new PriceBasketUseCase(new InMemoryOfferStrategyRepository()));
+        CheckoutPipeline failingPipeline = CheckoutPipeline.start(checkout, 16, 4, () -> {
+            throw new UncheckedIOException(new IOException("Disk is full"));
+        });
+
+        CompletableFuture<BasketPrice> future = failingPipeline.submit(Basket.builder().add(apple, 2).build());
+        failingPipeline.close();
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(future::get)
+                .withCauseInstanceOf(CheckoutNotDurableException.class);
+        assertThat(stock.getQuantity(apple)).isEqualTo(3);
+    }
+
+    @Test public void submittingAndClosing_concurrently_completesEveryAcceptedBasket() throws Exception {
+        stock.replaceQuantity(apple, 1000);
+        Basket basket = Basket.builder().add(apple, 1).build();
+        ExecutorService tills = Executors.newFixedThreadPool(8);
+        CountDownLatch started = new CountDownLatch(8);
+
+        List<Future<List<CompletableFuture<BasketPrice>>>> submissions = new ArrayList<>();
+        for (int till = 0; till < 8; till++) {
+            submissions.add(tills.submit(() -> {
+                List<CompletableFuture<BasketPrice>> futures = new ArrayList<>();
+                started.countDown();
+                try {
+                    for (int i = 0; i < 100; i++) futures.add(pipeline.submit(basket));
+                } catch (IllegalStateException e) {
+                    // The pipeline was closed, nothing after this basket was accepted.
+                }
+                return futures;
+            }));
+        }
+        started.await();
+        pipeline.close();
+
+        int checkedOut = 0;
+        for (Future<List<CompletableFuture<BasketPrice>>> submission : submissions) {
+            for (CompletableFuture<BasketPrice> future : submission.get()) {
+                future.get(5, TimeUnit.SECONDS);
+                checkedOut++;
+            }
+        }
+        tills.shutdown();
+
+        assertThat(stock.getQuantity(apple)).isEqualTo(1000 - checkedOut);
+    }
+
+    @Test public void submitting_afterClosing_throwsException() {
+        pipeline.close();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> pipeline.submit(Basket.empty()));
+    }
+}
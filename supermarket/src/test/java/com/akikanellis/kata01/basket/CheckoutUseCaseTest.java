@@ -0,0 +1,70 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.offer.InMemoryOfferStrategyRepository;
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.stock.InMemoryStockRepository;
+import com.akikanellis.kata01.stock.StockRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CheckoutUseCaseTest {
+    private final Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+    private final Item beans = createDefaultItemBuilder().barcode(2).price(Price.of(80)).build();
+    private StockRepository stock;
+    private CheckoutUseCase checkout;
+
+    @Before public void beforeEach() {
+        stock = new InMemoryStockRepository();
+        stock.create(apple);
+        stock.create(beans);
+        stock.replaceQuantity(apple, 10);
+        stock.replaceQuantity(beans, 2);
+        checkout = new CheckoutUseCase(stock, new PriceBasketUseCase(new InMemoryOfferStrategyRepository()));
+    }
+
+    @Test public void executing_withAvailableBasket_reducesStockAndReturnsPrice() {
+        Basket basket = Basket.builder().add(apple, 3).add(beans, 2).build();
+
+        BasketPrice price = checkout.execute(basket);
+
+        assertThat(price.total()).isEqualTo(Price.of(310));
+        assertThat(stock.getQuantity(apple)).isEqualTo(7);
+        assertThat(stock.getQuantity(beans)).isEqualTo(0);
+    }
+
+    @Test public void executing_withInsufficientStock_throwsExceptionAndLeavesStockUnchanged() {
+        Basket basket = Basket.builder().add(apple, 3).add(beans, 3).build();
+
+        assertThatExceptionOfType(InsufficientStockException.class)
+                .isThrownBy(() -> checkout.execute(basket))
+                .withMessageContaining("requested [3], available [2]");
+        assertThat(stock.getQuantity(apple)).isEqualTo(10);
+        assertThat(stock.getQuantity(beans)).isEqualTo(2);
+    }
+
+    @Test public void executing_withItemNotInStock_throwsExceptionAndLeavesStockUnchanged() {
+        Item cheese = createDefaultItemBuilder().barcode(3).build();
+        Basket basket = Basket.builder().add(apple, 3).add(cheese, 1).build();
+
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> checkout.execute(basket));
+        assertThat(stock.getQuantity(apple)).isEqualTo(10);
+    }
+
+    @Test public void committing_withBasketsSharingStock_rejectsBasketsBeyondIt() {
+        Basket basket = Basket.builder().add(beans, 1).build();
+
+        assertThat(checkout.commit(Arrays.asList(basket, basket, basket)))
+                .extracting(failure -> failure == null)
+                .containsExactly(true, true, false);
+        assertThat(stock.getQuantity(beans)).isEqualTo(0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import com.akikanellis.kata01.offer.OfferStrategies;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+import com.akikanellis.kata01.price.Price;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static com.akikanellis.kata01.test_utils.Fakes.createOfferStrategiesWithQuantities;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PriceBasketUseCaseTest {
+    @Mock private OfferStrategyRepository offerStrategies;
+    private PriceBasketUseCase priceBasket;
+
+    @Before public void beforeEach() { priceBasket = new PriceBasketUseCase(offerStrategies); }
+
+    @Test public void executing_withApplicableOffers_returnsLinesOffersAndTotal() {
+        Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+        Item beans = createDefaultItemBuilder().barcode(2).price(Price.of(80)).build();
+        Basket basket = Basket.builder()
+                .add(apple, 3)
+                .add(beans, 2)
+                .build();
+        OfferStrategies strategies = createOfferStrategiesWithQuantities(10, 5);
+        when(offerStrategies.getApplicableTo(any(Items.class))).thenReturn(strategies);
+
+        BasketPrice price = priceBasket.execute(basket);
+
+        assertThat(price.lines().asList()).extracting(QuantifiedItem::totalPrice)
+                .containsExactly(Price.of(150), Price.of(160));
+        assertThat(price.offers().asList()).hasSize(2);
+        assertThat(price.subtotal()).isEqualTo(Price.of(310));
+        assertThat(price.offersValue()).isEqualTo(Price.of(-15));
+        assertThat(price.total()).isEqualTo(Price.of(295));
+    }
+
+    @Test public void executing_withNoApplicableOffers_returnsSubtotalAsTotal() {
+        Basket basket = Basket.builder()
+                .add(createDefaultItemBuilder().price(Price.of(50)).build(), 2)
+                .build();
+        when(offerStrategies.getApplicableTo(any(Items.class))).thenReturn(OfferStrategies.empty());
+
+        BasketPrice price = priceBasket.execute(basket);
+
+        assertThat(price.offers().isEmpty()).isTrue();
+        assertThat(price.total()).isEqualTo(Price.of(100));
+    }
+
+    @Test public void executing_withEmptyBasket_returnsZeroWithoutEvaluatingStrategies() {
+        BasketPrice price = priceBasket.execute(Basket.empty());
+
+        assertThat(price.total()).isEqualTo(Price.ZERO);
+        verifyZeroInteractions(offerStrategies);
+    }
+}
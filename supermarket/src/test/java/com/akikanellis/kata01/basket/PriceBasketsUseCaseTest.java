@@ -0,0 +1,97 @@
+package com.akikanellis.kata01.basket;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.InMemoryOfferStrategyRepository;
+import com.akikanellis.kata01.offer.OfferStrategy;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+import com.akikanellis.kata01.offer.Offers;
+import com.akikanellis.kata01.price.Price;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static com.akikanellis.kata01.test_utils.Fakes.createOfferStrategiesWithQuantities;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class PriceBasketsUseCaseTest {
+    private ForkJoinPool pool;
+    private OfferStrategyRepository offerStrategies;
+    private PriceBasketsUseCase priceBaskets;
+
+    @Before public void beforeEach() {
+        pool = new ForkJoinPool(4);
+        offerStrategies = new InMemoryOfferStrategyRepository();
+        priceBaskets = new PriceBasketsUseCase(offerStrategies, pool, 7);
+    }
+
+    @After public void afterEach() { pool.shutdown(); }
+
+    @Test public void executing_withManyBaskets_returnsPricesInOrderOfBaskets() {
+        createOfferStrategiesWithQuantities(1, 2).stream().forEach(offerStrategies::add);
+        List<Basket> baskets = IntStream.range(0, 1000)
+                .mapToObj(PriceBasketsUseCaseTest::createBasketOfPrice)
+                .collect(Collectors.toList());
+
+        List<BasketPrice> prices = priceBaskets.execute(baskets);
+
+        assertThat(prices).extracting(BasketPrice::subtotal)
+                .containsExactlyElementsOf(IntStream.range(0, 1000)
+                        .mapToObj(Price::of)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test public void executing_withManyBaskets_returnsSamePricesAsPricingEachBasket() {
+        createOfferStrategiesWithQuantities(3, 1, 2).stream().forEach(offerStrategies::add);
+        PriceBasketUseCase priceBasket = new PriceBasketUseCase(offerStrategies);
+        List<Basket> baskets = IntStream.range(0, 100)
+                .mapToObj(PriceBasketsUseCaseTest::createBasketOfPrice)
+                .collect(Collectors.toList());
+
+        List<BasketPrice> prices = priceBaskets.execute(baskets);
+
+        for (int i = 0; i < baskets.size(); i++) {
+            BasketPrice expectedPrice = priceBasket.execute(baskets.get(i));
+            assertThat(prices.get(i).offers().asList()).isEqualTo(expectedPrice.offers().asList());
+            assertThat(prices.get(i).total()).isEqualTo(expectedPrice.total());
+        }
+    }
+
+    @Test public void executing_withIterator_handsEveryPriceInOrder() {
+        List<Basket> baskets = Collections.nCopies(20000, createBasketOfPrice(5));
+        List<BasketPrice> prices = new ArrayList<>();
+
+        priceBaskets.execute(baskets.iterator(), prices::add);
+
+        assertThat(prices).hasSize(20000);
+        assertThat(prices).extracting(BasketPrice::total).containsOnly(Price.of(5));
+    }
+
+    @Test public void executing_withNoBaskets_returnsNoPrices() {
+        assertThat(priceBaskets.execute(Collections.emptyList())).isEmpty();
+    }
+
+    @Test public void executing_withFailingStrategy_throwsStrategyException() {
+        offerStrategies.add(new OfferStrategy(1, "Failing") {
+            @Override public Offers calculateOffers(Items items) { throw new IllegalStateException(); }
+        });
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> priceBaskets.execute(Collections.singletonList(createBasketOfPrice(1))));
+    }
+
+    private static Basket createBasketOfPrice(int price) {
+        Item item = createDefaultItemBuilder().barcode(price).price(Price.of(price)).build();
+
+        return Basket.builder().add(item, 1).build();
+    }
+}
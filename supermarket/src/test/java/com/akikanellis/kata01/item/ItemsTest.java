@@ -0,0 +1,75 @@
+package com.akikanellis.kata01.item;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ItemsTest {
+    private final Item apple = createDefaultItemBuilder().barcode(1).name("Apple").build();
+    private final Item orange = createDefaultItemBuilder().barcode(2).name("Orange").build();
+
+    @Test public void findingItem_withItemPresent_returnsItemWithQuantity() {
+        Items items = Items.fromCollection(Arrays.asList(
+                QuantifiedItem.create(apple, 3),
+                QuantifiedItem.create(orange, 5)));
+
+        assertThat(items.find(2)).contains(QuantifiedItem.create(orange, 5));
+    }
+
+    @Test public void findingItem_withNoItemPresent_returnsEmpty() {
+        Items items = Items.fromCollection(Arrays.asList(QuantifiedItem.create(apple, 3)));
+
+        assertThat(items.find(2)).isEmpty();
+    }
+
+    @Test public void gettingQuantity_withItemPresent_returnsQuantity() {
+        Items items = Items.fromCollection(Arrays.asList(
+                QuantifiedItem.create(apple, 3),
+                QuantifiedItem.create(orange, 5)));
+
+        assertThat(items.quantityOf(1)).isEqualTo(3);
+    }
+
+    @Test public void gettingQuantity_withItemPresentMoreThanOnce_returnsSumOfQuantities() {
+        Items items = Items.fromCollection(Arrays.asList(
+                QuantifiedItem.create(apple, 3),
+                QuantifiedItem.create(orange, 5),
+                QuantifiedItem.create(apple, 4)));
+
+        assertThat(items.quantityOf(1)).isEqualTo(7);
+    }
+
+    @Test public void gettingQuantity_withNoItemPresent_returnsZero() {
+        assertThat(Items.empty().quantityOf(1)).isEqualTo(0);
+    }
+
+    @Test public void creatingFromCollection_thenChangingCollection_keepsOriginalItems() {
+        List<QuantifiedItem> quantifiedItems = new ArrayList<>(Arrays.asList(QuantifiedItem.create(apple, 3)));
+        Items items = Items.fromCollection(quantifiedItems);
+
+        quantifiedItems.add(QuantifiedItem.create(orange, 5));
+
+        assertThat(items.asList()).containsExactly(QuantifiedItem.create(apple, 3));
+    }
+
+    @Test public void changingList_withAsList_throwsException() {
+        Items items = Items.fromCollection(Arrays.asList(QuantifiedItem.create(apple, 3)));
+
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> items.asList().add(QuantifiedItem.create(orange, 5)));
+    }
+
+    @Test public void collecting_withStream_returnsItemsInEncounterOrder() {
+        Items items = Stream.of(QuantifiedItem.create(orange, 5), QuantifiedItem.create(apple, 3))
+                .collect(Items.collector());
+
+        assertThat(items.asItemsList()).containsExactly(orange, apple);
+    }
+}
@@ -1,8 +1,18 @@
 package com.akikanellis.kata01.offer;
 
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultOfferStrategy;
 import static com.akikanellis.kata01.test_utils.Fakes.createOfferStrategyWithId;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -61,4 +71,115 @@ public class InMemoryOfferStrategyRepositoryTest {
         assertThatExceptionOfType(OfferStrategyNotFoundException.class)
                 .isThrownBy(() -> offerStrategies.getById(11));
     }
-}
\ No newline at end of file
+
+    @Test public void addingStrategy_withExistingId_keepsExistingStrategyAndVersion() {
+        OfferStrategy existing = createOfferStrategyWithId(11);
+        offerStrategies.add(existing);
+        long version = offerStrategies.getVersion();
+
+        offerStrategies.add(createOfferStrategyWithId(11));
+
+        assertThat(offerStrategies.getById(11)).isSameAs(existing);
+        assertThat(offerStrategies.getAll().size()).isEqualTo(1);
+        assertThat(offerStrategies.getVersion()).isEqualTo(version);
+    }
+
+    @Test public void gettingAll_thenChangingStrategies_keepsReturnedSnapshot() {
+        offerStrategies.add(createOfferStrategyWithId(1));
+        OfferStrategies snapshot = offerStrategies.getAll();
+
+        offerStrategies.add(createOfferStrategyWithId(2));
+        offerStrategies.remove(createOfferStrategyWithId(1));
+
+        assertThat(snapshot.asSet()).containsOnly(createOfferStrategyWithId(1));
+        assertThat(offerStrategies.getAll().asSet()).containsOnly(createOfferStrategyWithId(2));
+    }
+
+    @Test public void gettingById_withManyStrategies_returnsEachStrategy() {
+        for (long id = 0; id < 1000; id++) offerStrategies.add(createOfferStrategyWithId(id * 31));
+
+        for (long id = 0; id < 1000; id++) assertThat(offerStrategies.getById(id * 31).id()).isEqualTo(id * 31);
+        assertThat(offerStrategies.contains(createOfferStrategyWithId(1))).isFalse();
+    }
+
+    @Test public void readingStrategies_whileAddingFromManyThreads_seesEveryAddedStrategy() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] writers = new Future<?>[8];
+            for (int writer = 0; writer < writers.length; writer++) {
+                long firstId = writer * 1000L;
+                writers[writer] = executor.submit(() -> {
+                    for (long id = firstId; id < firstId + 200; id++) {
+                        offerStrategies.add(createOfferStrategyWithId(id));
+                        assertThat(offerStrategies.getById(id).id()).isEqualTo(id);
+                    }
+                });
+            }
+            for (Future<?> writer : writers) writer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(offerStrategies.getAll().size()).isEqualTo(1600);
+    }
+
+    @Test public void gettingApplicableStrategies_withItems_returnsOnlyStrategiesScopedToThem() {
+        Item apple = createDefaultItemBuilder().barcode(1).name("Apple").build();
+        Item beans = createDefaultItemBuilder().barcode(2).name("Beans").build();
+        OfferStrategy appleStrategy = createScopedOfferStrategy(1, OfferScope.barcodes(1));
+        OfferStrategy cheeseStrategy = createScopedOfferStrategy(2, OfferScope.barcodes(3));
+        OfferStrategy everythingStrategy = createScopedOfferStrategy(3, OfferScope.all());
+        OfferStrategy beansStrategy = createScopedOfferStrategy(4,
+                OfferScope.matching(item -> item.name().equals("Beans")));
+        Arrays.asList(appleStrategy, cheeseStrategy, everythingStrategy, beansStrategy).forEach(offerStrategies::add);
+        Items items = Items.fromCollection(Arrays.asList(
+                QuantifiedItem.create(apple, 5),
+                QuantifiedItem.create(beans, 2)));
+
+        OfferStrategies applicableStrategies = offerStrategies.getApplicableTo(items);
+
+        assertThat(applicableStrategies.asSet()).containsOnly(appleStrategy, everythingStrategy, beansStrategy);
+        assertThat(offerStrategies.getApplicableTo(apple).asSet()).containsOnly(appleStrategy, everythingStrategy);
+    }
+
+    @Test public void gettingApplicableStrategies_withNoItems_returnsEmptyStrategies() {
+        offerStrategies.add(createScopedOfferStrategy(1, OfferScope.all()));
+
+        assertThat(offerStrategies.getApplicableTo(Items.empty()).isEmpty()).isTrue();
+    }
+
+    @Test public void gettingApplicableStrategies_afterRemovingStrategy_returnsRemainingStrategies() {
+        OfferStrategy firstStrategy = createScopedOfferStrategy(1, OfferScope.barcodes(1));
+        OfferStrategy secondStrategy = createScopedOfferStrategy(2, OfferScope.barcodes(1, 2));
+        offerStrategies.add(firstStrategy);
+        offerStrategies.add(secondStrategy);
+
+        offerStrategies.remove(firstStrategy);
+
+        Item apple = createDefaultItemBuilder().barcode(1).build();
+        assertThat(offerStrategies.getApplicableTo(apple).asSet()).containsOnly(secondStrategy);
+    }
+
+    @Test public void gettingVersion_afterAddingAndRemovingStrategies_changesOnlyWhenStrategiesChange() {
+        OfferStrategy strategy = createScopedOfferStrategy(1, OfferScope.all());
+        long initialVersion = offerStrategies.getVersion();
+
+        offerStrategies.add(strategy);
+        long versionAfterAdding = offerStrategies.getVersion();
+        offerStrategies.remove(createScopedOfferStrategy(2, OfferScope.all()));
+        long versionAfterRemovingMissing = offerStrategies.getVersion();
+        offerStrategies.remove(strategy);
+
+        assertThat(versionAfterAdding).isNotEqualTo(initialVersion);
+        assertThat(versionAfterRemovingMissing).isEqualTo(versionAfterAdding);
+        assertThat(offerStrategies.getVersion()).isNotEqualTo(versionAfterAdding);
+    }
+
+    private static OfferStrategy createScopedOfferStrategy(long id, OfferScope scope) {
+        return new OfferStrategy(id, "OfferStrategy-" + id) {
+            @Override public OfferScope scope() { return scope; }
+
+            @Override public Offers calculateOffers(Items items) { return Offers.empty(); }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.akikanellis.kata01.offer;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class OfferScopeTest {
+    private final Item apple = createDefaultItemBuilder().barcode(1).name("Apple").build();
+    private final Item orange = createDefaultItemBuilder().barcode(2).name("Orange").build();
+
+    @Test public void allScope_withAnyItems_containsThem() {
+        assertThat(OfferScope.all().contains(apple)).isTrue();
+        assertThat(OfferScope.all().containsAnyOf(createDefaultItems())).isTrue();
+    }
+
+    @Test public void anyScope_withNoItems_containsNone() {
+        assertThat(OfferScope.all().containsAnyOf(Items.empty())).isFalse();
+        assertThat(OfferScope.barcodes(1).containsAnyOf(Items.empty())).isFalse();
+    }
+
+    @Test public void barcodeScope_withItemsOfBarcodes_containsOnlyThem() {
+        OfferScope scope = OfferScope.barcodes(3, 1, 1);
+
+        assertThat(scope.barcodes()).containsExactly(1, 3);
+        assertThat(scope.contains(apple)).isTrue();
+        assertThat(scope.contains(orange)).isFalse();
+        assertThat(scope.containsAnyOf(itemsOf(orange))).isFalse();
+        assertThat(scope.containsAnyOf(itemsOf(apple))).isTrue();
+    }
+
+    @Test public void barcodeScope_withNoBarcodes_throwsException() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> OfferScope.barcodes(new long[0]));
+    }
+
+    @Test public void predicateScope_withMatchingItems_containsOnlyThem() {
+        OfferScope scope = OfferScope.matching(item -> item.name().startsWith("O"));
+
+        assertThat(scope.isAll()).isFalse();
+        assertThat(scope.isBarcodes()).isFalse();
+        assertThat(scope.containsAnyOf(itemsOf(apple))).isFalse();
+        assertThat(scope.containsAnyOf(itemsOf(orange))).isTrue();
+    }
+
+    private static Items itemsOf(Item item) {
+        return Items.fromCollection(Collections.singletonList(QuantifiedItem.create(item, 1)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.akikanellis.kata01.offer;
+
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultOffers;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class OfferSinkTest {
+
+    @Test public void totalSink_withAcceptedOffers_returnsTotalPrice() {
+        TotalOfferSink sink = new TotalOfferSink();
+
+        sink.accept("3 Apples for £1", Price.of(-50), 2);
+        sink.accept("50% off cheese", Price.of(-0.5), 3);
+
+        assertThat(sink.total()).isEqualTo(Price.of(new BigDecimal("-101.5")));
+    }
+
+    @Test public void totalSink_withPositivePrice_throwsException() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new TotalOfferSink().accept("Not an offer", Price.of(10), 1));
+    }
+
+    @Test public void collectingSink_withAcceptedOffers_returnsOffersInOrder() {
+        CollectingOfferSink sink = new CollectingOfferSink();
+        Offers expectedOffers = createDefaultOffers();
+
+        expectedOffers.stream().forEach(sink::accept);
+
+        assertThat(sink.offers().asList()).isEqualTo(expectedOffers.asList());
+    }
+
+    @Test public void calculatingOffersIntoSink_withExistingStrategy_pushesSameOffers() {
+        Offers expectedOffers = createDefaultOffers();
+        OfferStrategy strategy = new OfferStrategy(1, "Existing strategy") {
+            @Override public Offers calculateOffers(Items items) { return expectedOffers; }
+        };
+        CollectingOfferSink collectingSink = new CollectingOfferSink();
+        TotalOfferSink totalSink = new TotalOfferSink();
+
+        strategy.calculateOffers(createDefaultItems(), collectingSink);
+        strategy.calculateOffers(createDefaultItems(), totalSink);
+
+        assertThat(collectingSink.offers().asList()).isEqualTo(expectedOffers.asList());
+        assertThat(totalSink.total()).isEqualTo(Price.of(-650));
+    }
+}
@@ -0,0 +1,87 @@
+package com.akikanellis.kata01.offer;
+
+import com.akikanellis.kata01.price.Price;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createOffersWithPrices;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class OffersTest {
+
+    @Test public void joining_withOtherOffers_returnsBothInOrder() {
+        Offers first = createOffersWithPrices(-10, -20);
+        Offers second = createOffersWithPrices(-30);
+
+        Offers joined = first.join(second);
+
+        List<QuantifiedOffer> expectedOffers = new ArrayList<>(first.asList());
+        expectedOffers.addAll(second.asList());
+        assertThat(joined.asList()).isEqualTo(expectedOffers);
+    }
+
+    @Test public void joining_manyTimes_returnsAllInOrder() {
+        List<QuantifiedOffer> expectedOffers = new ArrayList<>();
+        Offers joined = Offers.empty();
+        for (int i = 0; i < 100; i++) {
+            Offers single = createOffersWithPrices(-i);
+            expectedOffers.addAll(single.asList());
+            joined = joined.join(single);
+        }
+
+        assertThat(joined.asList()).isEqualTo(expectedOffers);
+        assertThat(joined.stream()).containsExactlyElementsOf(expectedOffers);
+    }
+
+    @Test public void joiningAll_withManyOffers_returnsAllInOrder() {
+        Offers first = createOffersWithPrices(-10, -20);
+        Offers second = createOffersWithPrices(-30);
+
+        Offers joined = Offers.joinAll(Arrays.asList(first, Offers.empty(), second));
+
+        assertThat(joined.asList()).isEqualTo(first.join(second).asList());
+    }
+
+    @Test public void changingList_withAsList_throwsException() {
+        Offers offers = createOffersWithPrices(-10);
+
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> offers.asList().clear());
+    }
+
+    @Test public void building_withAddedOffers_returnsThemInOrder() {
+        Offers first = createOffersWithPrices(-10, -20);
+        QuantifiedOffer single = createOffersWithPrices(-30).asList().get(0);
+
+        Offers built = Offers.builder()
+                .addAll(first)
+                .add(single)
+                .build();
+
+        assertThat(built.asList()).isEqualTo(first.join(Offers.fromSingle(single)).asList());
+    }
+
+    @Test public void building_afterAlreadyBuilt_throwsException() {
+        Offers.Builder builder = Offers.builder();
+        builder.build();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(builder::build);
+    }
+
+    @Test public void collecting_withParallelStream_returnsOffersInEncounterOrder() {
+        List<QuantifiedOffer> expectedOffers = IntStream.range(0, 1000)
+                .mapToObj(i -> QuantifiedOffer.create(Offer.create("Offer-" + i, Price.of(-1)), i))
+                .collect(Collectors.toList());
+
+        Offers offers = expectedOffers.parallelStream().collect(Offers.collector());
+
+        assertThat(offers.asList()).isEqualTo(expectedOffers);
+    }
+}
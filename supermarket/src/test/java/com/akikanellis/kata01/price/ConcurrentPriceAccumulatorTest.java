@@ -0,0 +1,33 @@
+package com.akikanellis.kata01.price;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentPriceAccumulatorTest {
+    private ConcurrentPriceAccumulator accumulator;
+
+    @Before public void beforeEach() { accumulator = new ConcurrentPriceAccumulator(); }
+
+    @Test public void total_withNothingAdded_returnsZero() { assertThat(accumulator.total()).isEqualTo(Price.ZERO); }
+
+    @Test public void addingMultiple_withWholeAndFractionalPrices_returnsExactSum() {
+        accumulator.addMultiple(Price.of(50), 10);
+        accumulator.addMultiple(Price.of(0.5), 3);
+        accumulator.addMultiple(Price.of(50), -4);
+
+        assertThat(accumulator.total()).isEqualTo(Price.of(new BigDecimal("301.5")));
+    }
+
+    @Test public void addingMultiple_fromParallelStream_losesNoUpdates() {
+        IntStream.range(0, 100_000)
+                .parallel()
+                .forEach(i -> accumulator.addMultiple(i % 10 == 0 ? Price.of(0.5) : Price.of(2), 1));
+
+        assertThat(accumulator.total()).isEqualTo(Price.of(185_000));
+    }
+}
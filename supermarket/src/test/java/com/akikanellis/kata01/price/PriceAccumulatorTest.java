@@ -0,0 +1,88 @@
+package com.akikanellis.kata01.price;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PriceAccumulatorTest {
+    private PriceAccumulator accumulator;
+
+    @Before public void beforeEach() { accumulator = new PriceAccumulator(); }
+
+    @Test public void total_withNothingAdded_returnsZero() { assertThat(accumulator.total()).isEqualTo(Price.ZERO); }
+
+    @Test public void adding_withWholePrices_returnsSum() {
+        accumulator.add(Price.of(500))
+                .add(Price.of(-200))
+                .add(Price.of(700));
+
+        assertThat(accumulator.total()).isEqualTo(Price.of(1000));
+    }
+
+    @Test public void adding_withFractionalPrices_returnsExactSum() {
+        accumulator.add(Price.of(10))
+                .add(Price.of(0.5))
+                .add(Price.of(0.25));
+
+        assertThat(accumulator.total()).isEqualTo(Price.of(new BigDecimal("10.75")));
+    }
+
+    @Test public void adding_beyondLongRange_returnsExactSum() {
+        accumulator.add(Price.of(Long.MAX_VALUE))
+                .add(Price.of(Long.MAX_VALUE))
+                .add(Price.of(-Long.MAX_VALUE));
+
+        assertThat(accumulator.total()).isEqualTo(Price.of(Long.MAX_VALUE));
+    }
+
+    @Test public void combining_withOtherAccumulator_returnsSumOfBoth() {
+        PriceAccumulator other = new PriceAccumulator()
+                .add(Price.of(0.5))
+                .add(Price.of(300));
+        accumulator.add(Price.of(200));
+
+        accumulator.combine(other);
+
+        assertThat(accumulator.total()).isEqualTo(Price.of(new BigDecimal("500.5")));
+    }
+
+    @Test public void summing_withStream_returnsSameAsReducing() {
+        Price expectedPrice = LongStream.rangeClosed(1, 1000)
+                .mapToObj(Price::of)
+                .reduce(Price::add)
+                .orElse(Price.ZERO);
+
+        Price actualPrice = LongStream.rangeClosed(1, 1000)
+                .parallel()
+                .mapToObj(Price::of)
+                .collect(PriceAccumulator.summing());
+
+        assertThat(actualPrice).isEqualTo(expectedPrice);
+    }
+
+    @Test public void summing_withEmptyStream_returnsZero() {
+        Price price = Stream.<Price>empty().collect(PriceAccumulator.summing());
+
+        assertThat(price).isEqualTo(Price.ZERO);
+    }
+
+    @Test public void addingMultiple_withPositiveAndNegativeMultipliers_returnsSum() {
+        accumulator.addMultiple(Price.of(50), 10)
+                .addMultiple(Price.of(0.5), 3)
+                .addMultiple(Price.of(50), -4);
+
+        assertThat(accumulator.total()).isEqualTo(Price.of(new BigDecimal("301.5")));
+    }
+
+    @Test public void addingMultiple_beyondLongRange_returnsExactSum() {
+        accumulator.addMultiple(Price.of(Long.MAX_VALUE), Integer.MAX_VALUE)
+                .addMultiple(Price.of(Long.MAX_VALUE), -Integer.MAX_VALUE);
+
+        assertThat(accumulator.total()).isEqualTo(Price.ZERO);
+    }
+}
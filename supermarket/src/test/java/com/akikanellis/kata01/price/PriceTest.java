@@ -146,4 +146,95 @@ public class PriceTest {
 
         assertThat(bigDecimalValue.intValue()).isEqualTo(250);
     }
+
+    @Test public void creating_withLongAndEquivalentBigDecimal_returnsEqualPrices() {
+        Price fromLong = Price.of(1200);
+        Price fromBigDecimal = Price.of(new BigDecimal("1200.00"));
+
+        assertThat(fromLong).isEqualTo(fromBigDecimal);
+        assertThat(fromLong.hashCode()).isEqualTo(fromBigDecimal.hashCode());
+    }
+
+    @Test public void hashing_withEqualAmountsBeyondCompactRange_returnsEqualHashCodes() {
+        Price fromAddition = Price.of(Price.MAX_COMPACT).add(Price.of(1));
+        Price fromBigDecimal = Price.of(new BigDecimal("1000000000000000000.00"));
+
+        assertThat(fromAddition).isEqualTo(fromBigDecimal);
+        assertThat(fromAddition.hashCode()).isEqualTo(fromBigDecimal.hashCode());
+    }
+
+    @Test public void hashing_withAnyAmount_returnsHashCodeOfStrippedBigDecimal() {
+        String[] amounts = {"0", "7", "1200.00", "-35000", "10.50", "987654321987654321", "-999999999999999999",
+                "1000000000000000000", "4294967296", "-21474836480"};
+
+        for (String amount : amounts) {
+            BigDecimal bigDecimalAmount = new BigDecimal(amount);
+
+            assertThat(Price.of(bigDecimalAmount).hashCode())
+                    .isEqualTo(bigDecimalAmount.stripTrailingZeros().hashCode());
+        }
+    }
+
+    @Test public void hashing_withLongAndEquivalentBigDecimal_returnsEqualHashCodes() {
+        for (long amount : new long[]{0, 1, -1, 250, -1200, 4_294_967_296L, Price.MAX_COMPACT, -Price.MAX_COMPACT}) {
+            assertThat(Price.of(amount).hashCode()).isEqualTo(Price.of(BigDecimal.valueOf(amount)).hashCode());
+            assertThat(Price.of(amount).hashCode())
+                    .isEqualTo(BigDecimal.valueOf(amount).stripTrailingZeros().hashCode());
+        }
+    }
+
+    @Test public void adding_withFractionalNumber_returnsFractionalPrice() {
+        Price price = Price.of(10);
+
+        Price newPrice = price.add(Price.of(0.5));
+
+        assertThat(newPrice).isEqualTo(Price.of(new BigDecimal("10.5")));
+    }
+
+    @Test public void adding_withFractionalPartsCancellingOut_returnsWholePrice() {
+        Price price = Price.of(0.5);
+
+        Price newPrice = price.add(Price.of(0.5));
+
+        assertThat(newPrice).isEqualTo(Price.ONE);
+    }
+
+    @Test public void adding_beyondLongRange_returnsExactPrice() {
+        Price price = Price.of(Long.MAX_VALUE);
+
+        Price newPrice = price.add(Price.of(Long.MAX_VALUE));
+
+        BigDecimal expectedAmount = BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2));
+        assertThat(newPrice.asBigDecimal()).isEqualByComparingTo(expectedAmount);
+    }
+
+    @Test public void subtracting_backIntoLongRange_returnsEqualPrice() {
+        Price price = Price.of(Long.MAX_VALUE).add(Price.of(10));
+
+        Price newPrice = price.subtract(Price.of(Long.MAX_VALUE));
+
+        assertThat(newPrice).isEqualTo(Price.of(10));
+    }
+
+    @Test public void multiplyBy_beyondLongRange_returnsExactPrice() {
+        Price price = Price.of(Long.MAX_VALUE / 2);
+
+        Price newPrice = price.multiplyBy(4);
+
+        BigDecimal expectedAmount = BigDecimal.valueOf(Long.MAX_VALUE / 2).multiply(BigDecimal.valueOf(4));
+        assertThat(newPrice.asBigDecimal()).isEqualByComparingTo(expectedAmount);
+    }
+
+    @Test public void asBigDecimal_withTrailingZeros_returnsStrippedAmount() {
+        Price price = Price.of(1200);
+
+        BigDecimal bigDecimalValue = price.asBigDecimal();
+
+        assertThat(bigDecimalValue).isEqualTo(new BigDecimal("1200").stripTrailingZeros());
+    }
+
+    @Test public void toString_withWholeAndFractionalAmounts_printsStrippedAmount() {
+        assertThat(Price.of(1200).toString()).isEqualTo("Price{amount=1.2E+3}");
+        assertThat(Price.of(13.40).toString()).isEqualTo("Price{amount=13.4}");
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.akikanellis.kata01.stock;
 
 import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -9,6 +10,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -37,4 +39,14 @@ public class AddNewItemIfNotExistsUseCaseTest {
 
         verify(stock, never()).create(any(Item.class));
     }
-}
\ No newline at end of file
+
+    @Test public void executing_withItemCreatedConcurrentlyAfterCheck_doesNothing() {
+        Item item = createDefaultItem();
+        when(stock.contains(item)).thenReturn(false);
+        doThrow(new ItemAlreadyExistsException(item)).when(stock).create(item);
+
+        addNewItemIfNotExists.execute(item);
+
+        verify(stock).create(item);
+    }
+}
@@ -0,0 +1,42 @@
+package com.akikanellis.kata01.stock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ApplyStockMovementsUseCaseTest {
+    @Mock private StockRepository stock;
+    private ApplyStockMovementsUseCase applyStockMovements;
+
+    @Before public void beforeEach() { applyStockMovements = new ApplyStockMovementsUseCase(stock); }
+
+    @Test public void executing_withMovements_appliesThemInBulk() {
+        StockMovements movements = StockMovements.fromCollection(
+                Collections.singletonList(StockMovement.fill(1, 10)));
+        StockMovementsReport expectedReport = StockMovementsReport.create(1, Collections.emptyList());
+        when(stock.applyMovements(movements)).thenReturn(expectedReport);
+
+        StockMovementsReport actualReport = applyStockMovements.execute(movements);
+
+        assertThat(actualReport).isSameAs(expectedReport);
+    }
+
+    @Test public void executing_withNoMovements_returnsEmptyReport() {
+        StockMovementsReport report = applyStockMovements.execute(StockMovements.empty());
+
+        assertThat(report.appliedCount()).isEqualTo(0);
+        assertThat(report.hasFailures()).isFalse();
+        verify(stock, never()).applyMovements(any(StockMovements.class));
+    }
+}
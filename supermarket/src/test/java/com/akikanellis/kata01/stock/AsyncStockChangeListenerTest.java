@@ -0,0 +1,98 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class AsyncStockChangeListenerTest {
+    private static final int MAX_BATCH_SIZE = 10;
+
+    private List<List<StockChange>> batches;
+    private CountDownLatch firstBatchStarted;
+    private CountDownLatch firstBatchReleased;
+    private AsyncStockChangeListener listener;
+
+    @Before public void beforeEach() {
+        batches = Collections.synchronizedList(new ArrayList<>());
+        firstBatchStarted = new CountDownLatch(1);
+        firstBatchReleased = new CountDownLatch(1);
+        listener = AsyncStockChangeListener.start(changes -> {
+            firstBatchStarted.countDown();
+            awaitQuietly(firstBatchReleased);
+            batches.add(changes);
+        }, 100, MAX_BATCH_SIZE);
+    }
+
+    @After public void afterEach() {
+        firstBatchReleased.countDown();
+        listener.close();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test public void closing_afterChanges_deliversAllChangesInOrderAndInBatches() throws Exception {
+        Item item = createDefaultItem();
+        listener.onChanges(Collections.singletonList(StockChange.quantityChanged(item, 0, 1)));
+        assertThat(firstBatchStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        List<StockChange> expectedChanges = new ArrayList<>();
+        expectedChanges.add(StockChange.quantityChanged(item, 0, 1));
+        for (int quantity = 1; quantity < 50; quantity++) {
+            StockChange change = StockChange.quantityChanged(item, quantity, quantity + 1);
+            listener.onChanges(Collections.singletonList(change));
+            expectedChanges.add(change);
+        }
+
+        firstBatchReleased.countDown();
+        listener.close();
+
+        List<StockChange> deliveredChanges = new ArrayList<>();
+        batches.forEach(deliveredChanges::addAll);
+        assertThat(deliveredChanges).isEqualTo(expectedChanges);
+        assertThat(batches).allMatch(batch -> batch.size() <= MAX_BATCH_SIZE);
+        assertThat(batches.size()).isLessThan(expectedChanges.size());
+    }
+
+    @Test public void notifying_afterClosing_dropsAndCountsChanges() {
+        firstBatchReleased.countDown();
+        listener.close();
+
+        listener.onChanges(Arrays.asList(StockChange.created(createDefaultItem()),
+                StockChange.quantityChanged(createDefaultItem(), 0, 1)));
+
+        assertThat(listener.droppedCount()).isEqualTo(2);
+        assertThat(batches).isEmpty();
+    }
+
+    @Test public void notifying_whenInterrupted_dropsAndCountsChangesAndKeepsInterruptStatus() {
+        Thread.currentThread().interrupt();
+        listener.onChanges(Arrays.asList(StockChange.created(createDefaultItem()),
+                StockChange.quantityChanged(createDefaultItem(), 0, 1)));
+        boolean interrupted = Thread.interrupted();
+
+        assertThat(interrupted).isTrue();
+        assertThat(listener.droppedCount()).isEqualTo(2);
+    }
+
+    @Test public void starting_withNonPositiveBatchSize_throwsException() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> AsyncStockChangeListener.start(changes -> { }, 10, 0));
+    }
+}
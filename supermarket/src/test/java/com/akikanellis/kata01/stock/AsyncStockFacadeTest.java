@@ -0,0 +1,106 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncStockFacadeTest {
+    @Mock private StockFacade stockFacade;
+    private ExecutorService executor;
+    private AsyncStockFacade asyncStockFacade;
+
+    @Before public void beforeEach() {
+        executor = Executors.newFixedThreadPool(4);
+        asyncStockFacade = new AsyncStockFacade(stockFacade, executor);
+    }
+
+    @After public void afterEach() { executor.shutdown(); }
+
+    @Test public void gettingStock_completesWithFacadeResult() throws Exception {
+        Items items = createDefaultItems();
+        when(stockFacade.getStock()).thenReturn(items);
+
+        assertThat(asyncStockFacade.getStock().get()).isSameAs(items);
+    }
+
+    @Test public void fillingStock_runsOnExecutorThread() throws Exception {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> threads.add(Thread.currentThread())).when(stockFacade).fillStock(1, 10);
+
+        asyncStockFacade.fillStock(1, 10).get();
+
+        verify(stockFacade).fillStock(1, 10);
+        assertThat(threads).doesNotContain(Thread.currentThread());
+    }
+
+    @Test public void callingOperations_fromSameCaller_runsThemInCallOrder() throws Exception {
+        List<Long> barcodes = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> barcodes.add((Long) invocation.getArguments()[0]))
+                .when(stockFacade).fillStock(anyLong(), anyInt());
+
+        CompletableFuture<Void> last = null;
+        for (long barcode = 0; barcode < 100; barcode++) last = asyncStockFacade.fillStock(barcode, 1);
+        last.get();
+
+        assertThat(barcodes).isSortedAccordingTo(Long::compare).hasSize(100);
+    }
+
+    @Test public void callingOperation_afterFailedOne_stillRunsIt() throws Exception {
+        doThrow(new ItemNotFoundException(1)).when(stockFacade).reduceStock(1, 5);
+        when(stockFacade.getStockValueBeforeOffers()).thenReturn(Price.ONE);
+
+        CompletableFuture<Void> failed = asyncStockFacade.reduceStock(1, 5);
+        Price value = asyncStockFacade.getStockValueBeforeOffers().get();
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(failed::get)
+                .withCauseInstanceOf(ItemNotFoundException.class);
+        assertThat(value).isEqualTo(Price.ONE);
+    }
+
+    @Test public void callingOperations_fromDifferentCallers_runsThemConcurrently() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstStarted.countDown();
+            release.await(1, TimeUnit.MINUTES);
+            return null;
+        }).when(stockFacade).fillStock(1, 1);
+        when(stockFacade.getOffersValue()).thenReturn(Price.ZERO);
+
+        CompletableFuture<Void> blocked = asyncStockFacade.fillStock(1, 1);
+        assertThat(firstStarted.await(1, TimeUnit.MINUTES)).isTrue();
+        Price offersValue = asyncStockFacade.forCaller().getOffersValue().get(1, TimeUnit.MINUTES);
+        release.countDown();
+        blocked.get();
+
+        assertThat(offersValue).isEqualTo(Price.ZERO);
+    }
+}
@@ -0,0 +1,159 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.InMemoryOfferStrategyRepository;
+import com.akikanellis.kata01.offer.Offer;
+import com.akikanellis.kata01.offer.OfferScope;
+import com.akikanellis.kata01.offer.OfferStrategy;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+import com.akikanellis.kata01.offer.Offers;
+import com.akikanellis.kata01.offer.QuantifiedOffer;
+import com.akikanellis.kata01.price.Price;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CachingGetApplicableOffersUseCaseTest {
+    private final Item apple = createDefaultItemBuilder().barcode(1).name("Apple").build();
+    private final Item beans = createDefaultItemBuilder().barcode(2).name("Beans").build();
+    private StockRepository stock;
+    private OfferStrategyRepository offerStrategies;
+    private CachingGetApplicableOffersUseCase getApplicableOffers;
+
+    @Before public void beforeEach() {
+        stock = new InMemoryStockRepository();
+        offerStrategies = new InMemoryOfferStrategyRepository();
+        getApplicableOffers = CachingGetApplicableOffersUseCase.create(stock, offerStrategies);
+        stock.create(apple);
+        stock.create(beans);
+        stock.replaceQuantity(apple, 3);
+        stock.replaceQuantity(beans, 4);
+    }
+
+    @Test public void executing_withUnchangedStock_calculatesOffersOnce() {
+        CountingOfferStrategy strategy = new CountingOfferStrategy(1, OfferScope.all(), apple);
+        offerStrategies.add(strategy);
+
+        Offers firstOffers = getApplicableOffers.execute();
+        Offers secondOffers = getApplicableOffers.execute();
+
+        assertThat(strategy.calculations()).isEqualTo(1);
+        assertThat(secondOffers.asList()).isEqualTo(firstOffers.asList());
+    }
+
+    @Test public void executing_withUnchangedStockAndStrategies_doesNotReadStock() {
+        StockRepository spiedStock = spy(stock);
+        CachingGetApplicableOffersUseCase getSpiedApplicableOffers
+                = CachingGetApplicableOffersUseCase.create(spiedStock, offerStrategies);
+        offerStrategies.add(new CountingOfferStrategy(1, OfferScope.all(), apple));
+
+        getSpiedApplicableOffers.execute();
+        Offers offers = getSpiedApplicableOffers.execute();
+
+        verify(spiedStock, times(1)).getAll();
+        assertThat(offers.asList()).extracting(QuantifiedOffer::quantity).containsExactly(3);
+    }
+
+    @Test public void executing_afterClosing_stopsListeningAndRecalculates() {
+        CountingOfferStrategy strategy = new CountingOfferStrategy(1, OfferScope.all(), apple);
+        offerStrategies.add(strategy);
+        getApplicableOffers.execute();
+
+        getApplicableOffers.close();
+        stock.adjustQuantity(apple, 2, false);
+        Offers offers = getApplicableOffers.execute();
+
+        assertThat(strategy.calculations()).isEqualTo(2);
+        assertThat(offers.asList()).extracting(QuantifiedOffer::quantity).containsExactly(5);
+    }
+
+    @Test public void executing_afterStockChange_recalculatesOnlyStrategiesScopedToChangedItem() {
+        CountingOfferStrategy appleStrategy = new CountingOfferStrategy(1, OfferScope.barcodes(1), apple);
+        CountingOfferStrategy beansStrategy = new CountingOfferStrategy(2, OfferScope.barcodes(2), beans);
+        offerStrategies.add(appleStrategy);
+        offerStrategies.add(beansStrategy);
+        getApplicableOffers.execute();
+
+        stock.adjustQuantity(apple, 2, false);
+        Offers offers = getApplicableOffers.execute();
+
+        assertThat(appleStrategy.calculations()).isEqualTo(2);
+        assertThat(beansStrategy.calculations()).isEqualTo(1);
+        assertThat(offers.asList()).extracting(QuantifiedOffer::quantity).containsExactly(5, 4);
+    }
+
+    @Test public void executing_afterAddingAndRemovingStrategies_returnsOffersOfCurrentStrategies() {
+        CountingOfferStrategy appleStrategy = new CountingOfferStrategy(1, OfferScope.barcodes(1), apple);
+        CountingOfferStrategy beansStrategy = new CountingOfferStrategy(2, OfferScope.barcodes(2), beans);
+        offerStrategies.add(appleStrategy);
+        getApplicableOffers.execute();
+
+        offerStrategies.add(beansStrategy);
+        Offers offersAfterAdding = getApplicableOffers.execute();
+        offerStrategies.remove(appleStrategy);
+        Offers offersAfterRemoving = getApplicableOffers.execute();
+
+        assertThat(appleStrategy.calculations()).isEqualTo(1);
+        assertThat(beansStrategy.calculations()).isEqualTo(1);
+        assertThat(offersAfterAdding.asList()).extracting(QuantifiedOffer::quantity).containsExactly(3, 4);
+        assertThat(offersAfterRemoving.asList()).extracting(QuantifiedOffer::quantity).containsExactly(4);
+    }
+
+    @Test public void executing_afterReplacingStrategy_calculatesReplacement() {
+        CountingOfferStrategy original = new CountingOfferStrategy(1, OfferScope.all(), apple);
+        offerStrategies.add(original);
+        getApplicableOffers.execute();
+        CountingOfferStrategy replacement = new CountingOfferStrategy(1, OfferScope.all(), beans);
+
+        offerStrategies.remove(original);
+        offerStrategies.add(replacement);
+        Offers offers = getApplicableOffers.execute();
+
+        assertThat(replacement.calculations()).isEqualTo(1);
+        assertThat(offers.asList()).extracting(QuantifiedOffer::quantity).containsExactly(4);
+    }
+
+    @Test public void executing_withSameStrategies_returnsSameOffersAsWithoutCache() {
+        offerStrategies.add(new CountingOfferStrategy(2, OfferScope.barcodes(2), beans));
+        offerStrategies.add(new CountingOfferStrategy(1, OfferScope.all(), apple));
+        getApplicableOffers.execute();
+        stock.adjustQuantity(beans, -1, false);
+
+        Offers cachedOffers = getApplicableOffers.execute();
+        Offers offers = new GetApplicableOffersUseCase(stock, offerStrategies).execute();
+
+        assertThat(cachedOffers.asList()).isEqualTo(offers.asList());
+    }
+
+    /** Returns an offer with the quantity of an item and counts how many times it was asked to. */
+    private static final class CountingOfferStrategy extends OfferStrategy {
+        private final OfferScope scope;
+        private final Item item;
+        private final AtomicInteger calculations = new AtomicInteger();
+
+        private CountingOfferStrategy(long id, OfferScope scope, Item item) {
+            super(id, "OfferStrategy-" + id);
+            this.scope = scope;
+            this.item = item;
+        }
+
+        @Override public OfferScope scope() { return scope; }
+
+        @Override public Offers calculateOffers(Items items) {
+            calculations.incrementAndGet();
+            Offer offer = Offer.create(description(), Price.of(-1));
+
+            return Offers.fromSingle(QuantifiedOffer.create(offer, items.quantityOf(item.barcode())));
+        }
+
+        private int calculations() { return calculations.get(); }
+    }
+}
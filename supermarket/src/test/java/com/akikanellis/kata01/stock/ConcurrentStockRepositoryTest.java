@@ -0,0 +1,434 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
+import com.akikanellis.kata01.item.QuantifiedItem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ConcurrentStockRepositoryTest {
+    private static final int THREADS = 64;
+    private static final int ADJUSTMENTS_PER_THREAD = 10_000;
+    private ConcurrentStockRepository stock;
+
+    @Before public void beforeEach() { stock = new ConcurrentStockRepository(); }
+
+    @Test public void creatingItem_withNotExistingItem_createsItem() {
+        Item item = createDefaultItem();
+
+        stock.create(item);
+
+        assertThat(stock.contains(item)).isTrue();
+    }
+
+    @Test public void creatingItem_withNotExistingItem_initializesQuantityToZero() {
+        Item item = createDefaultItem();
+
+        stock.create(item);
+
+        assertThat(stock.getQuantity(item)).isEqualTo(0);
+    }
+
+    @Test public void creatingItem_withExistingItem_throwsException() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        assertThatExceptionOfType(ItemAlreadyExistsException.class)
+                .isThrownBy(() -> stock.create(item));
+    }
+
+    @Test public void replacingQuantity_withExistingItem_replacesQuantity() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        stock.replaceQuantity(item, 10);
+
+        assertThat(stock.getQuantity(item)).isEqualTo(10);
+    }
+
+    @Test public void replacingQuantity_withNotExistingItem_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.replaceQuantity(createDefaultItem(), 10));
+    }
+
+    @Test public void adjustingQuantity_withPositiveDelta_addsToQuantity() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        int newQuantity = stock.adjustQuantity(item, 5, false);
+
+        assertThat(newQuantity).isEqualTo(15);
+        assertThat(stock.getQuantity(item)).isEqualTo(15);
+    }
+
+    @Test public void adjustingQuantity_belowZeroWithFloor_setsQuantityToZero() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        int newQuantity = stock.adjustQuantity(item, -15, true);
+
+        assertThat(newQuantity).isEqualTo(0);
+    }
+
+    @Test public void adjustingQuantity_belowZeroWithoutFloor_setsNegativeQuantity() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        int newQuantity = stock.adjustQuantity(item, -5, false);
+
+        assertThat(newQuantity).isEqualTo(-5);
+    }
+
+    @Test public void adjustingQuantity_withNotExistingItem_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.adjustQuantity(createDefaultItem(), 10, false));
+    }
+
+    @Test public void applyingMovements_withExistingItems_appliesEachLineInOrder() {
+        Item apple = createDefaultItemBuilder().barcode(1).build();
+        Item orange = createDefaultItemBuilder().barcode(2).build();
+        stock.create(apple);
+        stock.create(orange);
+        StockMovements movements = StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(1, 10),
+                StockMovement.fill(2, 4),
+                StockMovement.reduce(1, 20),
+                StockMovement.fill(1, 5)
+        ));
+
+        StockMovementsReport report = stock.applyMovements(movements);
+
+        assertThat(report.appliedCount()).isEqualTo(4);
+        assertThat(report.hasFailures()).isFalse();
+        assertThat(stock.getQuantity(apple)).isEqualTo(5);
+        assertThat(stock.getQuantity(orange)).isEqualTo(4);
+    }
+
+    @Test public void applyingMovements_withUnknownBarcodes_reportsThemAndAppliesTheRest() {
+        Item item = createDefaultItemBuilder().barcode(1).build();
+        stock.create(item);
+        StockMovement unknownMovement = StockMovement.fill(7, 3);
+        StockMovements movements = StockMovements.fromCollection(Arrays.asList(
+                unknownMovement,
+                StockMovement.fill(1, 10),
+                unknownMovement
+        ));
+
+        StockMovementsReport report = stock.applyMovements(movements);
+
+        assertThat(report.appliedCount()).isEqualTo(1);
+        assertThat(report.failures()).containsExactly(
+                StockMovementFailure.itemNotFound(0, unknownMovement),
+                StockMovementFailure.itemNotFound(2, unknownMovement));
+        assertThat(stock.getQuantity(item)).isEqualTo(10);
+    }
+
+    @Test public void applyingMovementsIfAvailable_withEnoughStock_appliesEveryLine() {
+        Item apple = createDefaultItemBuilder().barcode(1).build();
+        Item orange = createDefaultItemBuilder().barcode(2).build();
+        stock.create(apple);
+        stock.create(orange);
+        stock.replaceQuantity(apple, 5);
+        stock.replaceQuantity(orange, 3);
+
+        StockMovementsReport report = stock.applyMovementsIfAvailable(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(1, 5),
+                StockMovement.reduce(2, 1)
+        )));
+
+        assertThat(report.appliedCount()).isEqualTo(2);
+        assertThat(report.hasFailures()).isFalse();
+        assertThat(stock.getQuantity(apple)).isEqualTo(0);
+        assertThat(stock.getQuantity(orange)).isEqualTo(2);
+    }
+
+    @Test public void applyingMovementsIfAvailable_withUnavailableLines_reportsThemAndAppliesNothing() {
+        Item apple = createDefaultItemBuilder().barcode(1).build();
+        Item orange = createDefaultItemBuilder().barcode(2).build();
+        stock.create(apple);
+        stock.create(orange);
+        stock.replaceQuantity(apple, 5);
+        stock.replaceQuantity(orange, 3);
+        StockMovement unknownMovement = StockMovement.reduce(7, 1);
+        StockMovements movements = StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(1, 2),
+                StockMovement.reduce(2, 2),
+                unknownMovement,
+                StockMovement.reduce(2, 2)
+        ));
+
+        StockMovementsReport report = stock.applyMovementsIfAvailable(movements);
+
+        assertThat(report.appliedCount()).isEqualTo(0);
+        assertThat(report.failures()).containsExactly(
+                StockMovementFailure.itemNotFound(2, unknownMovement),
+                StockMovementFailure.insufficientStock(3, movements.get(3), 1));
+        assertThat(stock.getQuantity(apple)).isEqualTo(5);
+        assertThat(stock.getQuantity(orange)).isEqualTo(3);
+    }
+
+    @Test public void gettingQuantity_withItemPresent_returnsQuantity() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        int expectedQuantity = 10;
+        stock.replaceQuantity(item, expectedQuantity);
+
+        int quantity = stock.getQuantity(item);
+
+        assertThat(quantity).isEqualTo(expectedQuantity);
+    }
+
+    @Test public void gettingQuantity_withNoItemPresent_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.getQuantity(createDefaultItem()));
+    }
+
+    @Test public void gettingItemByBarcode_withItemPresent_returnsItem() {
+        Item expectedItem = createDefaultItemBuilder()
+                .barcode(10)
+                .build();
+        stock.create(expectedItem);
+
+        Item actualItem = stock.getByBarcode(10);
+
+        assertThat(actualItem).isSameAs(expectedItem);
+    }
+
+    @Test public void gettingItemByBarcode_withNoItemPresent_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.getByBarcode(1));
+    }
+
+    @Test public void gettingAllItems_withItems_returnsAllPackagedAsItems() {
+        Items expectedItems = createDefaultItems();
+        expectedItems.stream().forEach(itemWithQuantity -> {
+            stock.create(itemWithQuantity.item());
+            stock.replaceQuantity(itemWithQuantity.item(), itemWithQuantity.quantity());
+        });
+
+        Items actualItems = stock.getAll();
+
+        assertThat(actualItems.asList()).containsOnlyElementsOf(expectedItems.asList());
+    }
+
+    @Test public void gettingAllItems_withNoItems_returnsEmptyItems() {
+        Items items = stock.getAll();
+
+        assertThat(items.isEmpty()).isTrue();
+    }
+
+    @Test public void adjustingQuantity_fromManyThreadsOnSameItem_losesNoUpdates() throws Exception {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < ADJUSTMENTS_PER_THREAD; i++) {
+                stock.adjustQuantity(item, thread % 2 == 0 ? 3 : -1, false);
+            }
+        });
+
+        int expectedQuantity = (THREADS / 2) * ADJUSTMENTS_PER_THREAD * 3 - (THREADS / 2) * ADJUSTMENTS_PER_THREAD;
+        assertThat(stock.getQuantity(item)).isEqualTo(expectedQuantity);
+    }
+
+    @Test public void adjustingQuantity_fromManyThreadsOnDifferentItems_losesNoUpdates() throws Exception {
+        Item[] items = new Item[THREADS / 4];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = createDefaultItemBuilder().barcode(i).build();
+            stock.create(items[i]);
+        }
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < ADJUSTMENTS_PER_THREAD; i++) {
+                stock.adjustQuantity(items[(thread + i) % items.length], 1, false);
+            }
+        });
+
+        int totalQuantity = stock.getAll().stream()
+                .mapToInt(QuantifiedItem::quantity)
+                .sum();
+        assertThat(totalQuantity).isEqualTo(THREADS * ADJUSTMENTS_PER_THREAD);
+    }
+
+    @Test public void creatingItem_fromManyThreads_createsItOnce() throws Exception {
+        Item item = createDefaultItem();
+        AtomicInteger successfulCreations = new AtomicInteger();
+
+        runConcurrently(THREADS, thread -> {
+            try {
+                stock.create(item);
+                successfulCreations.incrementAndGet();
+            } catch (ItemAlreadyExistsException e) {
+                // Expected for every thread but one
+            }
+        });
+
+        assertThat(successfulCreations.get()).isEqualTo(1);
+    }
+
+    @Test public void applyingMovementsIfAvailable_fromManyThreads_neverSellsMoreThanTheStock() throws Exception {
+        Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(2)).build();
+        Item orange = createDefaultItemBuilder().barcode(2).price(Price.of(3)).build();
+        stock.create(apple);
+        stock.create(orange);
+        stock.replaceQuantity(apple, 1000);
+        stock.replaceQuantity(orange, 500);
+        StockMovements both = StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(1, 1),
+                StockMovement.reduce(2, 1)));
+        StockMovements orangeOnly = StockMovements.fromCollection(Arrays.asList(StockMovement.reduce(2, 1)));
+        AtomicInteger bothApplied = new AtomicInteger();
+        AtomicInteger orangeOnlyApplied = new AtomicInteger();
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < 100; i++) {
+                boolean isBoth = thread % 2 == 0;
+                StockMovementsReport report = stock.applyMovementsIfAvailable(isBoth ? both : orangeOnly);
+                AtomicInteger applied = isBoth ? bothApplied : orangeOnlyApplied;
+                if (!report.hasFailures()) applied.incrementAndGet();
+            }
+        });
+
+        assertThat(bothApplied.get() + orangeOnlyApplied.get()).isEqualTo(500);
+        assertThat(stock.getQuantity(orange)).isEqualTo(0);
+        assertThat(stock.getQuantity(apple)).isEqualTo(1000 - bothApplied.get());
+        assertThat(stock.getTotalValue()).isEqualTo(Price.of(2 * (1000L - bothApplied.get())));
+    }
+
+    private static void runConcurrently(int threads, IntConsumer task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            int threadNumber = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.accept(threadNumber);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        try {
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new AssertionError(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test public void gettingTotalValue_withNoItems_returnsZero() {
+        assertThat(stock.getTotalValue()).isEqualTo(Price.ZERO);
+    }
+
+    @Test public void gettingTotalValue_afterQuantityChanges_returnsSumOfPricesTimesQuantities() {
+        Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+        Item cheese = createDefaultItemBuilder().barcode(2).price(Price.of(0.5)).build();
+        stock.create(apple);
+        stock.create(cheese);
+
+        stock.replaceQuantity(apple, 10);
+        stock.adjustQuantity(apple, -4, true);
+        stock.adjustQuantity(cheese, 3, false);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(apple.barcode(), 10),
+                StockMovement.fill(apple.barcode(), 2),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(stock.getTotalValue()).isEqualTo(Price.of(new BigDecimal("101.5")));
+    }
+
+    @Test public void adjustingQuantity_fromManyThreads_keepsTotalValueConsistent() throws Exception {
+        Item[] items = new Item[THREADS / 4];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = createDefaultItemBuilder().barcode(i).price(Price.of(i + 1)).build();
+            stock.create(items[i]);
+        }
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < ADJUSTMENTS_PER_THREAD; i++) {
+                stock.adjustQuantity(items[(thread + i) % items.length], thread % 2 == 0 ? 2 : -1, true);
+            }
+        });
+
+        Price expectedValue = stock.getAll().stream()
+                .map(QuantifiedItem::totalPrice)
+                .reduce(Price.ZERO, Price::add);
+        assertThat(stock.getTotalValue()).isEqualTo(expectedValue);
+    }
+
+    @Test public void changingStock_withListener_emitsCreatedAndQuantityChanges() {
+        List<StockChange> changes = new ArrayList<>();
+        stock.addListener(changes::addAll);
+        Item item = createDefaultItem();
+
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+        stock.adjustQuantity(item, -15, true);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(item.barcode(), 4),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(changes).containsExactly(
+                StockChange.created(item),
+                StockChange.quantityChanged(item, 0, 10),
+                StockChange.quantityChanged(item, 10, 0),
+                StockChange.quantityChanged(item, 0, 4));
+    }
+
+    @Test public void changingStock_withUnchangedQuantityOrRemovedListener_emitsNothing() {
+        List<StockChange> changes = new ArrayList<>();
+        StockChangeListener listener = changes::addAll;
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.addListener(listener);
+
+        stock.replaceQuantity(item, 0);
+        stock.removeListener(listener);
+        stock.replaceQuantity(item, 10);
+
+        assertThat(changes).isEmpty();
+    }
+
+    @Test public void adjustingQuantity_fromManyThreadsWithListener_emitsEveryChange() throws Exception {
+        Item item = createDefaultItem();
+        stock.create(item);
+        LongAdder emittedDelta = new LongAdder();
+        stock.addListener(changes -> changes.forEach(change -> emittedDelta.add(change.delta())));
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < ADJUSTMENTS_PER_THREAD; i++) stock.adjustQuantity(item, 1, false);
+        });
+
+        assertThat(emittedDelta.sum()).isEqualTo(stock.getQuantity(item));
+    }
+}
@@ -10,7 +10,6 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FillStockUseCaseTest {
@@ -28,13 +27,12 @@ public class FillStockUseCaseTest {
         verify(addNewItemIfNotExists).execute(item);
     }
 
-    @Test public void executing_withNonNegativeQuantity_addsStockOnTopOfPreviousQuantity() {
+    @Test public void executing_withNonNegativeQuantity_atomicallyAddsStockOnTopOfPreviousQuantity() {
         Item item = createDefaultItem();
-        when(stock.getQuantity(item)).thenReturn(20);
 
         fillStock.execute(item, 50);
 
-        verify(stock).replaceQuantity(item, 70);
+        verify(stock).adjustQuantity(item, 50, false);
     }
 
     @Test public void executing_withNegativeQuantity_throwsException() {
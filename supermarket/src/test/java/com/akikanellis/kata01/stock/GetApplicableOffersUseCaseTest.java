@@ -1,19 +1,25 @@
 package com.akikanellis.kata01.stock;
 
 import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.OfferStrategy;
 import com.akikanellis.kata01.offer.OfferStrategies;
 import com.akikanellis.kata01.offer.OfferStrategyRepository;
 import com.akikanellis.kata01.offer.Offers;
+import com.akikanellis.kata01.offer.QuantifiedOffer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultOfferStrategies;
 import static com.akikanellis.kata01.test_utils.Fakes.createOfferStrategiesWithQuantities;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -27,7 +33,7 @@ public class GetApplicableOffersUseCaseTest {
     @Test public void executing_withAvailableOfferStrategies_returnsOffers() {
         OfferStrategies strategies = createOfferStrategiesWithQuantities(1, 2, 3);
         Items items = createDefaultItems();
-        when(offerStrategies.getAll()).thenReturn(strategies);
+        when(offerStrategies.getApplicableTo(items)).thenReturn(strategies);
         when(stock.getAll()).thenReturn(items);
 
         Offers offers = getApplicableOffers.execute();
@@ -38,7 +44,7 @@ public class GetApplicableOffersUseCaseTest {
     @Test public void executing_withNoOfferStrategies_returnsEmptyOffers() {
         OfferStrategies strategies = OfferStrategies.empty();
         Items items = createDefaultItems();
-        when(offerStrategies.getAll()).thenReturn(strategies);
+        when(offerStrategies.getApplicableTo(items)).thenReturn(strategies);
         when(stock.getAll()).thenReturn(items);
 
         Offers offers = getApplicableOffers.execute();
@@ -50,7 +56,7 @@ public class GetApplicableOffersUseCaseTest {
     @Test public void executing_withNoGroceries_returnsEmptyOffers() {
         OfferStrategies strategies = createDefaultOfferStrategies();
         Items items = Items.empty();
-        when(offerStrategies.getAll()).thenReturn(strategies);
+        when(offerStrategies.getApplicableTo(items)).thenReturn(strategies);
         when(stock.getAll()).thenReturn(items);
 
         Offers offers = getApplicableOffers.execute();
@@ -58,4 +64,53 @@ public class GetApplicableOffersUseCaseTest {
         assertThat(offers.isEmpty()).isTrue();
 
     }
-}
\ No newline at end of file
+
+    @Test public void executing_withManyOfferStrategies_returnsOffersInOrderOfStrategyIds() {
+        Items items = createDefaultItems();
+        when(offerStrategies.getApplicableTo(items))
+                .thenReturn(createOfferStrategiesWithQuantities(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        when(stock.getAll()).thenReturn(items);
+
+        Offers offers = getApplicableOffers.execute();
+
+        assertThat(offers.asList())
+                .extracting(QuantifiedOffer::quantity)
+                .containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+
+    @Test public void executing_inParallel_returnsSameOffersAsSequentially() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        GetApplicableOffersUseCase getApplicableOffersInParallel
+                = new GetApplicableOffersUseCase(stock, offerStrategies, pool);
+        Items items = createDefaultItems();
+        when(offerStrategies.getApplicableTo(items))
+                .thenReturn(createOfferStrategiesWithQuantities(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        when(stock.getAll()).thenReturn(items);
+
+        Offers parallelOffers = getApplicableOffersInParallel.execute();
+        Offers sequentialOffers = getApplicableOffers.execute();
+        pool.shutdown();
+
+        assertThat(parallelOffers.asList()).isEqualTo(sequentialOffers.asList());
+    }
+
+    @Test public void executing_inParallelWithFailingStrategy_throwsStrategyException() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        GetApplicableOffersUseCase getApplicableOffersInParallel
+                = new GetApplicableOffersUseCase(stock, offerStrategies, pool);
+        OfferStrategy failingStrategy = new OfferStrategy(1, "Failing") {
+            @Override public Offers calculateOffers(Items items) { throw new IllegalStateException(); }
+        };
+        OfferStrategy workingStrategy = new OfferStrategy(2, "Working") {
+            @Override public Offers calculateOffers(Items items) { return Offers.empty(); }
+        };
+        Items items = createDefaultItems();
+        when(offerStrategies.getApplicableTo(items))
+                .thenReturn(OfferStrategies.fromCollection(Arrays.asList(failingStrategy, workingStrategy)));
+        when(stock.getAll()).thenReturn(items);
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(getApplicableOffersInParallel::execute);
+        pool.shutdown();
+    }
+}
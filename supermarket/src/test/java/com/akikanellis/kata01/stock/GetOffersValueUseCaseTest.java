@@ -1,5 +1,6 @@
 package com.akikanellis.kata01.stock;
 
+import com.akikanellis.kata01.offer.OfferSink;
 import com.akikanellis.kata01.offer.Offers;
 import com.akikanellis.kata01.price.Price;
 import org.junit.Before;
@@ -10,7 +11,8 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import static com.akikanellis.kata01.test_utils.Fakes.createOffersWithPrices;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GetOffersValueUseCaseTest {
@@ -19,8 +21,16 @@ public class GetOffersValueUseCaseTest {
 
     @Before public void beforeEach() { getOffersValue = new GetOffersValueUseCase(getOffers); }
 
+    private void givenApplicableOffers(Offers offers) {
+        doAnswer(invocation -> {
+            OfferSink sink = (OfferSink) invocation.getArguments()[0];
+            offers.stream().forEach(sink::accept);
+            return null;
+        }).when(getOffers).execute(any(OfferSink.class));
+    }
+
     @Test public void executing_withApplicableOffers_returnsCumulativeValue() {
-        when(getOffers.execute()).thenReturn(createOffersWithPrices(-10, -15, -30));
+        givenApplicableOffers(createOffersWithPrices(-10, -15, -30));
 
         Price value = getOffersValue.execute();
 
@@ -28,10 +38,10 @@ public class GetOffersValueUseCaseTest {
     }
 
     @Test public void executing_withNoApplicableOffers_returnsZero() {
-        when(getOffers.execute()).thenReturn(Offers.empty());
+        givenApplicableOffers(Offers.empty());
 
         Price value = getOffersValue.execute();
 
         assertThat(value).isEqualTo(Price.ZERO);
     }
-}
\ No newline at end of file
+}
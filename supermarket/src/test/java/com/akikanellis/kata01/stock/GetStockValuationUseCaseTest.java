@@ -0,0 +1,64 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.offer.OfferStrategies;
+import com.akikanellis.kata01.offer.OfferStrategyRepository;
+import com.akikanellis.kata01.price.Price;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createItemsWithPrices;
+import static com.akikanellis.kata01.test_utils.Fakes.createOfferStrategiesWithQuantities;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GetStockValuationUseCaseTest {
+    @Mock private StockRepository stock;
+    @Mock private OfferStrategyRepository offerStrategies;
+    private GetStockValuationUseCase getStockValuation;
+
+    @Before public void beforeEach() { getStockValuation = new GetStockValuationUseCase(stock, offerStrategies); }
+
+    @Test public void executing_withItemsAndOfferStrategies_returnsAllValuesFromOneStockRead() {
+        when(stock.getAll()).thenReturn(createItemsWithPrices(50, 90, 30));
+        when(offerStrategies.getAll()).thenReturn(createOfferStrategiesWithQuantities(3, 2));
+
+        StockValuation valuation = getStockValuation.execute();
+
+        assertThat(valuation.valueBeforeOffers()).isEqualTo(Price.of(170));
+        assertThat(valuation.offersValueByStrategy()).containsExactly(
+                entry(0L, Price.of(-3)),
+                entry(1L, Price.of(-2)));
+        assertThat(valuation.offersValue()).isEqualTo(Price.of(-5));
+        assertThat(valuation.valueAfterOffers()).isEqualTo(Price.of(165));
+        verify(stock, times(1)).getAll();
+    }
+
+    @Test public void executing_withNoItems_returnsZeroValues() {
+        when(stock.getAll()).thenReturn(Items.empty());
+        when(offerStrategies.getAll()).thenReturn(createOfferStrategiesWithQuantities(3));
+
+        StockValuation valuation = getStockValuation.execute();
+
+        assertThat(valuation.valueBeforeOffers()).isEqualTo(Price.ZERO);
+        assertThat(valuation.offersValueByStrategy()).containsExactly(entry(0L, Price.ZERO));
+        assertThat(valuation.valueAfterOffers()).isEqualTo(Price.ZERO);
+    }
+
+    @Test public void executing_withNoOfferStrategies_returnsValueBeforeOffersAsValueAfterOffers() {
+        when(stock.getAll()).thenReturn(createItemsWithPrices(50));
+        when(offerStrategies.getAll()).thenReturn(OfferStrategies.empty());
+
+        StockValuation valuation = getStockValuation.execute();
+
+        assertThat(valuation.offersValueByStrategy()).isEmpty();
+        assertThat(valuation.valueAfterOffers()).isEqualTo(Price.of(50));
+    }
+}
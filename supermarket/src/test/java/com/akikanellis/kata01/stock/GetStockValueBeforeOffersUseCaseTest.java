@@ -1,6 +1,6 @@
 package com.akikanellis.kata01.stock;
 
-import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.item.Item;
 import com.akikanellis.kata01.price.Price;
 import org.junit.Before;
 import org.junit.Test;
@@ -8,38 +8,68 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import static com.akikanellis.kata01.test_utils.Fakes.createItemsWithPrices;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GetStockValueBeforeOffersUseCaseTest {
-    @Mock private GetStockUseCase getStock;
+    @Mock private StockRepository stock;
     private GetStockValueBeforeOffersUseCase getStockValueBeforeOffers;
 
-    @Before public void beforeEach() { getStockValueBeforeOffers = new GetStockValueBeforeOffersUseCase(getStock); }
+    @Before public void beforeEach() { getStockValueBeforeOffers = new GetStockValueBeforeOffersUseCase(stock); }
 
-    @Test public void executing_withOneItem_returnsItemValue() {
-        when(getStock.execute()).thenReturn(createItemsWithPrices(50));
+    @Test public void executing_withStockValue_returnsStockValue() {
+        when(stock.getTotalValue()).thenReturn(Price.of(170));
 
         Price value = getStockValueBeforeOffers.execute();
 
-        assertThat(value).isEqualTo(Price.of(50));
+        assertThat(value).isEqualTo(Price.of(170));
     }
 
-    @Test public void executing_withManyItems_returnsCumulativeValue() {
-        when(getStock.execute()).thenReturn(createItemsWithPrices(50, 90, 30));
+    @Test public void executing_withNoItems_returnsZero() {
+        when(stock.getTotalValue()).thenReturn(Price.ZERO);
 
         Price value = getStockValueBeforeOffers.execute();
 
-        assertThat(value).isEqualTo(Price.of(170));
+        assertThat(value).isEqualTo(Price.ZERO);
     }
 
-    @Test public void executing_withNoItems_returnsZero() {
-        when(getStock.execute()).thenReturn(Items.empty());
+    @Test public void executing_withInMemoryStockAfterQuantityChanges_returnsCumulativeValue() {
+        assertReturnsCumulativeValueAfterQuantityChanges(new InMemoryStockRepository());
+    }
 
-        Price value = getStockValueBeforeOffers.execute();
+    @Test public void executing_withConcurrentStockAfterQuantityChanges_returnsCumulativeValue() {
+        assertReturnsCumulativeValueAfterQuantityChanges(new ConcurrentStockRepository());
+    }
 
-        assertThat(value).isEqualTo(Price.ZERO);
+    private static void assertReturnsCumulativeValueAfterQuantityChanges(StockRepository realStock) {
+        Item halfPennyItem = Item.builder()
+                .barcode(4)
+                .name("Sweet")
+                .price(Price.of(new BigDecimal("0.5")))
+                .build();
+        createDefaultItems().stream().forEach(quantifiedItem -> {
+            realStock.create(quantifiedItem.item());
+            realStock.replaceQuantity(quantifiedItem.item(), quantifiedItem.quantity());
+        });
+        realStock.create(halfPennyItem);
+        realStock.replaceQuantity(halfPennyItem, 9);
+        realStock.replaceQuantity(realStock.getByBarcode(1), 5);
+        realStock.adjustQuantity(realStock.getByBarcode(2), -10, true);
+        realStock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(3, 20),
+                StockMovement.reduce(4, 2))));
+
+        Price value = new GetStockValueBeforeOffersUseCase(realStock).execute();
+
+        Price sumOfPricesTimesQuantities = realStock.getAll().stream()
+                .map(quantifiedItem -> quantifiedItem.item().price().multiplyBy(quantifiedItem.quantity()))
+                .reduce(Price.ZERO, Price::add);
+        assertThat(value).isEqualTo(sumOfPricesTimesQuantities);
+        assertThat(value).isEqualTo(Price.of(new BigDecimal("3203.5")));
     }
-}
\ No newline at end of file
+}
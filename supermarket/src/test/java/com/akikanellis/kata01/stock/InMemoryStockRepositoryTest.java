@@ -4,9 +4,15 @@ import com.akikanellis.kata01.item.Item;
 import com.akikanellis.kata01.item.ItemAlreadyExistsException;
 import com.akikanellis.kata01.item.ItemNotFoundException;
 import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
@@ -56,6 +62,124 @@ public class InMemoryStockRepositoryTest {
                 .isThrownBy(() -> stock.replaceQuantity(createDefaultItem(), 10));
     }
 
+    @Test public void adjustingQuantity_withPositiveDelta_addsToQuantity() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        int newQuantity = stock.adjustQuantity(item, 5, false);
+
+        assertThat(newQuantity).isEqualTo(15);
+        assertThat(stock.getQuantity(item)).isEqualTo(15);
+    }
+
+    @Test public void adjustingQuantity_belowZeroWithFloor_setsQuantityToZero() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        int newQuantity = stock.adjustQuantity(item, -15, true);
+
+        assertThat(newQuantity).isEqualTo(0);
+    }
+
+    @Test public void adjustingQuantity_belowZeroWithoutFloor_setsNegativeQuantity() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        int newQuantity = stock.adjustQuantity(item, -5, false);
+
+        assertThat(newQuantity).isEqualTo(-5);
+    }
+
+    @Test public void adjustingQuantity_withNotExistingItem_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.adjustQuantity(createDefaultItem(), 10, false));
+    }
+
+    @Test public void applyingMovements_withExistingItems_appliesEachLineInOrder() {
+        Item apple = createDefaultItemBuilder().barcode(1).build();
+        Item orange = createDefaultItemBuilder().barcode(2).build();
+        stock.create(apple);
+        stock.create(orange);
+        StockMovements movements = StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(1, 10),
+                StockMovement.fill(2, 4),
+                StockMovement.reduce(1, 20),
+                StockMovement.fill(1, 5)
+        ));
+
+        StockMovementsReport report = stock.applyMovements(movements);
+
+        assertThat(report.appliedCount()).isEqualTo(4);
+        assertThat(report.hasFailures()).isFalse();
+        assertThat(stock.getQuantity(apple)).isEqualTo(5);
+        assertThat(stock.getQuantity(orange)).isEqualTo(4);
+    }
+
+    @Test public void applyingMovements_withUnknownBarcodes_reportsThemAndAppliesTheRest() {
+        Item item = createDefaultItemBuilder().barcode(1).build();
+        stock.create(item);
+        StockMovement unknownMovement = StockMovement.fill(7, 3);
+        StockMovements movements = StockMovements.fromCollection(Arrays.asList(
+                unknownMovement,
+                StockMovement.fill(1, 10),
+                unknownMovement
+        ));
+
+        StockMovementsReport report = stock.applyMovements(movements);
+
+        assertThat(report.appliedCount()).isEqualTo(1);
+        assertThat(report.failures()).containsExactly(
+                StockMovementFailure.itemNotFound(0, unknownMovement),
+                StockMovementFailure.itemNotFound(2, unknownMovement));
+        assertThat(stock.getQuantity(item)).isEqualTo(10);
+    }
+
+    @Test public void applyingMovementsIfAvailable_withEnoughStock_appliesEveryLine() {
+        Item apple = createDefaultItemBuilder().barcode(1).build();
+        Item orange = createDefaultItemBuilder().barcode(2).build();
+        stock.create(apple);
+        stock.create(orange);
+        stock.replaceQuantity(apple, 5);
+        stock.replaceQuantity(orange, 3);
+
+        StockMovementsReport report = stock.applyMovementsIfAvailable(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(1, 5),
+                StockMovement.reduce(2, 1)
+        )));
+
+        assertThat(report.appliedCount()).isEqualTo(2);
+        assertThat(report.hasFailures()).isFalse();
+        assertThat(stock.getQuantity(apple)).isEqualTo(0);
+        assertThat(stock.getQuantity(orange)).isEqualTo(2);
+    }
+
+    @Test public void applyingMovementsIfAvailable_withUnavailableLines_reportsThemAndAppliesNothing() {
+        Item apple = createDefaultItemBuilder().barcode(1).build();
+        Item orange = createDefaultItemBuilder().barcode(2).build();
+        stock.create(apple);
+        stock.create(orange);
+        stock.replaceQuantity(apple, 5);
+        stock.replaceQuantity(orange, 3);
+        StockMovement unknownMovement = StockMovement.reduce(7, 1);
+        StockMovements movements = StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(1, 2),
+                StockMovement.reduce(2, 2),
+                unknownMovement,
+                StockMovement.reduce(2, 2)
+        ));
+
+        StockMovementsReport report = stock.applyMovementsIfAvailable(movements);
+
+        assertThat(report.appliedCount()).isEqualTo(0);
+        assertThat(report.failures()).containsExactly(
+                StockMovementFailure.itemNotFound(2, unknownMovement),
+                StockMovementFailure.insufficientStock(3, movements.get(3), 1));
+        assertThat(stock.getQuantity(apple)).isEqualTo(5);
+        assertThat(stock.getQuantity(orange)).isEqualTo(3);
+    }
+
     @Test public void gettingQuantity_withItemPresent_returnsQuantity() {
         Item item = createDefaultItem();
         stock.create(item);
@@ -105,4 +229,60 @@ public class InMemoryStockRepositoryTest {
 
         assertThat(items.isEmpty()).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test public void gettingTotalValue_withNoItems_returnsZero() {
+        assertThat(stock.getTotalValue()).isEqualTo(Price.ZERO);
+    }
+
+    @Test public void gettingTotalValue_afterQuantityChanges_returnsSumOfPricesTimesQuantities() {
+        Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+        Item cheese = createDefaultItemBuilder().barcode(2).price(Price.of(0.5)).build();
+        stock.create(apple);
+        stock.create(cheese);
+
+        stock.replaceQuantity(apple, 10);
+        stock.adjustQuantity(apple, -4, true);
+        stock.adjustQuantity(cheese, 3, false);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(apple.barcode(), 10),
+                StockMovement.fill(apple.barcode(), 2),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(stock.getTotalValue()).isEqualTo(Price.of(new BigDecimal("101.5")));
+    }
+
+    @Test public void changingStock_withListener_emitsCreatedAndQuantityChanges() {
+        List<StockChange> changes = new ArrayList<>();
+        stock.addListener(changes::addAll);
+        Item item = createDefaultItem();
+
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+        stock.adjustQuantity(item, -15, true);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(item.barcode(), 4),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(changes).containsExactly(
+                StockChange.created(item),
+                StockChange.quantityChanged(item, 0, 10),
+                StockChange.quantityChanged(item, 10, 0),
+                StockChange.quantityChanged(item, 0, 4));
+    }
+
+    @Test public void changingStock_withUnchangedQuantityOrRemovedListener_emitsNothing() {
+        List<StockChange> changes = new ArrayList<>();
+        StockChangeListener listener = changes::addAll;
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.addListener(listener);
+
+        stock.replaceQuantity(item, 0);
+        stock.removeListener(listener);
+        stock.replaceQuantity(item, 10);
+
+        assertThat(changes).isEmpty();
+    }
+}
@@ -0,0 +1,312 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JournaledStockRepositoryTest {
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+    @Mock private ScheduledExecutorService background;
+    private Path directory;
+    private JournaledStockRepository stock;
+
+    @Before public void beforeEach() throws IOException {
+        directory = folder.getRoot().toPath().resolve("stock");
+        stock = open();
+    }
+
+    @After public void afterEach() throws IOException { stock.close(); }
+
+    private JournaledStockRepository open() throws IOException {
+        return JournaledStockRepository.open(JournalConfig.builder()
+                .directory(directory)
+                .syncIntervalMillis(0)
+                .build());
+    }
+
+    private void reopen() throws IOException {
+        stock.close();
+        stock = open();
+    }
+
+    @Test public void creatingItem_withNotExistingItem_createsItem() {
+        Item item = createDefaultItem();
+
+        stock.create(item);
+
+        assertThat(stock.contains(item)).isTrue();
+        assertThat(stock.getQuantity(item)).isEqualTo(0);
+    }
+
+    @Test public void creatingItem_withExistingItem_throwsException() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        assertThatExceptionOfType(ItemAlreadyExistsException.class)
+                .isThrownBy(() -> stock.create(item));
+    }
+
+    @Test public void replacingQuantity_withNotExistingItem_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.replaceQuantity(createDefaultItem(), 10));
+    }
+
+    @Test public void adjustingQuantity_belowZeroWithFloor_setsQuantityToZero() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        int newQuantity = stock.adjustQuantity(item, -15, true);
+
+        assertThat(newQuantity).isEqualTo(0);
+    }
+
+    @Test public void reopening_afterChanges_recoversAllItemsAndQuantities() throws IOException {
+        Items expectedItems = createDefaultItems();
+        expectedItems.stream().forEach(quantifiedItem -> {
+            stock.create(quantifiedItem.item());
+            stock.replaceQuantity(quantifiedItem.item(), quantifiedItem.quantity());
+        });
+
+        reopen();
+
+        assertThat(stock.getAll().asList()).containsOnlyElementsOf(expectedItems.asList());
+    }
+
+    @Test public void reopening_afterFractionalPricedItem_recoversExactPrice() throws IOException {
+        Item cheese = createDefaultItemBuilder()
+                .name("Cheese")
+                .price(Price.of(0.5))
+                .build();
+        stock.create(cheese);
+
+        reopen();
+
+        assertThat(stock.getByBarcode(cheese.barcode()).price()).isEqualTo(Price.of(0.5));
+        assertThat(stock.getByBarcode(cheese.barcode()).name()).isEqualTo("Cheese");
+    }
+
+    @Test public void reopening_afterAdjustmentsAndMovements_recoversQuantities() throws IOException {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.adjustQuantity(item, 30, false);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(item.barcode(), 10),
+                StockMovement.fill(99, 10)
+        )));
+
+        reopen();
+
+        assertThat(stock.getQuantity(item)).isEqualTo(20);
+    }
+
+    @Test public void reopening_afterMovementsIfAvailable_recoversOnlyAppliedOnes() throws IOException {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 5);
+        stock.applyMovementsIfAvailable(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(item.barcode(), 2))));
+        StockMovementsReport report = stock.applyMovementsIfAvailable(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(item.barcode(), 2),
+                StockMovement.reduce(item.barcode(), 2))));
+
+        reopen();
+
+        assertThat(report.failures()).extracting(StockMovementFailure::line).containsExactly(1);
+        assertThat(stock.getQuantity(item)).isEqualTo(3);
+    }
+
+    @Test public void reopening_afterCompaction_recoversFromSnapshotAndJournalTail() throws IOException {
+        Item apple = createDefaultItemBuilder().barcode(1).build();
+        Item orange = createDefaultItemBuilder().barcode(2).build();
+        stock.create(apple);
+        stock.replaceQuantity(apple, 10);
+        stock.compact();
+        stock.create(orange);
+        stock.replaceQuantity(orange, 5);
+        stock.replaceQuantity(apple, 7);
+
+        reopen();
+
+        assertThat(stock.getQuantity(apple)).isEqualTo(7);
+        assertThat(stock.getQuantity(orange)).isEqualTo(5);
+    }
+
+    @Test public void compacting_deletesJournalCoveredBySnapshot() throws IOException {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        stock.compact();
+
+        assertThat(StockJournal.segments(directory)).containsExactly(1L);
+        assertThat(Files.size(directory.resolve("journal-0000000000000000001.log"))).isEqualTo(0);
+    }
+
+    @Test public void reopening_withTornRecordAtEndOfJournal_recoversEverythingBeforeIt() throws IOException {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+        stock.close();
+        List<Long> segments = StockJournal.segments(directory);
+        Path lastSegment = directory.resolve(String.format("journal-%019d.log", segments.get(segments.size() - 1)));
+        Files.write(lastSegment, new byte[]{0, 0, 0, 20, 2, 0, 0}, StandardOpenOption.APPEND);
+
+        stock = open();
+        stock.replaceQuantity(item, 12);
+        reopen();
+
+        assertThat(stock.getQuantity(item)).isEqualTo(12);
+    }
+
+    private Runnable openWithBackgroundTask(JournalConfig.Builder config) throws IOException {
+        stock.close();
+        stock = JournaledStockRepository.open(config.directory(directory).syncIntervalMillis(10).build(), background);
+
+        ArgumentCaptor<Runnable> backgroundTask = ArgumentCaptor.forClass(Runnable.class);
+        verify(background).scheduleWithFixedDelay(backgroundTask.capture(), anyLong(), eq(10L),
+                any(TimeUnit.class));
+        return backgroundTask.getValue();
+    }
+
+    @Test public void syncing_withBackgroundTask_makesChangesDurableWithoutExplicitSync() throws IOException {
+        Runnable backgroundTask = openWithBackgroundTask(JournalConfig.builder());
+        Item item = createDefaultItem();
+        stock.create(item);
+        Path segment = directory.resolve("journal-0000000000000000000.log");
+        long sizeBeforeSync = Files.size(segment);
+
+        backgroundTask.run();
+
+        assertThat(sizeBeforeSync).isEqualTo(0);
+        assertThat(Files.size(segment)).isGreaterThan(0);
+    }
+
+    @Test public void changingStock_afterBackgroundTaskFailed_throwsFailureWithoutApplyingChange() throws IOException {
+        Runnable backgroundTask = openWithBackgroundTask(JournalConfig.builder().compactionThreshold(1));
+        Item item = createDefaultItem();
+        stock.create(item);
+        Files.createDirectory(directory.resolve("stock.snapshot.tmp"));
+
+        backgroundTask.run();
+
+        assertThatExceptionOfType(UncheckedIOException.class)
+                .isThrownBy(() -> stock.replaceQuantity(item, 10));
+        assertThat(stock.getQuantity(item)).isEqualTo(0);
+        stock.replaceQuantity(item, 10);
+        assertThat(stock.getQuantity(item)).isEqualTo(10);
+    }
+
+    @Test public void reopening_withCorruptRecordLengthAtEndOfJournal_recoversEverythingBeforeIt() throws IOException {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+        stock.close();
+        Path segment = directory.resolve("journal-0000000000000000000.log");
+        Files.write(segment, new byte[]{0x7F, -1, -1, -1, 2, 0, 0}, StandardOpenOption.APPEND);
+
+        stock = open();
+
+        assertThat(stock.getQuantity(item)).isEqualTo(10);
+    }
+
+    @Test public void gettingTotalValue_withNoItems_returnsZero() {
+        assertThat(stock.getTotalValue()).isEqualTo(Price.ZERO);
+    }
+
+    @Test public void gettingTotalValue_afterQuantityChanges_returnsSumOfPricesTimesQuantities() {
+        Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+        Item cheese = createDefaultItemBuilder().barcode(2).price(Price.of(0.5)).build();
+        stock.create(apple);
+        stock.create(cheese);
+
+        stock.replaceQuantity(apple, 10);
+        stock.adjustQuantity(apple, -4, true);
+        stock.adjustQuantity(cheese, 3, false);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(apple.barcode(), 10),
+                StockMovement.fill(apple.barcode(), 2),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(stock.getTotalValue()).isEqualTo(Price.of(new BigDecimal("101.5")));
+    }
+
+    @Test public void gettingTotalValue_afterReopening_returnsRecoveredValue() throws IOException {
+        Item item = createDefaultItemBuilder().price(Price.of(0.5)).build();
+        stock.create(item);
+        stock.replaceQuantity(item, 7);
+
+        reopen();
+
+        assertThat(stock.getTotalValue()).isEqualTo(Price.of(new BigDecimal("3.5")));
+    }
+
+    @Test public void changingStock_withListener_emitsCreatedAndQuantityChanges() {
+        List<StockChange> changes = new ArrayList<>();
+        stock.addListener(changes::addAll);
+        Item item = createDefaultItem();
+
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+        stock.adjustQuantity(item, -15, true);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(item.barcode(), 4),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(changes).containsExactly(
+                StockChange.created(item),
+                StockChange.quantityChanged(item, 0, 10),
+                StockChange.quantityChanged(item, 10, 0),
+                StockChange.quantityChanged(item, 0, 4));
+    }
+
+    @Test public void changingStock_withUnchangedQuantityOrRemovedListener_emitsNothing() {
+        List<StockChange> changes = new ArrayList<>();
+        StockChangeListener listener = changes::addAll;
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.addListener(listener);
+
+        stock.replaceQuantity(item, 0);
+        stock.removeListener(listener);
+        stock.replaceQuantity(item, 10);
+
+        assertThat(changes).isEmpty();
+    }
+}
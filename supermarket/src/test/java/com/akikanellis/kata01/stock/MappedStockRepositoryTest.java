@@ -0,0 +1,252 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class MappedStockRepositoryTest {
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+    private Path directory;
+    private MappedStockRepository stock;
+
+    @Before public void beforeEach() throws IOException {
+        directory = folder.getRoot().toPath().resolve("stock");
+        stock = MappedStockRepository.open(directory);
+    }
+
+    @After public void afterEach() { stock.close(); }
+
+    private void reopen() throws IOException {
+        stock.close();
+        stock = MappedStockRepository.open(directory);
+    }
+
+    @Test public void creatingItem_withNotExistingItem_createsItemWithZeroQuantity() {
+        Item item = createDefaultItem();
+
+        stock.create(item);
+
+        assertThat(stock.contains(item)).isTrue();
+        assertThat(stock.getQuantity(item)).isEqualTo(0);
+    }
+
+    @Test public void creatingItem_withExistingItem_throwsException() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        assertThatExceptionOfType(ItemAlreadyExistsException.class)
+                .isThrownBy(() -> stock.create(item));
+    }
+
+    @Test public void creatingItem_withTooPrecisePrice_throwsException() {
+        Item item = createDefaultItemBuilder()
+                .price(Price.of(new BigDecimal("0.1234567890123456789012345")))
+                .build();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> stock.create(item));
+    }
+
+    @Test public void replacingQuantity_withExistingItem_replacesQuantity() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        stock.replaceQuantity(item, 10);
+
+        assertThat(stock.getQuantity(item)).isEqualTo(10);
+    }
+
+    @Test public void replacingQuantity_withNotExistingItem_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.replaceQuantity(createDefaultItem(), 10));
+    }
+
+    @Test public void adjustingQuantity_belowZeroWithFloor_setsQuantityToZero() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        int newQuantity = stock.adjustQuantity(item, -15, true);
+
+        assertThat(newQuantity).isEqualTo(0);
+    }
+
+    @Test public void applyingMovements_withUnknownBarcodes_reportsThemAndAppliesTheRest() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        StockMovementsReport report = stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(item.barcode(), 10),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(report.appliedCount()).isEqualTo(1);
+        assertThat(report.failures()).extracting(StockMovementFailure::line).containsExactly(1);
+        assertThat(stock.getQuantity(item)).isEqualTo(10);
+    }
+
+    @Test public void applyingMovementsIfAvailable_withUnavailableLine_reportsItAndAppliesNothing() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 5);
+
+        StockMovementsReport report = stock.applyMovementsIfAvailable(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(item.barcode(), 3),
+                StockMovement.reduce(item.barcode(), 3)
+        )));
+
+        assertThat(report.appliedCount()).isEqualTo(0);
+        assertThat(report.failures()).extracting(StockMovementFailure::line).containsExactly(1);
+        assertThat(stock.getQuantity(item)).isEqualTo(5);
+    }
+
+    @Test public void gettingItemByBarcode_withItemPresent_returnsEqualItem() {
+        Item expectedItem = createDefaultItemBuilder()
+                .barcode(10)
+                .name("Cheese")
+                .price(Price.of(0.5))
+                .build();
+        stock.create(expectedItem);
+
+        Item actualItem = stock.getByBarcode(10);
+
+        assertThat(actualItem).isEqualTo(expectedItem);
+        assertThat(actualItem.name()).isEqualTo("Cheese");
+        assertThat(actualItem.price()).isEqualTo(Price.of(0.5));
+    }
+
+    @Test public void gettingItemByBarcode_withNoItemPresent_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.getByBarcode(1));
+    }
+
+    @Test public void gettingAllItems_withNoItems_returnsEmptyItems() {
+        assertThat(stock.getAll().isEmpty()).isTrue();
+    }
+
+    @Test public void reopening_afterChanges_returnsSameStock() throws IOException {
+        Items expectedItems = createDefaultItems();
+        expectedItems.stream().forEach(quantifiedItem -> {
+            stock.create(quantifiedItem.item());
+            stock.replaceQuantity(quantifiedItem.item(), quantifiedItem.quantity());
+        });
+
+        reopen();
+
+        assertThat(stock.getAll().asList()).containsOnlyElementsOf(expectedItems.asList());
+    }
+
+    @Test public void opening_whileAlreadyOpen_throwsException() {
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> MappedStockRepository.open(directory));
+    }
+
+    @Test public void creatingItems_beyondInitialCapacity_growsAndKeepsThemAfterReopening() throws IOException {
+        for (int barcode = 0; barcode < 5000; barcode++) {
+            Item item = createDefaultItemBuilder()
+                    .barcode(barcode)
+                    .name("Item-" + barcode)
+                    .build();
+            stock.create(item);
+            stock.replaceQuantity(item, barcode);
+        }
+
+        reopen();
+
+        assertThat(stock.getAll().asList()).hasSize(5000);
+        for (int barcode = 0; barcode < 5000; barcode++) {
+            Item item = stock.getByBarcode(barcode);
+            assertThat(item.name()).isEqualTo("Item-" + barcode);
+            assertThat(stock.getQuantity(item)).isEqualTo(barcode);
+        }
+    }
+
+    @Test public void gettingTotalValue_withNoItems_returnsZero() {
+        assertThat(stock.getTotalValue()).isEqualTo(Price.ZERO);
+    }
+
+    @Test public void gettingTotalValue_afterQuantityChanges_returnsSumOfPricesTimesQuantities() {
+        Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+        Item cheese = createDefaultItemBuilder().barcode(2).price(Price.of(0.5)).build();
+        stock.create(apple);
+        stock.create(cheese);
+
+        stock.replaceQuantity(apple, 10);
+        stock.adjustQuantity(apple, -4, true);
+        stock.adjustQuantity(cheese, 3, false);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(apple.barcode(), 10),
+                StockMovement.fill(apple.barcode(), 2),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(stock.getTotalValue()).isEqualTo(Price.of(new BigDecimal("101.5")));
+    }
+
+    @Test public void gettingTotalValue_afterReopeningAndChanging_returnsCurrentValue() throws IOException {
+        Item item = createDefaultItemBuilder().price(Price.of(0.5)).build();
+        stock.create(item);
+        stock.replaceQuantity(item, 7);
+        reopen();
+
+        Price reopenedValue = stock.getTotalValue();
+        stock.adjustQuantity(item, 3, false);
+
+        assertThat(reopenedValue).isEqualTo(Price.of(new BigDecimal("3.5")));
+        assertThat(stock.getTotalValue()).isEqualTo(Price.of(5));
+    }
+
+    @Test public void changingStock_withListener_emitsCreatedAndQuantityChanges() {
+        List<StockChange> changes = new ArrayList<>();
+        stock.addListener(changes::addAll);
+        Item item = createDefaultItem();
+
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+        stock.adjustQuantity(item, -15, true);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(item.barcode(), 4),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(changes).containsExactly(
+                StockChange.created(item),
+                StockChange.quantityChanged(item, 0, 10),
+                StockChange.quantityChanged(item, 10, 0),
+                StockChange.quantityChanged(item, 0, 4));
+    }
+
+    @Test public void changingStock_withUnchangedQuantityOrRemovedListener_emitsNothing() {
+        List<StockChange> changes = new ArrayList<>();
+        StockChangeListener listener = changes::addAll;
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.addListener(listener);
+
+        stock.replaceQuantity(item, 0);
+        stock.removeListener(listener);
+        stock.replaceQuantity(item, 10);
+
+        assertThat(changes).isEmpty();
+    }
+}
@@ -10,7 +10,6 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ReduceStockUseCaseTest {
@@ -28,22 +27,12 @@ public class ReduceStockUseCaseTest {
         verify(addNewItemIfNotExists).execute(item);
     }
 
-    @Test public void executing_withCurrentQuantityBigger_replacesStockWithTheDifference() {
+    @Test public void executing_withNonNegativeQuantity_atomicallySubtractsStockFlooredAtZero() {
         Item item = createDefaultItem();
-        when(stock.getQuantity(item)).thenReturn(50);
 
         reduceStock.execute(item, 20);
 
-        verify(stock).replaceQuantity(item, 30);
-    }
-
-    @Test public void executing_withCurrentQuantitySmaller_replacesStockWithZero() {
-        Item item = createDefaultItem();
-        when(stock.getQuantity(item)).thenReturn(10);
-
-        reduceStock.execute(item, 15);
-
-        verify(stock).replaceQuantity(item, 0);
+        verify(stock).adjustQuantity(item, -20, true);
     }
 
     @Test public void executing_withNegativeQuantity_throwsException() {
@@ -0,0 +1,222 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import com.akikanellis.kata01.item.ItemAlreadyExistsException;
+import com.akikanellis.kata01.item.ItemNotFoundException;
+import com.akikanellis.kata01.item.Items;
+import com.akikanellis.kata01.price.Price;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class SingleWriterStockRepositoryTest {
+    private SingleWriterStockRepository stock;
+
+    @Before public void beforeEach() { stock = SingleWriterStockRepository.start(new InMemoryStockRepository(), 8); }
+
+    @After public void afterEach() { stock.close(); }
+
+    @Test public void creatingItem_withNotExistingItem_createsItemWithZeroQuantity() {
+        Item item = createDefaultItem();
+
+        stock.create(item);
+
+        assertThat(stock.contains(item)).isTrue();
+        assertThat(stock.getQuantity(item)).isEqualTo(0);
+    }
+
+    @Test public void creatingItem_withExistingItem_throwsException() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        assertThatExceptionOfType(ItemAlreadyExistsException.class)
+                .isThrownBy(() -> stock.create(item));
+    }
+
+    @Test public void submittingCreation_withExistingItem_completesExceptionally() {
+        Item item = createDefaultItem();
+        stock.create(item);
+
+        CompletableFuture<Void> future = stock.submitCreate(item);
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(future::get)
+                .withCauseInstanceOf(ItemAlreadyExistsException.class);
+    }
+
+    @Test public void replacingQuantity_withNotExistingItem_throwsException() {
+        assertThatExceptionOfType(ItemNotFoundException.class)
+                .isThrownBy(() -> stock.replaceQuantity(createDefaultItem(), 10));
+    }
+
+    @Test public void adjustingQuantity_belowZeroWithFloor_setsQuantityToZero() throws Exception {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        int newQuantity = stock.submitAdjustQuantity(item, -15, true).get();
+
+        assertThat(newQuantity).isEqualTo(0);
+        assertThat(stock.getQuantity(item)).isEqualTo(0);
+    }
+
+    @Test public void submittingMovementsIfAvailable_withUnavailableLine_appliesNothing() throws Exception {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 5);
+
+        StockMovementsReport report = stock.submitMovementsIfAvailable(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(item.barcode(), 6)))).get();
+
+        assertThat(report.failures()).containsExactly(
+                StockMovementFailure.insufficientStock(0, StockMovement.reduce(item.barcode(), 6), 5));
+        assertThat(stock.getQuantity(item)).isEqualTo(5);
+    }
+
+    @Test public void gettingAllItems_afterChanges_returnsEveryItemWithItsQuantity() {
+        Items expectedItems = createDefaultItems();
+        expectedItems.stream().forEach(quantifiedItem -> {
+            stock.create(quantifiedItem.item());
+            stock.replaceQuantity(quantifiedItem.item(), quantifiedItem.quantity());
+        });
+
+        assertThat(stock.getAll().asList()).containsOnlyElementsOf(expectedItems.asList());
+    }
+
+    @Test public void starting_withExistingStock_publishesIt() {
+        InMemoryStockRepository existingStock = new InMemoryStockRepository();
+        Item item = createDefaultItemBuilder().price(Price.of(2)).build();
+        existingStock.create(item);
+        existingStock.replaceQuantity(item, 5);
+
+        SingleWriterStockRepository startedStock = SingleWriterStockRepository.start(existingStock, 8);
+
+        assertThat(startedStock.getQuantity(item)).isEqualTo(5);
+        assertThat(startedStock.getTotalValue()).isEqualTo(Price.of(10));
+        startedStock.close();
+    }
+
+    @Test public void gettingTotalValue_afterQuantityChanges_returnsSumOfPricesTimesQuantities() {
+        Item apple = createDefaultItemBuilder().barcode(1).price(Price.of(50)).build();
+        Item cheese = createDefaultItemBuilder().barcode(2).price(Price.of(0.5)).build();
+        stock.create(apple);
+        stock.create(cheese);
+
+        stock.replaceQuantity(apple, 10);
+        stock.adjustQuantity(apple, -4, true);
+        stock.adjustQuantity(cheese, 3, false);
+        stock.applyMovements(StockMovements.fromCollection(Arrays.asList(
+                StockMovement.reduce(apple.barcode(), 10),
+                StockMovement.fill(apple.barcode(), 2),
+                StockMovement.fill(99, 10)
+        )));
+
+        assertThat(stock.getTotalValue()).isEqualTo(Price.of(new BigDecimal("101.5")));
+    }
+
+    @Test public void readingPublishedState_afterLaterChanges_keepsReadingOlderState() {
+        Item item = createDefaultItem();
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+        Items itemsBefore = stock.getAll();
+
+        stock.replaceQuantity(item, 20);
+
+        assertThat(itemsBefore.quantityOf(item.barcode())).isEqualTo(10);
+        assertThat(stock.getAll().quantityOf(item.barcode())).isEqualTo(20);
+    }
+
+    @Test public void creatingItems_beyondOnePage_keepsEveryQuantity() {
+        for (int barcode = 0; barcode < 3000; barcode++) {
+            Item item = createDefaultItemBuilder().barcode(barcode).build();
+            stock.submitCreate(item);
+            stock.submitReplaceQuantity(item, barcode);
+        }
+        stock.adjustQuantity(createDefaultItemBuilder().barcode(0).build(), 1, false);
+
+        for (int barcode = 1; barcode < 3000; barcode++) {
+            assertThat(stock.getQuantity(stock.getByBarcode(barcode))).isEqualTo(barcode);
+        }
+    }
+
+    @Test public void adjustingQuantity_fromManyThreads_appliesEveryAdjustment() throws InterruptedException {
+        Item item = createDefaultItem();
+        stock.create(item);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 10000; i++) executor.execute(() -> stock.adjustQuantity(item, 1, false));
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        assertThat(stock.getQuantity(item)).isEqualTo(10000);
+    }
+
+    @Test public void changingStock_withListener_emitsChangesFromWriter() {
+        List<StockChange> changes = new ArrayList<>();
+        stock.addListener(changes::addAll);
+        Item item = createDefaultItem();
+
+        stock.create(item);
+        stock.replaceQuantity(item, 10);
+
+        assertThat(changes).containsExactly(
+                StockChange.created(item),
+                StockChange.quantityChanged(item, 0, 10));
+    }
+
+    @Test public void submitting_afterClosing_throwsException() {
+        stock.close();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> stock.submitCreate(createDefaultItem()));
+    }
+
+    @Test public void closing_withSubmittedCommands_appliesThemFirst() {
+        Item item = createDefaultItem();
+        stock.submitCreate(item);
+        CompletableFuture<Void> replacement = stock.submitReplaceQuantity(item, 7);
+
+        stock.close();
+
+        assertThat(replacement.isDone()).isTrue();
+        assertThat(stock.getQuantity(item)).isEqualTo(7);
+    }
+
+    @Test public void submitting_afterWriterFailed_failsPendingAndLaterCommands() throws Exception {
+        AtomicBoolean failPublishing = new AtomicBoolean();
+        SingleWriterStockRepository failingStock = SingleWriterStockRepository.start(new InMemoryStockRepository() {
+            @Override public Price getTotalValue() {
+                if (failPublishing.get()) throw new IllegalArgumentException("Corrupt total");
+                return super.getTotalValue();
+            }
+        }, 8);
+        failPublishing.set(true);
+
+        CompletableFuture<Void> pending = failingStock.submitCreate(createDefaultItem());
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(() -> pending.get(5, TimeUnit.SECONDS))
+                .withCauseInstanceOf(IllegalStateException.class);
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> failingStock.submitCreate(createDefaultItem()))
+                .withCauseInstanceOf(IllegalArgumentException.class);
+        failingStock.close();
+    }
+}
@@ -12,6 +12,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Collections;
+
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItem;
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItems;
 import static com.akikanellis.kata01.test_utils.Fakes.createDefaultOfferStrategies;
@@ -27,6 +29,7 @@ public class StockFacadeTest {
     @Mock private FindItemByBarcodeUseCase findItemByBarcode;
     @Mock private FillStockUseCase fillStock;
     @Mock private ReduceStockUseCase reduceStock;
+    @Mock private ApplyStockMovementsUseCase applyStockMovements;
     @Mock private GetStockUseCase getStock;
     @Mock private FindOfferStrategyByIdUseCase findOfferStrategyById;
     @Mock private AddOfferStrategyUseCase addOfferStrategy;
@@ -36,12 +39,14 @@ public class StockFacadeTest {
     @Mock private GetOffersValueUseCase getOffersValue;
     @Mock private GetStockValueAfterOffersUseCase getStockValueAfterOffers;
     @Mock private GetApplicableOffersUseCase getApplicableOffers;
+    @Mock private GetStockValuationUseCase getStockValuation;
     private StockFacade stockFacade;
 
     @Before public void beforeEach() {
-        stockFacade = new StockFacade(addNewItemIfNotExists, findItemByBarcode, fillStock, reduceStock, getStock,
-                findOfferStrategyById, addOfferStrategy, removeOfferStrategy, getActiveOfferStrategies,
-                getApplicableOffers, getOffersValue, getStockValueBeforeOffers, getStockValueAfterOffers);
+        stockFacade = new StockFacade(addNewItemIfNotExists, findItemByBarcode, fillStock, reduceStock,
+                applyStockMovements, getStock, findOfferStrategyById, addOfferStrategy, removeOfferStrategy,
+                getActiveOfferStrategies, getApplicableOffers, getOffersValue, getStockValueBeforeOffers,
+                getStockValueAfterOffers, getStockValuation);
     }
 
     @Test public void addingNewItem_usesUseCase() {
@@ -70,6 +75,17 @@ public class StockFacadeTest {
         verify(reduceStock).execute(item, 50);
     }
 
+    @Test public void applyingMovements_usesUseCase() {
+        StockMovements movements = StockMovements.fromCollection(
+                Collections.singletonList(StockMovement.fill(10, 50)));
+        StockMovementsReport expectedReport = StockMovementsReport.create(1, Collections.emptyList());
+        when(applyStockMovements.execute(movements)).thenReturn(expectedReport);
+
+        StockMovementsReport actualReport = stockFacade.applyMovements(movements);
+
+        assertThat(actualReport).isSameAs(expectedReport);
+    }
+
     @Test public void gettingStock_usesUseCase() {
         Items expectedItems = createDefaultItems();
         when(getStock.execute()).thenReturn(expectedItems);
@@ -140,4 +156,13 @@ public class StockFacadeTest {
 
         assertThat(stockValueAfterOffers).isSameAs(value);
     }
-}
\ No newline at end of file
+
+    @Test public void gettingStockValuation_usesUseCase() {
+        StockValuation valuation = StockValuation.create(Price.of(50), Collections.singletonMap(1L, Price.of(-15)));
+        when(getStockValuation.execute()).thenReturn(valuation);
+
+        StockValuation stockValuation = stockFacade.getStockValuation();
+
+        assertThat(stockValuation).isSameAs(valuation);
+    }
+}
@@ -0,0 +1,54 @@
+package com.akikanellis.kata01.stock;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class StockMovementsTest {
+
+    @Test public void creatingFill_withNegativeQuantity_throwsException() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> StockMovement.fill(1, -5));
+    }
+
+    @Test public void creatingReduce_withNegativeQuantity_throwsException() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> StockMovement.reduce(1, -5));
+    }
+
+    @Test public void applyingReduce_belowZero_floorsAtZero() {
+        assertThat(StockMovement.reduce(1, 15).applyTo(10)).isEqualTo(0);
+    }
+
+    @Test public void groupingLinesByBarcode_keepsOrderOfFirstAppearanceAndOfLines() {
+        StockMovements movements = StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(2, 10),
+                StockMovement.fill(1, 5),
+                StockMovement.reduce(2, 3),
+                StockMovement.fill(2, 1)
+        ));
+
+        Map<Long, List<Integer>> linesByBarcode = movements.linesByBarcode();
+
+        assertThat(linesByBarcode.keySet()).containsExactly(2L, 1L);
+        assertThat(linesByBarcode.get(2L)).containsExactly(0, 2, 3);
+        assertThat(linesByBarcode.get(1L)).containsExactly(1);
+    }
+
+    @Test public void applyingLines_appliesThemInOrder() {
+        StockMovements movements = StockMovements.fromCollection(Arrays.asList(
+                StockMovement.fill(1, 10),
+                StockMovement.reduce(1, 20),
+                StockMovement.fill(1, 5)
+        ));
+
+        int newQuantity = movements.applyTo(0, Arrays.asList(0, 1, 2));
+
+        assertThat(newQuantity).isEqualTo(5);
+    }
+}
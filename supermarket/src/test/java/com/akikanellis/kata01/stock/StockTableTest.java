@@ -0,0 +1,64 @@
+package com.akikanellis.kata01.stock;
+
+import com.akikanellis.kata01.item.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.akikanellis.kata01.test_utils.Fakes.createDefaultItemBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StockTableTest {
+    private StockTable table;
+
+    @Before public void beforeEach() { table = new StockTable(); }
+
+    @Test public void indexOf_withNoBarcodePresent_returnsNotFound() {
+        assertThat(table.indexOf(5)).isEqualTo(StockTable.NOT_FOUND);
+    }
+
+    @Test public void inserting_withNewItem_storesItemAndQuantity() {
+        Item item = createItemWithBarcode(5);
+
+        int slot = table.insert(item, 12);
+
+        assertThat(table.indexOf(5)).isEqualTo(slot);
+        assertThat(table.itemAt(slot)).isSameAs(item);
+        assertThat(table.quantityAt(slot)).isEqualTo(12);
+    }
+
+    @Test public void replacingQuantity_atSlot_replacesQuantity() {
+        int slot = table.insert(createItemWithBarcode(5), 12);
+
+        table.replaceQuantityAt(slot, 3);
+
+        assertThat(table.quantityAt(table.indexOf(5))).isEqualTo(3);
+    }
+
+    @Test public void inserting_beyondCapacity_keepsAllItemsReachable() {
+        for (long barcode = -500; barcode < 500; barcode++) {
+            table.insert(createItemWithBarcode(barcode * 1024), (int) barcode);
+        }
+
+        assertThat(table.size()).isEqualTo(1000);
+        for (long barcode = -500; barcode < 500; barcode++) {
+            int slot = table.indexOf(barcode * 1024);
+            assertThat(table.itemAt(slot).barcode()).isEqualTo(barcode * 1024);
+            assertThat(table.quantityAt(slot)).isEqualTo((int) barcode);
+        }
+    }
+
+    @Test public void packagingAsItems_returnsAllItemsWithQuantities() {
+        table.insert(createItemWithBarcode(1), 10);
+        table.insert(createItemWithBarcode(2), 20);
+
+        assertThat(table.toItems().asList())
+                .extracting(quantifiedItem -> quantifiedItem.item().barcode() + "x" + quantifiedItem.quantity())
+                .containsOnly("1x10", "2x20");
+    }
+
+    private static Item createItemWithBarcode(long barcode) {
+        return createDefaultItemBuilder()
+                .barcode(barcode)
+                .build();
+    }
+}